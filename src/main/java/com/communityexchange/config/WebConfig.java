@@ -0,0 +1,46 @@
+package com.communityexchange.config;
+
+import com.communityexchange.web.support.ConcurrencyLimitFilter;
+import com.communityexchange.web.support.IdempotencyFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+public class WebConfig {
+
+    @Bean
+    @ConditionalOnExpression("${calendar.web.max-concurrent-requests:0} > 0")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${calendar.web.max-concurrent-requests}") int maxConcurrentRequests,
+            @Value("${calendar.web.concurrency-wait:PT1S}") Duration concurrencyWait) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(objectMapper, meterRegistry, maxConcurrentRequests, concurrencyWait));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // Behind the concurrency limit, so a request waiting on its in-flight duplicate holds a permit like any other
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${calendar.idempotency.maximum-size:10000}") long maximumSize,
+            @Value("${calendar.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${calendar.idempotency.in-flight-wait:PT10S}") Duration inFlightWait) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(
+                objectMapper, meterRegistry, Set.of("/scheduled-slots", "/availabilities"), maximumSize, ttl, inFlightWait));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
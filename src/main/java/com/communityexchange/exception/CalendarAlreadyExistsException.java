@@ -0,0 +1,16 @@
+package com.communityexchange.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CalendarAlreadyExistsException extends RuntimeException {
+    
+    public CalendarAlreadyExistsException(String message) {
+        super(message);
+    }
+    
+    public CalendarAlreadyExistsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.communityexchange.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageTokenException extends RuntimeException {
+    
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+    
+    public InvalidPageTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
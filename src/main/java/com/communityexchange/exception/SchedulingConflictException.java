@@ -0,0 +1,16 @@
+package com.communityexchange.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SchedulingConflictException extends RuntimeException {
+    
+    public SchedulingConflictException(String message) {
+        super(message);
+    }
+    
+    public SchedulingConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.communityexchange.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SubscriberLimitExceededException extends RuntimeException {
+    
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+    
+    public SubscriberLimitExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
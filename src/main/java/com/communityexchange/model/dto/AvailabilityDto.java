@@ -1,12 +1,15 @@
 package com.communityexchange.model.dto;
 
+import com.communityexchange.model.validation.ValidRecurrenceRule;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.UUID;
 
@@ -16,6 +19,8 @@ public class AvailabilityDto {
     
     private UUID id;
     
+    private Long version;
+    
     @NotNull(message = "User calendar ID is required")
     private UUID userCalendarId;
     
@@ -31,4 +36,10 @@ public class AvailabilityDto {
     private boolean isRecurring = true;
     
     private boolean isActive = true;
+    
+    @Size(max = 255, message = "Recurrence rule must be at most 255 characters")
+    @ValidRecurrenceRule
+    private String recurrenceRule;
+    
+    private LocalDate startDate;
 }
\ No newline at end of file
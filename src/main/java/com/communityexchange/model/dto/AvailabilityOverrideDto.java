@@ -0,0 +1,39 @@
+package com.communityexchange.model.dto;
+
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.validation.ValidOverrideWindow;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@ValidOverrideWindow
+public class AvailabilityOverrideDto {
+    
+    private UUID id;
+    
+    private Long version;
+    
+    @NotNull(message = "User calendar ID is required")
+    private UUID userCalendarId;
+    
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+    
+    @NotNull(message = "Type is required")
+    private AvailabilityOverride.Type type;
+    
+    // Leave both out to black out the whole date
+    private LocalTime startTime;
+    
+    private LocalTime endTime;
+    
+    @Size(max = 255, message = "Reason must be at most 255 characters")
+    private String reason;
+}
@@ -0,0 +1,18 @@
+package com.communityexchange.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDto<T> {
+    
+    // Position of the item in the request array
+    private int index;
+    private T item;
+    private String error;
+}
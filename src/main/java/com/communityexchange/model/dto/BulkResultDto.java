@@ -0,0 +1,19 @@
+package com.communityexchange.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDto<T> {
+    
+    private int created;
+    private int rejected;
+    private List<BulkItemResultDto<T>> results;
+}
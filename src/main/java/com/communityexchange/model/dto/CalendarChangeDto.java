@@ -0,0 +1,33 @@
+package com.communityexchange.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarChangeDto {
+    
+    public enum Type {
+        SLOT_CREATED, SLOT_UPDATED, SLOT_CONFIRMED, SLOT_DELETED,
+        AVAILABILITY_CREATED, AVAILABILITY_UPDATED, AVAILABILITY_DELETED,
+        OVERRIDE_CREATED, OVERRIDE_DELETED
+    }
+    
+    // Increases with every change this instance publishes
+    private long sequence;
+    
+    private Type type;
+    
+    private UUID userId;
+    
+    private UUID resourceId;
+    
+    // Null for deletions
+    private Long version;
+}
@@ -0,0 +1,23 @@
+package com.communityexchange.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarSyncDto {
+    
+    // True when the response holds the whole calendar and replaces everything the client has
+    private boolean fullSync;
+    private List<ScheduledSlotDto> scheduledSlots;
+    private List<AvailabilityDto> availabilities;
+    private List<TombstoneDto> deleted;
+    // Passed back as since on the next sync
+    private String syncToken;
+}
@@ -0,0 +1,26 @@
+package com.communityexchange.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class CommonAvailabilityRequestDto {
+    
+    @NotEmpty(message = "At least one user ID is required")
+    @Size(max = 50, message = "At most 50 user IDs are allowed")
+    private List<@NotNull UUID> userIds;
+    
+    @NotNull(message = "Start time is required")
+    private LocalDateTime start;
+    
+    @NotNull(message = "End time is required")
+    private LocalDateTime end;
+}
@@ -0,0 +1,21 @@
+package com.communityexchange.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonAvailableSlotDto {
+    
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private List<UUID> userIds;
+}
@@ -16,6 +16,8 @@ public class ScheduledSlotDto {
     
     private UUID id;
     
+    private Long version;
+    
     @NotNull(message = "User ID is required")
     private UUID userId;
     
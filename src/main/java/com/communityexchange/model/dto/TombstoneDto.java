@@ -0,0 +1,19 @@
+package com.communityexchange.model.dto;
+
+import com.communityexchange.model.entity.CalendarTombstone;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TombstoneDto {
+    
+    private CalendarTombstone.ResourceType resourceType;
+    private UUID resourceId;
+}
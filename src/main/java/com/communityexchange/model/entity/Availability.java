@@ -4,8 +4,10 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
@@ -15,7 +17,7 @@ import java.time.LocalTime;
 @NoArgsConstructor
 public class Availability extends BaseEntity {
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_calendar_id", nullable = false)
     private UserCalendar userCalendar;
     
@@ -34,4 +36,17 @@ public class Availability extends BaseEntity {
     
     @Column(name = "is_active", nullable = false)
     private boolean isActive = true;
+    
+    // Subset of an RFC 5545 RRULE, see RecurrenceRule; null repeats weekly on dayOfWeek
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule;
+    
+    // First date the availability applies; the only one when it is not recurring
+    @Column(name = "start_date")
+    private LocalDate startDate;
+    
+    // The calendar's change version at the last write, see CalendarVersions
+    @ColumnDefault("0")
+    @Column(name = "change_sequence", nullable = false)
+    private long changeSequence;
 }
\ No newline at end of file
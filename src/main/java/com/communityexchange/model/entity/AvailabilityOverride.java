@@ -0,0 +1,46 @@
+package com.communityexchange.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Changes a calendar's availability on one date without touching its recurring availabilities
+@Entity
+@Table(name = "availability_overrides")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AvailabilityOverride extends BaseEntity {
+    
+    public enum Type {
+        // An extra window on the date, on top of the usual availabilities
+        EXTRA,
+        // Takes the date, or the part of it between the times, out of the usual availabilities
+        BLACKOUT
+    }
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_calendar_id", nullable = false)
+    private UserCalendar userCalendar;
+    
+    @Column(name = "override_date", nullable = false)
+    private LocalDate date;
+    
+    @Column(name = "type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+    
+    // Both null for a blackout of the whole date
+    @Column(name = "start_time")
+    private LocalTime startTime;
+    
+    @Column(name = "end_time")
+    private LocalTime endTime;
+    
+    @Column(name = "reason")
+    private String reason;
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.communityexchange.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Left behind by a deleted slot or availability so that delta syncs can tell clients to drop it
+@Entity
+@Table(name = "calendar_tombstones")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CalendarTombstone extends BaseEntity {
+    
+    public enum ResourceType {
+        SCHEDULED_SLOT,
+        AVAILABILITY
+    }
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(name = "resource_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ResourceType resourceType;
+    
+    @Column(name = "resource_id", nullable = false)
+    private UUID resourceId;
+    
+    @Column(name = "change_sequence", nullable = false)
+    private long changeSequence;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -42,6 +43,11 @@ public class ScheduledSlot extends BaseEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // The owner's calendar change version at the last write, see CalendarVersions
+    @ColumnDefault("0")
+    @Column(name = "change_sequence", nullable = false)
+    private long changeSequence;
+    
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
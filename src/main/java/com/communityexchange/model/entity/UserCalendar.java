@@ -7,6 +7,7 @@ import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -29,6 +30,11 @@ public class UserCalendar extends BaseEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Bumped with a bulk update by every availability or slot write, never through the entity
+    @ColumnDefault("0")
+    @Column(name = "change_version", nullable = false, updatable = false)
+    private long changeVersion;
+    
     @OneToMany(mappedBy = "userCalendar")
     private Set<Availability> availabilities = new HashSet<>();
     
@@ -0,0 +1,39 @@
+package com.communityexchange.model.mapper;
+
+import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.entity.Availability;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AvailabilityMapper {
+    
+    public AvailabilityDto toDto(Availability availability) {
+        AvailabilityDto availabilityDto = new AvailabilityDto();
+        availabilityDto.setId(availability.getId());
+        availabilityDto.setVersion(availability.getVersion());
+        if (availability.getUserCalendar() != null) {
+            availabilityDto.setUserCalendarId(availability.getUserCalendar().getId());
+        }
+        availabilityDto.setDayOfWeek(availability.getDayOfWeek());
+        availabilityDto.setStartTime(availability.getStartTime());
+        availabilityDto.setEndTime(availability.getEndTime());
+        availabilityDto.setRecurring(availability.isRecurring());
+        availabilityDto.setActive(availability.isActive());
+        availabilityDto.setRecurrenceRule(availability.getRecurrenceRule());
+        availabilityDto.setStartDate(availability.getStartDate());
+        return availabilityDto;
+    }
+    
+    // The calendar is resolved by the caller; the ID is left to the database
+    public Availability toEntity(AvailabilityDto availabilityDto) {
+        Availability availability = new Availability();
+        availability.setDayOfWeek(availabilityDto.getDayOfWeek());
+        availability.setStartTime(availabilityDto.getStartTime());
+        availability.setEndTime(availabilityDto.getEndTime());
+        availability.setRecurring(availabilityDto.isRecurring());
+        availability.setActive(availabilityDto.isActive());
+        availability.setRecurrenceRule(availabilityDto.getRecurrenceRule());
+        availability.setStartDate(availabilityDto.getStartDate());
+        return availability;
+    }
+}
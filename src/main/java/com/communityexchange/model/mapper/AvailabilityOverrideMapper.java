@@ -0,0 +1,35 @@
+package com.communityexchange.model.mapper;
+
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AvailabilityOverrideMapper {
+    
+    public AvailabilityOverrideDto toDto(AvailabilityOverride availabilityOverride) {
+        AvailabilityOverrideDto availabilityOverrideDto = new AvailabilityOverrideDto();
+        availabilityOverrideDto.setId(availabilityOverride.getId());
+        availabilityOverrideDto.setVersion(availabilityOverride.getVersion());
+        if (availabilityOverride.getUserCalendar() != null) {
+            availabilityOverrideDto.setUserCalendarId(availabilityOverride.getUserCalendar().getId());
+        }
+        availabilityOverrideDto.setDate(availabilityOverride.getDate());
+        availabilityOverrideDto.setType(availabilityOverride.getType());
+        availabilityOverrideDto.setStartTime(availabilityOverride.getStartTime());
+        availabilityOverrideDto.setEndTime(availabilityOverride.getEndTime());
+        availabilityOverrideDto.setReason(availabilityOverride.getReason());
+        return availabilityOverrideDto;
+    }
+    
+    // The calendar is resolved by the caller; the ID is left to the database
+    public AvailabilityOverride toEntity(AvailabilityOverrideDto availabilityOverrideDto) {
+        AvailabilityOverride availabilityOverride = new AvailabilityOverride();
+        availabilityOverride.setDate(availabilityOverrideDto.getDate());
+        availabilityOverride.setType(availabilityOverrideDto.getType());
+        availabilityOverride.setStartTime(availabilityOverrideDto.getStartTime());
+        availabilityOverride.setEndTime(availabilityOverrideDto.getEndTime());
+        availabilityOverride.setReason(availabilityOverrideDto.getReason());
+        return availabilityOverride;
+    }
+}
@@ -0,0 +1,51 @@
+package com.communityexchange.model.mapper;
+
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ScheduledSlotMapper {
+    
+    public ScheduledSlotDto toDto(ScheduledSlot scheduledSlot) {
+        ScheduledSlotDto scheduledSlotDto = new ScheduledSlotDto();
+        scheduledSlotDto.setId(scheduledSlot.getId());
+        scheduledSlotDto.setVersion(scheduledSlot.getVersion());
+        scheduledSlotDto.setUserId(scheduledSlot.getUserId());
+        scheduledSlotDto.setExchangeId(scheduledSlot.getExchangeId());
+        scheduledSlotDto.setStartTime(scheduledSlot.getStartTime());
+        scheduledSlotDto.setEndTime(scheduledSlot.getEndTime());
+        scheduledSlotDto.setTitle(scheduledSlot.getTitle());
+        scheduledSlotDto.setDescription(scheduledSlot.getDescription());
+        scheduledSlotDto.setConfirmed(scheduledSlot.isConfirmed());
+        return scheduledSlotDto;
+    }
+    
+    // Summaries carry no description, so it stays null
+    public ScheduledSlotDto toDto(ScheduledSlotSummary summary) {
+        ScheduledSlotDto scheduledSlotDto = new ScheduledSlotDto();
+        scheduledSlotDto.setId(summary.id());
+        scheduledSlotDto.setVersion(summary.version());
+        scheduledSlotDto.setUserId(summary.userId());
+        scheduledSlotDto.setExchangeId(summary.exchangeId());
+        scheduledSlotDto.setStartTime(summary.startTime());
+        scheduledSlotDto.setEndTime(summary.endTime());
+        scheduledSlotDto.setTitle(summary.title());
+        scheduledSlotDto.setConfirmed(summary.confirmed());
+        return scheduledSlotDto;
+    }
+    
+    // The ID is left to the database
+    public ScheduledSlot toEntity(ScheduledSlotDto scheduledSlotDto) {
+        ScheduledSlot scheduledSlot = new ScheduledSlot();
+        scheduledSlot.setUserId(scheduledSlotDto.getUserId());
+        scheduledSlot.setExchangeId(scheduledSlotDto.getExchangeId());
+        scheduledSlot.setStartTime(scheduledSlotDto.getStartTime());
+        scheduledSlot.setEndTime(scheduledSlotDto.getEndTime());
+        scheduledSlot.setTitle(scheduledSlotDto.getTitle());
+        scheduledSlot.setDescription(scheduledSlotDto.getDescription());
+        scheduledSlot.setConfirmed(scheduledSlotDto.isConfirmed());
+        return scheduledSlot;
+    }
+}
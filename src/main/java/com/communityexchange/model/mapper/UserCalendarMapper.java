@@ -0,0 +1,24 @@
+package com.communityexchange.model.mapper;
+
+import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.entity.UserCalendar;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class UserCalendarMapper {
+    
+    private final AvailabilityMapper availabilityMapper;
+    
+    // Reads the availabilities collection, so it has to be fetched when the calendar is detached
+    public UserCalendarDto toDto(UserCalendar userCalendar) {
+        List<AvailabilityDto> availabilityDtos = new ArrayList<>(userCalendar.getAvailabilities().size());
+        userCalendar.getAvailabilities().forEach(availability -> availabilityDtos.add(availabilityMapper.toDto(availability)));
+        return new UserCalendarDto(userCalendar.getId(), userCalendar.getUserId(), availabilityDtos);
+    }
+}
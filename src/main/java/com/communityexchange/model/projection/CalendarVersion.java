@@ -0,0 +1,12 @@
+package com.communityexchange.model.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Version stamp of a calendar: the change counter bumped by every availability or slot write and the
+ * time of the last such write. The calendar ID is part of it, so a calendar deleted and created again
+ * never repeats an earlier stamp.
+ */
+public record CalendarVersion(UUID calendarId, long changeVersion, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,19 @@
+package com.communityexchange.model.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns of a scheduled slot that list endpoints return. The TEXT description is left out, so
+ * listing many slots never reads it; single-slot lookups still load the whole entity.
+ */
+public record ScheduledSlotSummary(
+        UUID id,
+        long version,
+        UUID userId,
+        UUID exchangeId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String title,
+        boolean confirmed) {
+}
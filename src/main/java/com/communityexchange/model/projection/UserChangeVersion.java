@@ -0,0 +1,6 @@
+package com.communityexchange.model.projection;
+
+import java.util.UUID;
+
+public record UserChangeVersion(UUID userId, long changeVersion) {
+}
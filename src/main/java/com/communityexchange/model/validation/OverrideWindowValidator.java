@@ -0,0 +1,36 @@
+package com.communityexchange.model.validation;
+
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class OverrideWindowValidator implements ConstraintValidator<ValidOverrideWindow, AvailabilityOverrideDto> {
+
+    @Override
+    public boolean isValid(AvailabilityOverrideDto value, ConstraintValidatorContext context) {
+        boolean hasStart = value.getStartTime() != null;
+        boolean hasEnd = value.getEndTime() != null;
+        if (!hasStart && !hasEnd) {
+            return value.getType() != AvailabilityOverride.Type.EXTRA
+                    || reject(context, "startTime", "Start time is required for an extra window");
+        }
+        if (!hasStart) {
+            return reject(context, "startTime", "Start time is required when an end time is given");
+        }
+        if (!hasEnd) {
+            return reject(context, "endTime", "End time is required when a start time is given");
+        }
+        return value.getStartTime().isBefore(value.getEndTime())
+                || reject(context, "endTime", "End time must be after start time");
+    }
+
+    // Reported on the field so that it reads like the other validation errors
+    private static boolean reject(ConstraintValidatorContext context, String field, String message) {
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(field)
+                .addConstraintViolation();
+        return false;
+    }
+}
@@ -0,0 +1,25 @@
+package com.communityexchange.model.validation;
+
+import com.communityexchange.service.slot.RecurrenceRule;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class RecurrenceRuleValidator implements ConstraintValidator<ValidRecurrenceRule, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        try {
+            RecurrenceRule.parse(value);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            // Reports what is wrong with the rule instead of the generic message
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(ex.getMessage().replace("{", "\\{").replace("$", "\\$"))
+                    .addConstraintViolation();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.communityexchange.model.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Extra windows need both times, blackouts both or neither, and a window must end after it starts
+@Documented
+@Constraint(validatedBy = OverrideWindowValidator.class)
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidOverrideWindow {
+
+    String message() default "Override window is not valid";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,24 @@
+package com.communityexchange.model.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Null is valid; anything else must parse as a supported RecurrenceRule
+@Documented
+@Constraint(validatedBy = RecurrenceRuleValidator.class)
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidRecurrenceRule {
+
+    String message() default "Recurrence rule is not valid";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
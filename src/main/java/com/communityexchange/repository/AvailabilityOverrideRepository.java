@@ -0,0 +1,38 @@
+package com.communityexchange.repository;
+
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.UserCalendar;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AvailabilityOverrideRepository extends JpaRepository<AvailabilityOverride, UUID> {
+    
+    @EntityGraph(attributePaths = "userCalendar")
+    Optional<AvailabilityOverride> findWithUserCalendarById(UUID id);
+    
+    List<AvailabilityOverride> findByUserCalendarIdOrderByDateAscStartTimeAsc(UUID userCalendarId);
+    
+    // Either bound may be null to leave that side open
+    @Query("SELECT o FROM AvailabilityOverride o WHERE o.userCalendar.id = :userCalendarId"
+            + " AND (:from IS NULL OR o.date >= :from) AND (:to IS NULL OR o.date <= :to)"
+            + " ORDER BY o.date, o.startTime")
+    List<AvailabilityOverride> findInRange(
+            @Param("userCalendarId") UUID userCalendarId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    List<AvailabilityOverride> findByUserCalendarIn(Collection<UserCalendar> userCalendars);
+    
+    @Modifying
+    @Query("DELETE FROM AvailabilityOverride o WHERE o.userCalendar.id = :userCalendarId")
+    int deleteByUserCalendarId(@Param("userCalendarId") UUID userCalendarId);
+}
\ No newline at end of file
@@ -2,19 +2,42 @@ package com.communityexchange.repository;
 
 import com.communityexchange.model.entity.Availability;
 import com.communityexchange.model.entity.UserCalendar;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AvailabilityRepository extends JpaRepository<Availability, UUID> {
     
+    // For writes that need the owning user; plain reads only need the calendar ID held by the lazy reference
+    @EntityGraph(attributePaths = "userCalendar")
+    Optional<Availability> findWithUserCalendarById(UUID id);
+    
     List<Availability> findByUserCalendar(UserCalendar userCalendar);
     
-    List<Availability> findByUserCalendarAndDayOfWeek(UserCalendar userCalendar, DayOfWeek dayOfWeek);
+    List<Availability> findByUserCalendarId(UUID userCalendarId);
+    
+    List<Availability> findByUserCalendarIdAndChangeSequenceGreaterThan(UUID userCalendarId, long changeSequence);
+    
+    List<Availability> findByUserCalendarIdAndDayOfWeek(UUID userCalendarId, DayOfWeek dayOfWeek);
+    
+    List<Availability> findByUserCalendarIdAndIsActiveTrue(UUID userCalendarId);
+    
+    List<Availability> findByUserCalendarInAndIsActiveTrue(Collection<UserCalendar> userCalendars);
+    
+    @Query("SELECT a.id FROM Availability a WHERE a.userCalendar.id = :userCalendarId")
+    List<UUID> findIdsByUserCalendarId(@Param("userCalendarId") UUID userCalendarId);
     
-    List<Availability> findByUserCalendarAndIsActiveTrue(UserCalendar userCalendar);
+    @Modifying
+    @Query("DELETE FROM Availability a WHERE a.userCalendar.id = :userCalendarId")
+    int deleteByUserCalendarId(@Param("userCalendarId") UUID userCalendarId);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.communityexchange.repository;
+
+import com.communityexchange.model.entity.CalendarTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CalendarTombstoneRepository extends JpaRepository<CalendarTombstone, UUID> {
+    
+    List<CalendarTombstone> findByUserIdAndChangeSequenceGreaterThan(UUID userId, long changeSequence);
+    
+    @Modifying
+    @Query("delete from CalendarTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(LocalDateTime cutoff);
+}
\ No newline at end of file
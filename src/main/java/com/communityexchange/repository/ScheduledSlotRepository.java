@@ -1,22 +1,79 @@
 package com.communityexchange.repository;
 
 import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ScheduledSlotRepository extends JpaRepository<ScheduledSlot, UUID> {
     
     List<ScheduledSlot> findByUserId(UUID userId);
     
+    List<ScheduledSlot> findByUserIdAndChangeSequenceGreaterThan(UUID userId, long changeSequence);
+    
     Optional<ScheduledSlot> findByExchangeId(UUID exchangeId);
     
-    List<ScheduledSlot> findByUserIdAndStartTimeBetween(UUID userId, LocalDateTime start, LocalDateTime end);
+    List<ScheduledSlot> findByExchangeIdIn(Collection<UUID> exchangeIds);
+    
+    String SELECT_SUMMARY = "select new com.communityexchange.model.projection.ScheduledSlotSummary("
+            + "s.id, s.version, s.userId, s.exchangeId, s.startTime, s.endTime, s.title, s.isConfirmed) from ScheduledSlot s";
+    
+    // Keyset pages over (start_time, id), answered from the (user_id, start_time, id) index. Every page is
+    // its own short query, so no cursor or connection is held while a client consumes the previous one.
+    // The redundant startTime >= :afterStart bound lets the index scan start at the cursor, which the
+    // OR alone does not.
+    @Query(SELECT_SUMMARY + " where s.userId = :userId order by s.startTime, s.id")
+    List<ScheduledSlotSummary> findFirstPage(UUID userId, Limit limit);
+    
+    @Query(SELECT_SUMMARY + " where s.userId = :userId and s.startTime >= :afterStart"
+            + " and (s.startTime > :afterStart or (s.startTime = :afterStart and s.id > :afterId))"
+            + " order by s.startTime, s.id")
+    List<ScheduledSlotSummary> findPageAfter(UUID userId, LocalDateTime afterStart, UUID afterId, Limit limit);
+    
+    // The same pages restricted to slots starting within [start, end]
+    @Query(SELECT_SUMMARY + " where s.userId = :userId and s.startTime >= :start and s.startTime <= :end"
+            + " order by s.startTime, s.id")
+    List<ScheduledSlotSummary> findFirstPageStartingBetween(UUID userId, LocalDateTime start, LocalDateTime end, Limit limit);
+    
+    @Query(SELECT_SUMMARY + " where s.userId = :userId and s.startTime >= :afterStart and s.startTime <= :end"
+            + " and (s.startTime > :afterStart or (s.startTime = :afterStart and s.id > :afterId))"
+            + " order by s.startTime, s.id")
+    List<ScheduledSlotSummary> findPageStartingAfter(UUID userId, LocalDateTime afterStart, UUID afterId, LocalDateTime end, Limit limit);
+    
+    // The overlap queries below select slots that start before end and finish after start, which the
+    // (user_id, start_time, end_time) index answers without touching the table
+    @Query("select s from ScheduledSlot s where s.userId = :userId and s.startTime < :end and s.endTime > :start")
+    List<ScheduledSlot> findOverlapping(UUID userId, LocalDateTime start, LocalDateTime end);
+    
+    @Query("select s from ScheduledSlot s where s.userId in :userIds and s.startTime < :end and s.endTime > :start")
+    List<ScheduledSlot> findOverlappingForUsers(Collection<UUID> userIds, LocalDateTime start, LocalDateTime end);
+    
+    @Query("select count(s) > 0 from ScheduledSlot s where s.userId = :userId and s.startTime < :end and s.endTime > :start")
+    boolean existsOverlapping(UUID userId, LocalDateTime start, LocalDateTime end);
+    
+    @Query("select count(s) > 0 from ScheduledSlot s where s.userId = :userId and s.startTime < :end and s.endTime > :start"
+            + " and s.id <> :excludedId")
+    boolean existsOverlappingExcluding(UUID userId, LocalDateTime start, LocalDateTime end, UUID excludedId);
     
-    List<ScheduledSlot> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
+    // Read through a server-side cursor rather than into a list; PostgreSQL only honours the fetch size
+    // inside a transaction, so callers have to consume the stream within one
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from ScheduledSlot s where s.startTime >= :start and s.startTime < :end order by s.startTime, s.id")
+    Stream<ScheduledSlot> streamStartingWithin(LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
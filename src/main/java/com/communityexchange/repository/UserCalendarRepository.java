@@ -1,9 +1,17 @@
 package com.communityexchange.repository;
 
 import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.model.projection.CalendarVersion;
+import com.communityexchange.model.projection.UserChangeVersion;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +19,29 @@ import java.util.UUID;
 public interface UserCalendarRepository extends JpaRepository<UserCalendar, UUID> {
     
     Optional<UserCalendar> findByUserId(UUID userId);
+    
+    boolean existsByUserId(UUID userId);
+    
+    @EntityGraph(attributePaths = "availabilities")
+    Optional<UserCalendar> findWithAvailabilitiesByUserId(UUID userId);
+    
+    @Query("select c.id from UserCalendar c where c.userId = :userId")
+    Optional<UUID> findIdByUserId(UUID userId);
+    
+    @Query("select c.userId from UserCalendar c where c.id = :id")
+    Optional<UUID> findUserIdById(UUID id);
+    
+    List<UserCalendar> findByUserIdIn(Collection<UUID> userIds);
+    
+    @Query("select new com.communityexchange.model.projection.CalendarVersion(c.id, c.changeVersion, c.updatedAt)"
+            + " from UserCalendar c where c.userId = :userId")
+    Optional<CalendarVersion> findVersionByUserId(UUID userId);
+    
+    @Query("select new com.communityexchange.model.projection.UserChangeVersion(c.userId, c.changeVersion)"
+            + " from UserCalendar c where c.userId in :userIds")
+    List<UserChangeVersion> findChangeVersionsByUserIdIn(Collection<UUID> userIds);
+    
+    @Modifying
+    @Query("update UserCalendar c set c.changeVersion = c.changeVersion + 1, c.updatedAt = :now where c.userId in :userIds")
+    int incrementChangeVersion(Collection<UUID> userIds, LocalDateTime now);
 }
\ No newline at end of file
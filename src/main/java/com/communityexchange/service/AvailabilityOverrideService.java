@@ -0,0 +1,19 @@
+package com.communityexchange.service;
+
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AvailabilityOverrideService {
+    
+    AvailabilityOverrideDto createAvailabilityOverride(AvailabilityOverrideDto availabilityOverrideDto);
+    
+    AvailabilityOverrideDto getAvailabilityOverrideById(UUID id);
+    
+    // from and to are inclusive; either may be null to leave that side open
+    List<AvailabilityOverrideDto> getAvailabilityOverridesByUserCalendar(UUID userCalendarId, LocalDate from, LocalDate to);
+    
+    void deleteAvailabilityOverride(UUID id);
+}
\ No newline at end of file
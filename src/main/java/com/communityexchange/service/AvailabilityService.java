@@ -1,6 +1,7 @@
 package com.communityexchange.service;
 
 import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.BulkResultDto;
 
 import java.time.DayOfWeek;
 import java.util.List;
@@ -10,13 +11,16 @@ public interface AvailabilityService {
     
     AvailabilityDto createAvailability(AvailabilityDto availabilityDto);
     
+    BulkResultDto<AvailabilityDto> createAvailabilities(List<AvailabilityDto> availabilityDtos);
+    
     AvailabilityDto getAvailabilityById(UUID id);
     
     List<AvailabilityDto> getAvailabilitiesByUserCalendar(UUID userCalendarId);
     
     List<AvailabilityDto> getAvailabilitiesByUserCalendarAndDayOfWeek(UUID userCalendarId, DayOfWeek dayOfWeek);
     
-    AvailabilityDto updateAvailability(UUID id, AvailabilityDto availabilityDto);
+    // expectedVersion is the version the caller read, or null to write unconditionally
+    AvailabilityDto updateAvailability(UUID id, AvailabilityDto availabilityDto, Long expectedVersion);
     
     void deleteAvailability(UUID id);
 }
\ No newline at end of file
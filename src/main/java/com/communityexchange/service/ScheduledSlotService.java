@@ -1,26 +1,37 @@
 package com.communityexchange.service;
 
+import com.communityexchange.model.dto.BulkResultDto;
+import com.communityexchange.model.dto.CursorPageDto;
 import com.communityexchange.model.dto.ScheduledSlotDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ScheduledSlotService {
     
     ScheduledSlotDto createScheduledSlot(ScheduledSlotDto scheduledSlotDto);
     
+    BulkResultDto<ScheduledSlotDto> createScheduledSlots(List<ScheduledSlotDto> scheduledSlotDtos);
+    
     ScheduledSlotDto getScheduledSlotById(UUID id);
     
     ScheduledSlotDto getScheduledSlotByExchangeId(UUID exchangeId);
     
-    List<ScheduledSlotDto> getScheduledSlotsByUserId(UUID userId);
+    // Pages are ordered by start time; pageToken is null for the first page
+    CursorPageDto<ScheduledSlotDto> getScheduledSlotsByUserId(UUID userId, String pageToken, int limit);
+    
+    CursorPageDto<ScheduledSlotDto> getScheduledSlotsByUserIdAndDateRange(
+            UUID userId, LocalDateTime start, LocalDateTime end, String pageToken, int limit);
     
-    List<ScheduledSlotDto> getScheduledSlotsByUserIdAndDateRange(UUID userId, LocalDateTime start, LocalDateTime end);
+    // Hands every slot starting in [start, end) to the sink, in start time order, and returns how many there were
+    long exportScheduledSlots(LocalDateTime start, LocalDateTime end, Consumer<ScheduledSlotDto> sink);
     
-    ScheduledSlotDto updateScheduledSlot(UUID id, ScheduledSlotDto scheduledSlotDto);
+    // expectedVersion is the version the caller read, or null to write unconditionally
+    ScheduledSlotDto updateScheduledSlot(UUID id, ScheduledSlotDto scheduledSlotDto, Long expectedVersion);
     
-    ScheduledSlotDto confirmScheduledSlot(UUID id);
+    ScheduledSlotDto confirmScheduledSlot(UUID id, Long expectedVersion);
     
     void deleteScheduledSlot(UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.communityexchange.service;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only slot queries as backpressured streams, for responses too long to build in memory.
+ */
+public interface SlotQueryService {
+    
+    Flux<AvailabilitySlotDto> streamAvailableSlots(UUID userId, LocalDateTime start, LocalDateTime end);
+    
+    Flux<ScheduledSlotDto> streamScheduledSlots(UUID userId, LocalDateTime start, LocalDateTime end);
+}
@@ -1,11 +1,16 @@
 package com.communityexchange.service;
 
 import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.dto.CalendarSyncDto;
+import com.communityexchange.model.dto.CommonAvailableSlotDto;
 import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.projection.CalendarVersion;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserCalendarService {
     
@@ -13,7 +18,19 @@ public interface UserCalendarService {
     
     UserCalendarDto getUserCalendar(UUID userId);
     
+    CalendarVersion getCalendarVersion(UUID userId);
+    
+    CalendarSyncDto syncCalendar(UUID userId, String since);
+    
     List<AvailabilitySlotDto> getAvailableSlots(UUID userId, LocalDateTime start, LocalDateTime end);
     
+    Stream<AvailabilitySlotDto> streamAvailableSlots(UUID userId, LocalDateTime start, LocalDateTime end);
+    
+    List<CommonAvailableSlotDto> getCommonAvailableSlots(List<UUID> userIds, LocalDateTime start, LocalDateTime end);
+    
+    boolean isAvailableAt(UUID userId, LocalDateTime time);
+    
+    List<AvailabilitySlotDto> getAvailabilityWindows(UUID userId, LocalDate date);
+    
     void deleteUserCalendar(UUID userId);
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.communityexchange.service.impl;
+
+import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.model.dto.CalendarChangeDto;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.mapper.AvailabilityOverrideMapper;
+import com.communityexchange.repository.AvailabilityOverrideRepository;
+import com.communityexchange.repository.UserCalendarRepository;
+import com.communityexchange.service.AvailabilityOverrideService;
+import com.communityexchange.service.slot.AvailabilityOverrideRegistry;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.CalendarVersions;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "calendar.service", histogram = true)
+@RequiredArgsConstructor
+public class AvailabilityOverrideServiceImpl implements AvailabilityOverrideService {
+
+    private final AvailabilityOverrideRepository availabilityOverrideRepository;
+    private final UserCalendarRepository userCalendarRepository;
+    private final AvailabilityOverrideRegistry availabilityOverrideRegistry;
+    private final AvailableSlotCache availableSlotCache;
+    private final CalendarIdentityCache calendarIdentityCache;
+    private final CalendarVersions calendarVersions;
+    private final CalendarChangeBroadcaster calendarChangeBroadcaster;
+    private final AvailabilityOverrideMapper availabilityOverrideMapper;
+
+    @Override
+    @Transactional
+    public AvailabilityOverrideDto createAvailabilityOverride(AvailabilityOverrideDto availabilityOverrideDto) {
+        UUID userId = calendarIdentityCache.requireUserIdOf(availabilityOverrideDto.getUserCalendarId());
+
+        AvailabilityOverride availabilityOverride = availabilityOverrideMapper.toEntity(availabilityOverrideDto);
+        availabilityOverride.setUserCalendar(userCalendarRepository.getReferenceById(availabilityOverrideDto.getUserCalendarId()));
+
+        AvailabilityOverride savedOverride = availabilityOverrideRepository.save(availabilityOverride);
+        calendarVersions.touch(userId);
+        // Both are only dropped; the next query rebuilds the index and then the weeks from it
+        availabilityOverrideRegistry.evictAfterCommit(userId);
+        availableSlotCache.evictUserAfterCommit(userId);
+        calendarChangeBroadcaster.publishAfterCommit(
+                CalendarChangeDto.Type.OVERRIDE_CREATED, userId, savedOverride.getId(), savedOverride.getVersion());
+        return availabilityOverrideMapper.toDto(savedOverride);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AvailabilityOverrideDto getAvailabilityOverrideById(UUID id) {
+        AvailabilityOverride availabilityOverride = availabilityOverrideRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability override not found with id: " + id));
+
+        return availabilityOverrideMapper.toDto(availabilityOverride);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilityOverrideDto> getAvailabilityOverridesByUserCalendar(UUID userCalendarId, LocalDate from, LocalDate to) {
+        calendarIdentityCache.requireUserIdOf(userCalendarId);
+
+        return availabilityOverrideRepository.findInRange(userCalendarId, from, to).stream()
+                .map(availabilityOverrideMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void deleteAvailabilityOverride(UUID id) {
+        AvailabilityOverride availabilityOverride = availabilityOverrideRepository.findWithUserCalendarById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability override not found with id: " + id));
+        UUID userId = availabilityOverride.getUserCalendar().getUserId();
+
+        availabilityOverrideRepository.delete(availabilityOverride);
+        calendarVersions.touch(userId);
+        availabilityOverrideRegistry.evictAfterCommit(userId);
+        availableSlotCache.evictUserAfterCommit(userId);
+        calendarChangeBroadcaster.publishAfterCommit(
+                CalendarChangeDto.Type.OVERRIDE_DELETED, userId, availabilityOverride.getId(), null);
+    }
+}
\ No newline at end of file
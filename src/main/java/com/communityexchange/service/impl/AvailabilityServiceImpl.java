@@ -2,42 +2,126 @@ package com.communityexchange.service.impl;
 
 import com.communityexchange.exception.ResourceNotFoundException;
 import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.BulkResultDto;
+import com.communityexchange.model.dto.CalendarChangeDto;
 import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.CalendarTombstone;
 import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.model.mapper.AvailabilityMapper;
 import com.communityexchange.repository.AvailabilityRepository;
 import com.communityexchange.repository.UserCalendarRepository;
 import com.communityexchange.service.AvailabilityService;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.slot.WeeklyAvailabilityRegistry;
+import com.communityexchange.service.support.BulkOutcome;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.CalendarVersions;
+import com.communityexchange.service.support.VersionChecks;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "calendar.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class AvailabilityServiceImpl implements AvailabilityService {
 
     private final AvailabilityRepository availabilityRepository;
     private final UserCalendarRepository userCalendarRepository;
-    private final ModelMapper modelMapper;
+    private final WeeklyAvailabilityRegistry weeklyAvailabilityRegistry;
+    private final AvailableSlotCache availableSlotCache;
+    private final CalendarIdentityCache calendarIdentityCache;
+    private final CalendarVersions calendarVersions;
+    private final CalendarChangeBroadcaster calendarChangeBroadcaster;
+    private final Validator validator;
+    private final AvailabilityMapper availabilityMapper;
 
     @Override
     @Transactional
     public AvailabilityDto createAvailability(AvailabilityDto availabilityDto) {
-        UserCalendar userCalendar = userCalendarRepository.findById(availabilityDto.getUserCalendarId())
-                .orElseThrow(() -> new ResourceNotFoundException("User calendar not found with id: " + availabilityDto.getUserCalendarId()));
+        UUID userId = calendarIdentityCache.requireUserIdOf(availabilityDto.getUserCalendarId());
 
-        Availability availability = modelMapper.map(availabilityDto, Availability.class);
-        availability.setUserCalendar(userCalendar);
+        Availability availability = availabilityMapper.toEntity(availabilityDto);
+        availability.setUserCalendar(userCalendarRepository.getReferenceById(availabilityDto.getUserCalendarId()));
+        anchorRecurrence(availability);
+        availability.setChangeSequence(calendarVersions.touch(userId));
 
         Availability savedAvailability = availabilityRepository.save(availability);
-        return modelMapper.map(savedAvailability, AvailabilityDto.class);
+        weeklyAvailabilityRegistry.evictAfterCommit(userId);
+        availableSlotCache.evictUserAfterCommit(userId);
+        calendarChangeBroadcaster.publishAfterCommit(
+                CalendarChangeDto.Type.AVAILABILITY_CREATED, userId, savedAvailability.getId(), savedAvailability.getVersion());
+        return availabilityMapper.toDto(savedAvailability);
+    }
+
+    // Invalid items and unknown calendars are reported per item; the rest are inserted in JDBC batches
+    @Override
+    @Transactional
+    public BulkResultDto<AvailabilityDto> createAvailabilities(List<AvailabilityDto> availabilityDtos) {
+        BulkOutcome<AvailabilityDto> outcome = BulkOutcome.validated(validator, availabilityDtos);
+
+        Set<UUID> calendarIds = new HashSet<>();
+        for (int i = 0; i < availabilityDtos.size(); i++) {
+            if (!outcome.isRejected(i)) {
+                calendarIds.add(availabilityDtos.get(i).getUserCalendarId());
+            }
+        }
+        Map<UUID, UserCalendar> calendarsById = userCalendarRepository.findAllById(calendarIds).stream()
+                .collect(Collectors.toMap(UserCalendar::getId, Function.identity()));
+
+        List<Integer> indexes = new ArrayList<>();
+        List<Availability> availabilities = new ArrayList<>();
+        for (int i = 0; i < availabilityDtos.size(); i++) {
+            if (outcome.isRejected(i)) {
+                continue;
+            }
+            AvailabilityDto availabilityDto = availabilityDtos.get(i);
+            UserCalendar userCalendar = calendarsById.get(availabilityDto.getUserCalendarId());
+            if (userCalendar == null) {
+                outcome.reject(i, "User calendar not found with id: " + availabilityDto.getUserCalendarId());
+                continue;
+            }
+            Availability availability = availabilityMapper.toEntity(availabilityDto);
+            availability.setUserCalendar(userCalendar);
+            anchorRecurrence(availability);
+            indexes.add(i);
+            availabilities.add(availability);
+        }
+
+        Set<UUID> userIds = availabilities.stream()
+                .map(availability -> availability.getUserCalendar().getUserId())
+                .collect(Collectors.toSet());
+        Map<UUID, Long> changeSequences = calendarVersions.touch(userIds);
+        availabilities.forEach(availability -> availability.setChangeSequence(
+                changeSequences.getOrDefault(availability.getUserCalendar().getUserId(), 0L)));
+        List<Availability> savedAvailabilities = availabilityRepository.saveAll(availabilities);
+        for (int i = 0; i < savedAvailabilities.size(); i++) {
+            Availability savedAvailability = savedAvailabilities.get(i);
+            calendarChangeBroadcaster.publishAfterCommit(CalendarChangeDto.Type.AVAILABILITY_CREATED,
+                    savedAvailability.getUserCalendar().getUserId(), savedAvailability.getId(), savedAvailability.getVersion());
+            outcome.created(indexes.get(i), availabilityMapper.toDto(savedAvailability));
+        }
+        userIds.forEach(userId -> {
+            weeklyAvailabilityRegistry.evictAfterCommit(userId);
+            availableSlotCache.evictUserAfterCommit(userId);
+        });
+        return outcome.toDto();
     }
 
     @Override
@@ -46,54 +130,77 @@ public class AvailabilityServiceImpl implements AvailabilityService {
         Availability availability = availabilityRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Availability not found with id: " + id));
 
-        return modelMapper.map(availability, AvailabilityDto.class);
+        return availabilityMapper.toDto(availability);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AvailabilityDto> getAvailabilitiesByUserCalendar(UUID userCalendarId) {
-        UserCalendar userCalendar = userCalendarRepository.findById(userCalendarId)
-                .orElseThrow(() -> new ResourceNotFoundException("User calendar not found with id: " + userCalendarId));
+        calendarIdentityCache.requireUserIdOf(userCalendarId);
 
-        return availabilityRepository.findByUserCalendar(userCalendar).stream()
-                .map(availability -> modelMapper.map(availability, AvailabilityDto.class))
+        return availabilityRepository.findByUserCalendarId(userCalendarId).stream()
+                .map(availabilityMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AvailabilityDto> getAvailabilitiesByUserCalendarAndDayOfWeek(UUID userCalendarId, DayOfWeek dayOfWeek) {
-        UserCalendar userCalendar = userCalendarRepository.findById(userCalendarId)
-                .orElseThrow(() -> new ResourceNotFoundException("User calendar not found with id: " + userCalendarId));
+        calendarIdentityCache.requireUserIdOf(userCalendarId);
 
-        return availabilityRepository.findByUserCalendarAndDayOfWeek(userCalendar, dayOfWeek).stream()
-                .map(availability -> modelMapper.map(availability, AvailabilityDto.class))
+        return availabilityRepository.findByUserCalendarIdAndDayOfWeek(userCalendarId, dayOfWeek).stream()
+                .map(availabilityMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional
-    public AvailabilityDto updateAvailability(UUID id, AvailabilityDto availabilityDto) {
-        Availability availability = availabilityRepository.findById(id)
+    public AvailabilityDto updateAvailability(UUID id, AvailabilityDto availabilityDto, Long expectedVersion) {
+        Availability availability = availabilityRepository.findWithUserCalendarById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Availability not found with id: " + id));
+        VersionChecks.requireVersion(availability, expectedVersion);
 
         availability.setDayOfWeek(availabilityDto.getDayOfWeek());
         availability.setStartTime(availabilityDto.getStartTime());
         availability.setEndTime(availabilityDto.getEndTime());
         availability.setRecurring(availabilityDto.isRecurring());
         availability.setActive(availabilityDto.isActive());
-
-        Availability updatedAvailability = availabilityRepository.save(availability);
-        return modelMapper.map(updatedAvailability, AvailabilityDto.class);
+        availability.setRecurrenceRule(availabilityDto.getRecurrenceRule());
+        if (availabilityDto.getStartDate() != null) {
+            availability.setStartDate(availabilityDto.getStartDate());
+        }
+        anchorRecurrence(availability);
+        availability.setChangeSequence(calendarVersions.touch(availability.getUserCalendar().getUserId()));
+
+        // Flushed here so the returned version is the one the row now has
+        Availability updatedAvailability = VersionChecks.flush(availability, expectedVersion,
+                () -> availabilityRepository.saveAndFlush(availability));
+        weeklyAvailabilityRegistry.evictAfterCommit(updatedAvailability.getUserCalendar().getUserId());
+        availableSlotCache.evictUserAfterCommit(updatedAvailability.getUserCalendar().getUserId());
+        calendarChangeBroadcaster.publishAfterCommit(CalendarChangeDto.Type.AVAILABILITY_UPDATED,
+                updatedAvailability.getUserCalendar().getUserId(), updatedAvailability.getId(), updatedAvailability.getVersion());
+        return availabilityMapper.toDto(updatedAvailability);
     }
 
     @Override
     @Transactional
     public void deleteAvailability(UUID id) {
-        if (!availabilityRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Availability not found with id: " + id);
-        }
+        Availability availability = availabilityRepository.findWithUserCalendarById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability not found with id: " + id));
         
-        availabilityRepository.deleteById(id);
+        availabilityRepository.delete(availability);
+        calendarVersions.recordDeletion(
+                availability.getUserCalendar().getUserId(), CalendarTombstone.ResourceType.AVAILABILITY, availability.getId());
+        weeklyAvailabilityRegistry.evictAfterCommit(availability.getUserCalendar().getUserId());
+        availableSlotCache.evictUserAfterCommit(availability.getUserCalendar().getUserId());
+        calendarChangeBroadcaster.publishAfterCommit(CalendarChangeDto.Type.AVAILABILITY_DELETED,
+                availability.getUserCalendar().getUserId(), availability.getId(), null);
+    }
+
+    // A rule is counted from its start date, so one given without a date starts on the day it is written
+    private static void anchorRecurrence(Availability availability) {
+        if (availability.getRecurrenceRule() != null && availability.getStartDate() == null) {
+            availability.setStartDate(LocalDate.now());
+        }
     }
 }
\ No newline at end of file
@@ -1,28 +1,63 @@
 package com.communityexchange.service.impl;
 
 import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.exception.SchedulingConflictException;
+import com.communityexchange.model.dto.BulkResultDto;
+import com.communityexchange.model.dto.CalendarChangeDto;
+import com.communityexchange.model.dto.CursorPageDto;
 import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.entity.CalendarTombstone;
 import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
 import com.communityexchange.repository.ScheduledSlotRepository;
 import com.communityexchange.service.ScheduledSlotService;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.support.BulkOutcome;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import com.communityexchange.service.support.CalendarVersions;
+import com.communityexchange.service.support.SlotCursor;
+import com.communityexchange.service.support.UserBookingLocks;
+import com.communityexchange.service.support.VersionChecks;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "calendar.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class ScheduledSlotServiceImpl implements ScheduledSlotService {
 
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
     private final ScheduledSlotRepository scheduledSlotRepository;
-    private final ModelMapper modelMapper;
+    private final AvailableSlotCache availableSlotCache;
+    private final UserBookingLocks userBookingLocks;
+    private final CalendarVersions calendarVersions;
+    private final CalendarChangeBroadcaster calendarChangeBroadcaster;
+    private final Validator validator;
+    private final ScheduledSlotMapper scheduledSlotMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -30,15 +65,103 @@ public class ScheduledSlotServiceImpl implements ScheduledSlotService {
         // Check if a slot already exists for the same exchange
         scheduledSlotRepository.findByExchangeId(scheduledSlotDto.getExchangeId())
                 .ifPresent(slot -> {
-                    throw new IllegalStateException("A scheduled slot already exists for this exchange");
+                    throw new SchedulingConflictException("A scheduled slot already exists for this exchange");
                 });
 
-        ScheduledSlot scheduledSlot = modelMapper.map(scheduledSlotDto, ScheduledSlot.class);
+        // Both held until commit, so a concurrent booking of the same user checks against this slot: the stripe
+        // within this instance, and the calendar row bumped by touch across instances
+        userBookingLocks.lockUntilCompletion(scheduledSlotDto.getUserId());
+        long changeSequence = calendarVersions.touch(scheduledSlotDto.getUserId());
+        if (scheduledSlotRepository.existsOverlapping(
+                scheduledSlotDto.getUserId(), scheduledSlotDto.getStartTime(), scheduledSlotDto.getEndTime())) {
+            throw new SchedulingConflictException("The user already has a scheduled slot overlapping this time");
+        }
+
+        ScheduledSlot scheduledSlot = scheduledSlotMapper.toEntity(scheduledSlotDto);
         scheduledSlot.setCreatedAt(LocalDateTime.now());
         scheduledSlot.setUpdatedAt(LocalDateTime.now());
+        scheduledSlot.setChangeSequence(changeSequence);
+
+        ScheduledSlot savedSlot = flushNewSlots(() -> scheduledSlotRepository.saveAndFlush(scheduledSlot));
+        availableSlotCache.evictWeeksAfterCommit(savedSlot.getUserId(), savedSlot.getStartTime(), savedSlot.getEndTime());
+        calendarChangeBroadcaster.publishAfterCommit(
+                CalendarChangeDto.Type.SLOT_CREATED, savedSlot.getUserId(), savedSlot.getId(), savedSlot.getVersion());
+        return scheduledSlotMapper.toDto(savedSlot);
+    }
+
+    // Exchange IDs and existing overlaps are fetched once for the whole batch; items conflicting with either,
+    // or with an earlier item of the same batch, are reported per item and the rest inserted in JDBC batches
+    @Override
+    @Transactional
+    public BulkResultDto<ScheduledSlotDto> createScheduledSlots(List<ScheduledSlotDto> scheduledSlotDtos) {
+        BulkOutcome<ScheduledSlotDto> outcome = BulkOutcome.validated(validator, scheduledSlotDtos);
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < scheduledSlotDtos.size(); i++) {
+            if (!outcome.isRejected(i)) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return outcome.toDto();
+        }
+
+        Set<UUID> takenExchangeIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        LocalDateTime rangeStart = null;
+        LocalDateTime rangeEnd = null;
+        for (int i : candidates) {
+            ScheduledSlotDto slotDto = scheduledSlotDtos.get(i);
+            takenExchangeIds.add(slotDto.getExchangeId());
+            userIds.add(slotDto.getUserId());
+            rangeStart = rangeStart == null || slotDto.getStartTime().isBefore(rangeStart) ? slotDto.getStartTime() : rangeStart;
+            rangeEnd = rangeEnd == null || slotDto.getEndTime().isAfter(rangeEnd) ? slotDto.getEndTime() : rangeEnd;
+        }
+        takenExchangeIds.retainAll(scheduledSlotRepository.findByExchangeIdIn(takenExchangeIds).stream()
+                .map(ScheduledSlot::getExchangeId)
+                .collect(Collectors.toSet()));
+
+        // Every candidate's calendar is bumped up front to take its row lock before the overlap check
+        userBookingLocks.lockUntilCompletion(userIds);
+        Map<UUID, Long> changeSequences = calendarVersions.touch(userIds);
+        Map<UUID, List<ScheduledSlot>> busyByUser = scheduledSlotRepository.findOverlappingForUsers(userIds, rangeStart, rangeEnd)
+                .stream()
+                .collect(Collectors.groupingBy(ScheduledSlot::getUserId, Collectors.toCollection(ArrayList::new)));
+
+        List<Integer> indexes = new ArrayList<>();
+        List<ScheduledSlot> scheduledSlots = new ArrayList<>();
+        for (int i : candidates) {
+            ScheduledSlotDto slotDto = scheduledSlotDtos.get(i);
+            if (!takenExchangeIds.add(slotDto.getExchangeId())) {
+                outcome.reject(i, "A scheduled slot already exists for this exchange");
+                continue;
+            }
+            List<ScheduledSlot> busy = busyByUser.computeIfAbsent(slotDto.getUserId(), userId -> new ArrayList<>());
+            boolean overlaps = busy.stream().anyMatch(slot ->
+                    slot.getStartTime().isBefore(slotDto.getEndTime()) && slot.getEndTime().isAfter(slotDto.getStartTime()));
+            if (overlaps) {
+                outcome.reject(i, "The user already has a scheduled slot overlapping this time");
+                continue;
+            }
+
+            ScheduledSlot scheduledSlot = scheduledSlotMapper.toEntity(slotDto);
+            scheduledSlot.setCreatedAt(LocalDateTime.now());
+            scheduledSlot.setUpdatedAt(LocalDateTime.now());
+            busy.add(scheduledSlot);
+            indexes.add(i);
+            scheduledSlots.add(scheduledSlot);
+        }
 
-        ScheduledSlot savedSlot = scheduledSlotRepository.save(scheduledSlot);
-        return modelMapper.map(savedSlot, ScheduledSlotDto.class);
+        scheduledSlots.forEach(slot -> slot.setChangeSequence(changeSequences.getOrDefault(slot.getUserId(), 0L)));
+        List<ScheduledSlot> savedSlots = flushNewSlots(() -> scheduledSlotRepository.saveAllAndFlush(scheduledSlots));
+        for (int i = 0; i < savedSlots.size(); i++) {
+            ScheduledSlot savedSlot = savedSlots.get(i);
+            availableSlotCache.evictWeeksAfterCommit(savedSlot.getUserId(), savedSlot.getStartTime(), savedSlot.getEndTime());
+            calendarChangeBroadcaster.publishAfterCommit(
+                    CalendarChangeDto.Type.SLOT_CREATED, savedSlot.getUserId(), savedSlot.getId(), savedSlot.getVersion());
+            outcome.created(indexes.get(i), scheduledSlotMapper.toDto(savedSlot));
+        }
+        return outcome.toDto();
     }
 
     @Override
@@ -47,7 +170,7 @@ public class ScheduledSlotServiceImpl implements ScheduledSlotService {
         ScheduledSlot scheduledSlot = scheduledSlotRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Scheduled slot not found with id: " + id));
 
-        return modelMapper.map(scheduledSlot, ScheduledSlotDto.class);
+        return scheduledSlotMapper.toDto(scheduledSlot);
     }
 
     @Override
@@ -56,61 +179,129 @@ public class ScheduledSlotServiceImpl implements ScheduledSlotService {
         ScheduledSlot scheduledSlot = scheduledSlotRepository.findByExchangeId(exchangeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Scheduled slot not found for exchange id: " + exchangeId));
 
-        return modelMapper.map(scheduledSlot, ScheduledSlotDto.class);
+        return scheduledSlotMapper.toDto(scheduledSlot);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ScheduledSlotDto> getScheduledSlotsByUserId(UUID userId) {
-        return scheduledSlotRepository.findByUserId(userId).stream()
-                .map(slot -> modelMapper.map(slot, ScheduledSlotDto.class))
-                .collect(Collectors.toList());
+    public CursorPageDto<ScheduledSlotDto> getScheduledSlotsByUserId(UUID userId, String pageToken, int limit) {
+        Limit pageLimit = Limit.of(limit + 1);
+        if (pageToken == null) {
+            return toPage(scheduledSlotRepository.findFirstPage(userId, pageLimit), limit);
+        }
+        SlotCursor cursor = SlotCursor.decode(pageToken);
+        return toPage(scheduledSlotRepository.findPageAfter(userId, cursor.startTime(), cursor.id(), pageLimit), limit);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ScheduledSlotDto> getScheduledSlotsByUserIdAndDateRange(UUID userId, LocalDateTime start, LocalDateTime end) {
-        return scheduledSlotRepository.findByUserIdAndStartTimeBetween(userId, start, end).stream()
-                .map(slot -> modelMapper.map(slot, ScheduledSlotDto.class))
-                .collect(Collectors.toList());
+    public CursorPageDto<ScheduledSlotDto> getScheduledSlotsByUserIdAndDateRange(
+            UUID userId, LocalDateTime start, LocalDateTime end, String pageToken, int limit) {
+        Limit pageLimit = Limit.of(limit + 1);
+        if (pageToken == null) {
+            return toPage(scheduledSlotRepository.findFirstPageStartingBetween(userId, start, end, pageLimit), limit);
+        }
+        SlotCursor cursor = SlotCursor.decode(pageToken);
+        return toPage(scheduledSlotRepository.findPageStartingAfter(userId, cursor.startTime(), cursor.id(), end, pageLimit), limit);
+    }
+
+    // One row more than the limit is read, so the last page is known without an extra empty query
+    private CursorPageDto<ScheduledSlotDto> toPage(List<ScheduledSlotSummary> slots, int limit) {
+        boolean hasMore = slots.size() > limit;
+        List<ScheduledSlotSummary> page = hasMore ? slots.subList(0, limit) : slots;
+        String nextPageToken = hasMore ? SlotCursor.after(page.get(limit - 1)).encode() : null;
+        return new CursorPageDto<>(
+                page.stream().map(scheduledSlotMapper::toDto).collect(Collectors.toList()),
+                nextPageToken);
+    }
+
+    // Rows arrive through the repository's cursor and the persistence context is cleared every
+    // EXPORT_CLEAR_INTERVAL rows, so memory stays flat however many slots the range holds
+    @Override
+    @Transactional(readOnly = true)
+    public long exportScheduledSlots(LocalDateTime start, LocalDateTime end, Consumer<ScheduledSlotDto> sink) {
+        long exported = 0;
+        try (Stream<ScheduledSlot> scheduledSlots = scheduledSlotRepository.streamStartingWithin(start, end)) {
+            Iterator<ScheduledSlot> iterator = scheduledSlots.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(scheduledSlotMapper.toDto(iterator.next()));
+                if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Exported {} scheduled slots starting between {} and {}", exported, start, end);
+        return exported;
     }
 
     @Override
     @Transactional
-    public ScheduledSlotDto updateScheduledSlot(UUID id, ScheduledSlotDto scheduledSlotDto) {
+    public ScheduledSlotDto updateScheduledSlot(UUID id, ScheduledSlotDto scheduledSlotDto, Long expectedVersion) {
         ScheduledSlot scheduledSlot = scheduledSlotRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Scheduled slot not found with id: " + id));
+        VersionChecks.requireVersion(scheduledSlot, expectedVersion);
+        userBookingLocks.lockUntilCompletion(scheduledSlot.getUserId());
+        long changeSequence = calendarVersions.touch(scheduledSlot.getUserId());
+        if (scheduledSlotRepository.existsOverlappingExcluding(
+                scheduledSlot.getUserId(), scheduledSlotDto.getStartTime(), scheduledSlotDto.getEndTime(), id)) {
+            throw new SchedulingConflictException("The user already has a scheduled slot overlapping this time");
+        }
+        availableSlotCache.evictWeeksAfterCommit(scheduledSlot.getUserId(), scheduledSlot.getStartTime(), scheduledSlot.getEndTime());
 
         scheduledSlot.setStartTime(scheduledSlotDto.getStartTime());
         scheduledSlot.setEndTime(scheduledSlotDto.getEndTime());
         scheduledSlot.setTitle(scheduledSlotDto.getTitle());
         scheduledSlot.setDescription(scheduledSlotDto.getDescription());
         scheduledSlot.setUpdatedAt(LocalDateTime.now());
+        scheduledSlot.setChangeSequence(changeSequence);
 
-        ScheduledSlot updatedSlot = scheduledSlotRepository.save(scheduledSlot);
-        return modelMapper.map(updatedSlot, ScheduledSlotDto.class);
+        // Flushed here so the returned version is the one the row now has
+        ScheduledSlot updatedSlot = VersionChecks.flush(scheduledSlot, expectedVersion,
+                () -> scheduledSlotRepository.saveAndFlush(scheduledSlot));
+        availableSlotCache.evictWeeksAfterCommit(updatedSlot.getUserId(), updatedSlot.getStartTime(), updatedSlot.getEndTime());
+        calendarChangeBroadcaster.publishAfterCommit(
+                CalendarChangeDto.Type.SLOT_UPDATED, updatedSlot.getUserId(), updatedSlot.getId(), updatedSlot.getVersion());
+        return scheduledSlotMapper.toDto(updatedSlot);
     }
 
     @Override
     @Transactional
-    public ScheduledSlotDto confirmScheduledSlot(UUID id) {
+    public ScheduledSlotDto confirmScheduledSlot(UUID id, Long expectedVersion) {
         ScheduledSlot scheduledSlot = scheduledSlotRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Scheduled slot not found with id: " + id));
+        VersionChecks.requireVersion(scheduledSlot, expectedVersion);
 
         scheduledSlot.setConfirmed(true);
         scheduledSlot.setUpdatedAt(LocalDateTime.now());
+        scheduledSlot.setChangeSequence(calendarVersions.touch(scheduledSlot.getUserId()));
 
-        ScheduledSlot confirmedSlot = scheduledSlotRepository.save(scheduledSlot);
-        return modelMapper.map(confirmedSlot, ScheduledSlotDto.class);
+        ScheduledSlot confirmedSlot = VersionChecks.flush(scheduledSlot, expectedVersion,
+                () -> scheduledSlotRepository.saveAndFlush(scheduledSlot));
+        calendarChangeBroadcaster.publishAfterCommit(
+                CalendarChangeDto.Type.SLOT_CONFIRMED, confirmedSlot.getUserId(), confirmedSlot.getId(), confirmedSlot.getVersion());
+        return scheduledSlotMapper.toDto(confirmedSlot);
     }
 
     @Override
     @Transactional
     public void deleteScheduledSlot(UUID id) {
-        if (!scheduledSlotRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Scheduled slot not found with id: " + id);
-        }
+        ScheduledSlot scheduledSlot = scheduledSlotRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Scheduled slot not found with id: " + id));
         
-        scheduledSlotRepository.deleteById(id);
+        scheduledSlotRepository.delete(scheduledSlot);
+        calendarVersions.recordDeletion(scheduledSlot.getUserId(), CalendarTombstone.ResourceType.SCHEDULED_SLOT, scheduledSlot.getId());
+        availableSlotCache.evictWeeksAfterCommit(scheduledSlot.getUserId(), scheduledSlot.getStartTime(), scheduledSlot.getEndTime());
+        calendarChangeBroadcaster.publishAfterCommit(
+                CalendarChangeDto.Type.SLOT_DELETED, scheduledSlot.getUserId(), scheduledSlot.getId(), null);
+    }
+
+    // The exchange check runs before any lock and only the user is locked, so two bookings of one exchange for
+    // different users can both pass it; the loser trips the unique exchange_id and is reported as a conflict too
+    private <T> T flushNewSlots(Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException ex) {
+            throw new SchedulingConflictException("A scheduled slot already exists for this exchange", ex);
+        }
     }
 }
\ No newline at end of file
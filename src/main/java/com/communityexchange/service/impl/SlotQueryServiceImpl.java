@@ -0,0 +1,74 @@
+package com.communityexchange.service.impl;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import com.communityexchange.service.SlotQueryService;
+import com.communityexchange.service.UserCalendarService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JPA is blocking, so every database call runs on Reactor's bounded elastic scheduler, and so does
+ * every downstream request for more elements. Data is only read when the subscriber asks for it:
+ * available slots come from the chunked engine stream and scheduled slots from keyset pages.
+ */
+@Service
+public class SlotQueryServiceImpl implements SlotQueryService {
+    
+    private final UserCalendarService userCalendarService;
+    private final ScheduledSlotRepository scheduledSlotRepository;
+    private final ScheduledSlotMapper scheduledSlotMapper;
+    private final Limit pageSize;
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+    
+    public SlotQueryServiceImpl(
+            UserCalendarService userCalendarService,
+            ScheduledSlotRepository scheduledSlotRepository,
+            ScheduledSlotMapper scheduledSlotMapper,
+            @Value("${calendar.slot-query.page-size:200}") int pageSize) {
+        this.userCalendarService = userCalendarService;
+        this.scheduledSlotRepository = scheduledSlotRepository;
+        this.scheduledSlotMapper = scheduledSlotMapper;
+        this.pageSize = Limit.of(pageSize);
+    }
+    
+    @Override
+    public Flux<AvailabilitySlotDto> streamAvailableSlots(UUID userId, LocalDateTime start, LocalDateTime end) {
+        return Flux.fromStream(() -> userCalendarService.streamAvailableSlots(userId, start, end))
+                .subscribeOn(scheduler);
+    }
+    
+    @Override
+    public Flux<ScheduledSlotDto> streamScheduledSlots(UUID userId, LocalDateTime start, LocalDateTime end) {
+        // The state is the last slot emitted so far, where the next page starts
+        Flux<List<ScheduledSlotSummary>> pages = Flux.generate(Optional::<ScheduledSlotSummary>empty, (last, sink) -> {
+            List<ScheduledSlotSummary> page = last
+                    .map(slot -> scheduledSlotRepository.findPageStartingAfter(userId, slot.startTime(), slot.id(), end, pageSize))
+                    .orElseGet(() -> scheduledSlotRepository.findFirstPageStartingBetween(userId, start, end, pageSize));
+            if (!page.isEmpty()) {
+                sink.next(page);
+            }
+            if (page.size() < pageSize.max()) {
+                sink.complete();
+                return last;
+            }
+            return Optional.of(page.get(page.size() - 1));
+        });
+        return pages
+                .flatMapIterable(page -> page, 1)
+                .map(scheduledSlotMapper::toDto)
+                .subscribeOn(scheduler);
+    }
+}
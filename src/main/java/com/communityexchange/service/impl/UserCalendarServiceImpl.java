@@ -1,43 +1,87 @@
 package com.communityexchange.service.impl;
 
+import com.communityexchange.exception.CalendarAlreadyExistsException;
 import com.communityexchange.exception.ResourceNotFoundException;
-import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.exception.SyncTokenExpiredException;
 import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.dto.CalendarSyncDto;
+import com.communityexchange.model.dto.CommonAvailableSlotDto;
+import com.communityexchange.model.dto.TombstoneDto;
 import com.communityexchange.model.dto.UserCalendarDto;
 import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.CalendarTombstone;
 import com.communityexchange.model.entity.ScheduledSlot;
 import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.model.mapper.AvailabilityMapper;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.mapper.UserCalendarMapper;
+import com.communityexchange.model.projection.CalendarVersion;
+import com.communityexchange.repository.AvailabilityOverrideRepository;
 import com.communityexchange.repository.AvailabilityRepository;
+import com.communityexchange.repository.CalendarTombstoneRepository;
 import com.communityexchange.repository.ScheduledSlotRepository;
 import com.communityexchange.repository.UserCalendarRepository;
 import com.communityexchange.service.UserCalendarService;
+import com.communityexchange.service.slot.AvailabilityOverrideRegistry;
+import com.communityexchange.service.slot.AvailabilityOverrides;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.slot.CommonAvailabilityCalculator;
+import com.communityexchange.service.slot.FreeBusyEngine;
+import com.communityexchange.service.slot.SlotGenerationMetrics;
+import com.communityexchange.service.slot.TimeWindow;
+import com.communityexchange.service.slot.WeeklyAvailabilityRegistry;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.CalendarVersions;
+import com.communityexchange.service.support.SyncToken;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "calendar.service", histogram = true)
 @RequiredArgsConstructor
 public class UserCalendarServiceImpl implements UserCalendarService {
     
+    private static final int STREAM_CHUNK_DAYS = 28;
+    
     private final UserCalendarRepository userCalendarRepository;
     private final AvailabilityRepository availabilityRepository;
+    private final AvailabilityOverrideRepository availabilityOverrideRepository;
     private final ScheduledSlotRepository scheduledSlotRepository;
-    private final ModelMapper modelMapper;
+    private final CalendarTombstoneRepository calendarTombstoneRepository;
+    private final FreeBusyEngine freeBusyEngine;
+    private final CommonAvailabilityCalculator commonAvailabilityCalculator;
+    private final WeeklyAvailabilityRegistry weeklyAvailabilityRegistry;
+    private final AvailabilityOverrideRegistry availabilityOverrideRegistry;
+    private final CalendarIdentityCache calendarIdentityCache;
+    private final AvailableSlotCache availableSlotCache;
+    private final SlotGenerationMetrics slotGenerationMetrics;
+    private final CalendarVersions calendarVersions;
+    private final UserCalendarMapper userCalendarMapper;
+    private final ScheduledSlotMapper scheduledSlotMapper;
+    private final AvailabilityMapper availabilityMapper;
     
     @Override
     @Transactional
     public UserCalendarDto createUserCalendar(UUID userId) {
-        if (userCalendarRepository.findByUserId(userId).isPresent()) {
-            throw new IllegalStateException("Calendar already exists for this user");
+        // Asked of the database rather than the identity cache, which may still hold a calendar deleted elsewhere
+        if (userCalendarRepository.existsByUserId(userId)) {
+            throw new CalendarAlreadyExistsException("Calendar already exists for this user");
         }
         
         UserCalendar userCalendar = new UserCalendar();
@@ -45,94 +89,209 @@ public class UserCalendarServiceImpl implements UserCalendarService {
         userCalendar.setCreatedAt(LocalDateTime.now());
         userCalendar.setUpdatedAt(LocalDateTime.now());
         
-        UserCalendar savedCalendar = userCalendarRepository.save(userCalendar);
+        // Flushed so that a concurrent create losing on the unique user_id is reported as a conflict too
+        UserCalendar savedCalendar;
+        try {
+            savedCalendar = userCalendarRepository.saveAndFlush(userCalendar);
+        } catch (DataIntegrityViolationException ex) {
+            throw new CalendarAlreadyExistsException("Calendar already exists for this user", ex);
+        }
+        calendarIdentityCache.registerAfterCommit(userId, savedCalendar.getId());
         
-        return mapToDto(savedCalendar);
+        return userCalendarMapper.toDto(savedCalendar);
     }
     
     @Override
     @Transactional(readOnly = true)
     public UserCalendarDto getUserCalendar(UUID userId) {
-        UserCalendar userCalendar = userCalendarRepository.findByUserId(userId)
+        UserCalendar userCalendar = userCalendarRepository.findWithAvailabilitiesByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User calendar not found for user ID: " + userId));
         
-        UserCalendarDto userCalendarDto = mapToDto(userCalendar);
-        
-        List<AvailabilityDto> availabilityDtos = availabilityRepository.findByUserCalendar(userCalendar)
-                .stream()
-                .map(availability -> modelMapper.map(availability, AvailabilityDto.class))
-                .collect(Collectors.toList());
-        
-        userCalendarDto.setAvailabilities(availabilityDtos);
-        
-        return userCalendarDto;
+        return userCalendarMapper.toDto(userCalendar);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<AvailabilitySlotDto> getAvailableSlots(UUID userId, LocalDateTime start, LocalDateTime end) {
-        UserCalendar userCalendar = userCalendarRepository.findByUserId(userId)
+    public CalendarVersion getCalendarVersion(UUID userId) {
+        return userCalendarRepository.findVersionByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User calendar not found for user ID: " + userId));
-        
-        List<Availability> availabilities = availabilityRepository.findByUserCalendarAndIsActiveTrue(userCalendar);
-        List<ScheduledSlot> scheduledSlots = scheduledSlotRepository.findByUserIdAndStartTimeBetween(userId, start, end);
-        
-        return generateAvailableSlots(availabilities, scheduledSlots, start, end, userId);
     }
     
+    // The version is read before the rows, so a write committing in between is sent again by the next
+    // sync rather than missed. Every query is answered from a (owner, change_sequence) index.
     @Override
-    @Transactional
-    public void deleteUserCalendar(UUID userId) {
-        UserCalendar userCalendar = userCalendarRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User calendar not found for user ID: " + userId));
+    @Transactional(readOnly = true)
+    public CalendarSyncDto syncCalendar(UUID userId, String since) {
+        CalendarVersion version = getCalendarVersion(userId);
+        String syncToken = new SyncToken(version.calendarId(), version.changeVersion(), LocalDateTime.now()).encode();
+        if (since == null) {
+            return toSync(true,
+                    scheduledSlotRepository.findByUserId(userId),
+                    availabilityRepository.findByUserCalendarId(version.calendarId()),
+                    List.of(),
+                    syncToken);
+        }
         
-        userCalendarRepository.delete(userCalendar);
+        SyncToken from = SyncToken.decode(since);
+        if (!from.calendarId().equals(version.calendarId())
+                || from.changeSequence() > version.changeVersion()
+                || from.issuedAt().isBefore(calendarVersions.oldestSyncableTime())) {
+            throw new SyncTokenExpiredException("Sync token is no longer valid, sync again without since");
+        }
+        long sequence = from.changeSequence();
+        return toSync(false,
+                scheduledSlotRepository.findByUserIdAndChangeSequenceGreaterThan(userId, sequence),
+                availabilityRepository.findByUserCalendarIdAndChangeSequenceGreaterThan(version.calendarId(), sequence),
+                calendarTombstoneRepository.findByUserIdAndChangeSequenceGreaterThan(userId, sequence),
+                syncToken);
     }
     
-    private List<AvailabilitySlotDto> generateAvailableSlots(
-            List<Availability> availabilities,
-            List<ScheduledSlot> scheduledSlots,
-            LocalDateTime start,
-            LocalDateTime end,
-            UUID userId) {
-        
+    private CalendarSyncDto toSync(boolean fullSync, List<ScheduledSlot> scheduledSlots, List<Availability> availabilities,
+                                   List<CalendarTombstone> tombstones, String syncToken) {
+        return new CalendarSyncDto(
+                fullSync,
+                scheduledSlots.stream().map(scheduledSlotMapper::toDto).collect(Collectors.toList()),
+                availabilities.stream().map(availabilityMapper::toDto).collect(Collectors.toList()),
+                tombstones.stream()
+                        .map(tombstone -> new TombstoneDto(tombstone.getResourceType(), tombstone.getResourceId()))
+                        .collect(Collectors.toList()),
+                syncToken);
+    }
+    
+    // Assembled from cached week segments; each segment holds every free window of its days and is clipped
+    // to the requested range here. No transaction so that a fully cached range never touches the database.
+    @Override
+    public List<AvailabilitySlotDto> getAvailableSlots(UUID userId, LocalDateTime start, LocalDateTime end) {
         List<AvailabilitySlotDto> availableSlots = new ArrayList<>();
-        LocalDateTime current = start;
+        if (!start.isBefore(end)) {
+            return availableSlots;
+        }
         
-        while (current.isBefore(end)) {
-            DayOfWeek dayOfWeek = current.getDayOfWeek();
-            
-            for (Availability availability : availabilities) {
-                if (availability.getDayOfWeek() == dayOfWeek) {
-                    LocalDateTime slotStart = current.with(availability.getStartTime());
-                    LocalDateTime slotEnd = current.with(availability.getEndTime());
-                    
-                    // Check if the slot is within the requested time range
-                    if (slotStart.isAfter(start) && slotEnd.isBefore(end)) {
-                        // Check if the slot doesn't overlap with scheduled slots
-                        boolean isAvailable = scheduledSlots.stream()
-                                .noneMatch(slot -> 
-                                        (slotStart.isBefore(slot.getEndTime()) && slotEnd.isAfter(slot.getStartTime())));
-                        
-                        if (isAvailable) {
-                            AvailabilitySlotDto slot = new AvailabilitySlotDto();
-                            slot.setStartTime(slotStart);
-                            slot.setEndTime(slotEnd);
-                            slot.setUserId(userId);
-                            availableSlots.add(slot);
-                        }
-                    }
+        // One stamp for the whole range: the availabilities are read once and shared by every week, so a
+        // week computed after an eviction from the list read before it must not be cached either
+        long stamp = availableSlotCache.stamp();
+        Supplier<List<Availability>> availabilities = memoize(() ->
+                availabilityRepository.findByUserCalendarIdAndIsActiveTrue(calendarIdentityCache.requireCalendarIdOf(userId)));
+        
+        LocalDate lastWeek = AvailableSlotCache.weekStart(end.toLocalDate());
+        for (LocalDate week = AvailableSlotCache.weekStart(start.toLocalDate()); !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+            LocalDate weekStart = week;
+            List<TimeWindow> windows = availableSlotCache.getWeek(
+                    userId, weekStart, stamp, () -> computeWeek(userId, availabilities.get(), weekStart));
+            for (TimeWindow window : windows) {
+                if (window.start().isAfter(start) && window.end().isBefore(end)) {
+                    availableSlots.add(new AvailabilitySlotDto(window.start(), window.end(), userId));
                 }
             }
-            
-            // Move to the next day
-            current = current.plusDays(1).with(LocalTime.MIN);
         }
         
+        slotGenerationMetrics.recordRequest(ChronoUnit.DAYS.between(start, end), availableSlots.size());
         return availableSlots;
     }
     
-    private UserCalendarDto mapToDto(UserCalendar userCalendar) {
-        return modelMapper.map(userCalendar, UserCalendarDto.class);
+    private List<TimeWindow> computeWeek(UUID userId, List<Availability> availabilities, LocalDate weekStart) {
+        AvailabilityOverrides overrides = availabilityOverrideRegistry.get(userId);
+        if (availabilities.isEmpty() && overrides.isEmpty()) {
+            return List.of();
+        }
+        
+        LocalDate weekEnd = weekStart.plusWeeks(1);
+        List<ScheduledSlot> scheduledSlots = scheduledSlotRepository.findOverlapping(
+                userId, weekStart.atStartOfDay(), weekEnd.atStartOfDay());
+        slotGenerationMetrics.recordGeneration(availabilities.size(), scheduledSlots.size());
+        return freeBusyEngine.generateDayWindows(availabilities, overrides, scheduledSlots, weekStart, weekEnd);
+    }
+    
+    private static <T> Supplier<T> memoize(Supplier<T> supplier) {
+        return new Supplier<>() {
+            private T value;
+            
+            @Override
+            public T get() {
+                if (value == null) {
+                    value = supplier.get();
+                }
+                return value;
+            }
+        };
+    }
+    
+    // Only the availabilities are loaded here; busy slots are fetched chunk by chunk
+    // while the caller consumes the stream
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<AvailabilitySlotDto> streamAvailableSlots(UUID userId, LocalDateTime start, LocalDateTime end) {
+        UUID calendarId = calendarIdentityCache.requireCalendarIdOf(userId);
+        List<Availability> availabilities = availabilityRepository.findByUserCalendarIdAndIsActiveTrue(calendarId);
+        
+        return freeBusyEngine.streamAvailableSlots(
+                availabilities,
+                availabilityOverrideRegistry.get(userId),
+                (from, to) -> scheduledSlotRepository.findOverlapping(userId, from, to),
+                STREAM_CHUNK_DAYS,
+                start,
+                end,
+                userId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommonAvailableSlotDto> getCommonAvailableSlots(List<UUID> userIds, LocalDateTime start, LocalDateTime end) {
+        Set<UUID> participants = new LinkedHashSet<>(userIds);
+        List<UserCalendar> userCalendars = userCalendarRepository.findByUserIdIn(participants);
+        if (userCalendars.size() < participants.size()) {
+            Set<UUID> missing = new LinkedHashSet<>(participants);
+            userCalendars.forEach(userCalendar -> missing.remove(userCalendar.getUserId()));
+            throw new ResourceNotFoundException("User calendar not found for user IDs: " + missing);
+        }
+        
+        // Grouped through the calendar ID, which the lazy reference holds without loading the calendar again
+        Map<UUID, UUID> userIdsByCalendarId = userCalendars.stream()
+                .collect(Collectors.toMap(UserCalendar::getId, UserCalendar::getUserId));
+        Map<UUID, List<Availability>> availabilitiesByUser = availabilityRepository.findByUserCalendarInAndIsActiveTrue(userCalendars)
+                .stream()
+                .collect(Collectors.groupingBy(availability -> userIdsByCalendarId.get(availability.getUserCalendar().getId())));
+        Map<UUID, List<ScheduledSlot>> scheduledSlotsByUser = scheduledSlotRepository.findOverlappingForUsers(participants, start, end)
+                .stream()
+                .collect(Collectors.groupingBy(ScheduledSlot::getUserId));
+        Map<UUID, AvailabilityOverrides> overridesByUser = availabilityOverrideRegistry.getAll(userCalendars);
+        
+        List<UUID> participantList = new ArrayList<>(participants);
+        return commonAvailabilityCalculator.commonWindows(
+                        participantList, availabilitiesByUser, overridesByUser, scheduledSlotsByUser, start, end)
+                .stream()
+                .map(window -> new CommonAvailableSlotDto(window.start(), window.end(), participantList))
+                .collect(Collectors.toList());
+    }
+    
+    // Served from the weekly bitmap and the override index; no transaction so that a warm lookup never
+    // touches the database
+    @Override
+    public boolean isAvailableAt(UUID userId, LocalDateTime time) {
+        return weeklyAvailabilityRegistry.get(userId).isAvailableAt(time, availabilityOverrideRegistry.get(userId));
+    }
+    
+    @Override
+    public List<AvailabilitySlotDto> getAvailabilityWindows(UUID userId, LocalDate date) {
+        return weeklyAvailabilityRegistry.get(userId).windowsOn(date, availabilityOverrideRegistry.get(userId)).stream()
+                .map(window -> new AvailabilitySlotDto(window.start(), window.end(), userId))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @Transactional
+    public void deleteUserCalendar(UUID userId) {
+        UUID calendarId = calendarIdentityCache.requireCalendarIdOf(userId);
+        
+        // Tombstoned while the calendar row still exists to take the change sequence from
+        calendarVersions.recordDeletions(userId, CalendarTombstone.ResourceType.AVAILABILITY,
+                availabilityRepository.findIdsByUserCalendarId(calendarId));
+        availabilityRepository.deleteByUserCalendarId(calendarId);
+        availabilityOverrideRepository.deleteByUserCalendarId(calendarId);
+        userCalendarRepository.deleteById(calendarId);
+        calendarIdentityCache.evictAfterCommit(userId, calendarId);
+        weeklyAvailabilityRegistry.evictAfterCommit(userId);
+        availabilityOverrideRegistry.evictAfterCommit(userId);
+        availableSlotCache.evictUserAfterCommit(userId);
     }
 }
\ No newline at end of file
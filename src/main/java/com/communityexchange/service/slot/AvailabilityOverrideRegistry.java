@@ -0,0 +1,87 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.repository.AvailabilityOverrideRepository;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the {@link AvailabilityOverrides} index of recently queried calendars, keyed by user ID.
+ * <p>
+ * Kept the same way as {@link WeeklyAvailabilityRegistry}: writers call {@link #evictAfterCommit(UUID)}
+ * and the next reader rebuilds the index, guarded by {@link UserIndexCache}.
+ */
+@Component
+public class AvailabilityOverrideRegistry {
+
+    public static final String CACHE_NAME = "availabilityOverrides";
+
+    private final CalendarIdentityCache calendarIdentityCache;
+    private final AvailabilityOverrideRepository availabilityOverrideRepository;
+    private final UserIndexCache<AvailabilityOverrides> indexes;
+
+    public AvailabilityOverrideRegistry(
+            CalendarIdentityCache calendarIdentityCache,
+            AvailabilityOverrideRepository availabilityOverrideRepository,
+            MeterRegistry meterRegistry,
+            @Value("${calendar.availability-registry.maximum-size:10000}") long maximumSize,
+            @Value("${calendar.availability-registry.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.calendarIdentityCache = calendarIdentityCache;
+        this.availabilityOverrideRepository = availabilityOverrideRepository;
+        this.indexes = new UserIndexCache<>(meterRegistry, CACHE_NAME, maximumSize, expireAfterWrite);
+    }
+
+    public AvailabilityOverrides get(UUID userId) {
+        return indexes.get(userId, this::load);
+    }
+
+    // Loads the indexes not held yet with a single query, for callers that need many calendars at once
+    public Map<UUID, AvailabilityOverrides> getAll(Collection<UserCalendar> userCalendars) {
+        Map<UUID, AvailabilityOverrides> result = new HashMap<>();
+        List<UserCalendar> missing = new ArrayList<>();
+        for (UserCalendar userCalendar : userCalendars) {
+            AvailabilityOverrides index = indexes.getIfPresent(userCalendar.getUserId());
+            if (index != null) {
+                result.put(userCalendar.getUserId(), index);
+            } else {
+                missing.add(userCalendar);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // Grouped through the calendar ID, which the lazy reference holds without loading the calendar again
+        long stamp = indexes.stamp();
+        Map<UUID, List<AvailabilityOverride>> overridesByCalendarId = availabilityOverrideRepository
+                .findByUserCalendarIn(missing).stream()
+                .collect(Collectors.groupingBy(override -> override.getUserCalendar().getId()));
+        for (UserCalendar userCalendar : missing) {
+            AvailabilityOverrides loaded = AvailabilityOverrides.of(overridesByCalendarId.getOrDefault(userCalendar.getId(), List.of()));
+            result.put(userCalendar.getUserId(), indexes.install(userCalendar.getUserId(), stamp, loaded));
+        }
+        return result;
+    }
+
+    public void evictAfterCommit(UUID userId) {
+        TransactionCallbacks.afterCommit(() -> indexes.invalidate(userId));
+    }
+
+    private AvailabilityOverrides load(UUID userId) {
+        UUID calendarId = calendarIdentityCache.requireCalendarIdOf(userId);
+        return AvailabilityOverrides.of(availabilityOverrideRepository.findByUserCalendarIdOrderByDateAscStartTimeAsc(calendarId));
+    }
+}
@@ -0,0 +1,121 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.entity.AvailabilityOverride;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A calendar's availability overrides indexed by date. The dates that have any are kept in one sorted
+ * array, so the overrides of a date are found with a binary search and the slot engine can consult them
+ * for every day it sweeps without a query per day.
+ * <p>
+ * On an overridden date, the usual windows are trimmed to the parts outside every blackout (nothing is
+ * left when the whole date is blacked out) and the extra windows are added; blackouts do not apply to the
+ * extra windows of their own date. Instances are immutable and safe to share between threads.
+ */
+public final class AvailabilityOverrides {
+
+    public static final AvailabilityOverrides NONE = new AvailabilityOverrides(new LocalDate[0], new DayOverride[0]);
+
+    private final LocalDate[] dates;
+    private final DayOverride[] days;
+
+    private AvailabilityOverrides(LocalDate[] dates, DayOverride[] days) {
+        this.dates = dates;
+        this.days = days;
+    }
+
+    public static AvailabilityOverrides of(Collection<AvailabilityOverride> overrides) {
+        if (overrides.isEmpty()) {
+            return NONE;
+        }
+
+        Map<LocalDate, List<AvailabilityOverride>> byDate = new TreeMap<>();
+        for (AvailabilityOverride override : overrides) {
+            byDate.computeIfAbsent(override.getDate(), date -> new ArrayList<>()).add(override);
+        }
+        LocalDate[] dates = new LocalDate[byDate.size()];
+        DayOverride[] days = new DayOverride[byDate.size()];
+        int i = 0;
+        for (Map.Entry<LocalDate, List<AvailabilityOverride>> entry : byDate.entrySet()) {
+            dates[i] = entry.getKey();
+            days[i] = DayOverride.of(entry.getValue());
+            i++;
+        }
+        return new AvailabilityOverrides(dates, days);
+    }
+
+    public boolean isEmpty() {
+        return dates.length == 0;
+    }
+
+    // Null when nothing overrides the date
+    public DayOverride on(LocalDate date) {
+        int index = Arrays.binarySearch(dates, date);
+        return index >= 0 ? days[index] : null;
+    }
+
+    public record Window(LocalTime start, LocalTime end) {
+    }
+
+    /**
+     * The overrides of one date: whether all of it is blacked out, the blacked out windows otherwise,
+     * and the extra windows, both ordered by start.
+     */
+    public record DayOverride(boolean blackedOut, List<Window> blackouts, List<Window> extras) {
+
+        static DayOverride of(List<AvailabilityOverride> overrides) {
+            boolean blackedOut = false;
+            List<Window> blackouts = new ArrayList<>();
+            List<Window> extras = new ArrayList<>();
+            for (AvailabilityOverride override : overrides) {
+                if (override.getType() == AvailabilityOverride.Type.EXTRA) {
+                    extras.add(new Window(override.getStartTime(), override.getEndTime()));
+                } else if (override.getStartTime() == null) {
+                    blackedOut = true;
+                } else {
+                    blackouts.add(new Window(override.getStartTime(), override.getEndTime()));
+                }
+            }
+            blackouts.sort(Comparator.comparing(Window::start).thenComparing(Window::end));
+            extras.sort(Comparator.comparing(Window::start).thenComparing(Window::end));
+            return new DayOverride(blackedOut, List.copyOf(blackouts), List.copyOf(extras));
+        }
+
+        // The parts of a usual window [start, end) on this date that no blackout covers, in order
+        public List<Window> trim(LocalTime start, LocalTime end) {
+            if (blackedOut) {
+                return List.of();
+            }
+            if (blackouts.isEmpty()) {
+                return List.of(new Window(start, end));
+            }
+            List<Window> remaining = new ArrayList<>();
+            LocalTime from = start;
+            for (Window blackout : blackouts) {
+                if (!blackout.start().isBefore(end)) {
+                    break;
+                }
+                if (blackout.start().isAfter(from)) {
+                    remaining.add(new Window(from, blackout.start()));
+                }
+                if (blackout.end().isAfter(from)) {
+                    from = blackout.end();
+                }
+                if (!from.isBefore(end)) {
+                    return remaining;
+                }
+            }
+            remaining.add(new Window(from, end));
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.entity.Availability;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The dates on which an availability applies. An availability with a recurrence rule follows it from its
+ * start date; without one it repeats weekly on its day of week from its start date, or applies on the start
+ * date only when it is not recurring. Availabilities with neither a rule nor a start date predate both and
+ * repeat weekly forever; they are the plain weekly ones the templates handle without any expansion.
+ */
+public final class AvailabilityRecurrence {
+
+    private final RecurrenceRule rule;
+    private final LocalDate startDate;
+    private final Availability availability;
+
+    private AvailabilityRecurrence(Availability availability) {
+        this.availability = availability;
+        this.startDate = availability.getStartDate() != null ? availability.getStartDate() : LocalDate.EPOCH;
+        if (availability.getRecurrenceRule() != null) {
+            this.rule = RecurrenceRule.parse(availability.getRecurrenceRule());
+        } else {
+            this.rule = availability.isRecurring() || availability.getStartDate() == null ? RecurrenceRule.weekly() : null;
+        }
+    }
+
+    public static boolean isPlainWeekly(Availability availability) {
+        return availability.getRecurrenceRule() == null && availability.getStartDate() == null;
+    }
+
+    public static AvailabilityRecurrence of(Availability availability) {
+        return new AvailabilityRecurrence(availability);
+    }
+
+    public Availability availability() {
+        return availability;
+    }
+
+    public Iterator<LocalDate> occurrences(LocalDate from, LocalDate toExclusive) {
+        if (rule != null) {
+            return rule.occurrences(startDate, availability.getDayOfWeek(), from, toExclusive);
+        }
+        boolean inside = !startDate.isBefore(from) && startDate.isBefore(toExclusive);
+        return inside ? List.of(startDate).iterator() : Collections.emptyIterator();
+    }
+
+    public boolean occursOn(LocalDate date) {
+        return occurrences(date, date.plusDays(1)).hasNext();
+    }
+}
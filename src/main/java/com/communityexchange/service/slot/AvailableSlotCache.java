@@ -0,0 +1,145 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.service.support.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the free windows of one user in one ISO week (Monday to Sunday), as produced by
+ * {@link FreeBusyEngine#generateDayWindows}.
+ * <p>
+ * Writers evict after commit, either a whole user or only the weeks a scheduled slot touches. A second,
+ * per-user cache with the same bounds indexes the weeks held for each user, so evicting a user drops
+ * exactly its weeks, and carries the stamp of the user's last eviction. A reader which computed a week
+ * before an eviction cannot install its stale copy afterwards, even when the user's entry was dropped in
+ * between, since the highest stamp the cache ever dropped is remembered. Dropping a user's entry drops
+ * its weeks as well. Both caches expire after write rather than access, since evictions only reach the
+ * writer's own instance: a week another instance keeps reading is still recomputed once it is that old.
+ */
+@Component
+public class AvailableSlotCache {
+
+    public static final String CACHE_NAME = "availableSlots";
+
+    private final Cache<WeekKey, List<TimeWindow>> weeks;
+    private final Cache<UUID, UserWeeks> users;
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong droppedStamp = new AtomicLong();
+
+    public AvailableSlotCache(
+            MeterRegistry meterRegistry,
+            @Value("${calendar.available-slot-cache.maximum-size:10000}") long maximumSize,
+            @Value("${calendar.available-slot-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .<UUID, UserWeeks>evictionListener((userId, user, cause) -> dropped(userId, user))
+                .build();
+        this.weeks = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .<WeekKey, List<TimeWindow>>evictionListener((key, windows, cause) -> {
+                    if (key != null) {
+                        UserWeeks user = users.getIfPresent(key.userId());
+                        if (user != null) {
+                            user.weekStarts().remove(key.weekStart());
+                        }
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, weeks, CACHE_NAME);
+    }
+
+    public static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public List<TimeWindow> getWeek(UUID userId, LocalDate weekStart, Supplier<List<TimeWindow>> loader) {
+        return getWeek(userId, weekStart, stamp(), loader);
+    }
+
+    // Taken before reading anything the loaders of several weeks share, to be passed to each getWeek
+    public long stamp() {
+        return clock.get();
+    }
+
+    // Only installs the loaded week if the user was not evicted after the stamp was taken
+    public List<TimeWindow> getWeek(UUID userId, LocalDate weekStart, long stamp, Supplier<List<TimeWindow>> loader) {
+        WeekKey key = new WeekKey(userId, weekStart);
+        List<TimeWindow> cached = weeks.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<TimeWindow> loaded = List.copyOf(loader.get());
+        users.asMap().compute(userId, (id, current) -> {
+            long evicted = current == null ? droppedStamp.get() : current.stamp();
+            if (evicted > stamp) {
+                return current;
+            }
+            UserWeeks user = current != null ? current : new UserWeeks(evicted, ConcurrentHashMap.newKeySet());
+            user.weekStarts().add(weekStart);
+            weeks.put(key, loaded);
+            return user;
+        });
+        return loaded;
+    }
+
+    public void evictUserAfterCommit(UUID userId) {
+        TransactionCallbacks.afterCommit(() -> invalidate(userId, null, null));
+    }
+
+    // Evicts every week overlapping [start, end]
+    public void evictWeeksAfterCommit(UUID userId, LocalDateTime start, LocalDateTime end) {
+        LocalDate first = weekStart(start.toLocalDate());
+        LocalDate last = weekStart(end.toLocalDate());
+        TransactionCallbacks.afterCommit(() -> invalidate(userId, first, last));
+    }
+
+    private void invalidate(UUID userId, LocalDate firstWeek, LocalDate lastWeek) {
+        users.asMap().compute(userId, (id, current) -> {
+            Set<LocalDate> weekStarts = current == null ? ConcurrentHashMap.newKeySet() : current.weekStarts();
+            if (firstWeek == null) {
+                weekStarts.forEach(week -> weeks.invalidate(new WeekKey(id, week)));
+                weekStarts.clear();
+            } else {
+                for (LocalDate week = firstWeek; !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+                    weeks.invalidate(new WeekKey(id, week));
+                    weekStarts.remove(week);
+                }
+            }
+            return new UserWeeks(clock.incrementAndGet(), weekStarts);
+        });
+    }
+
+    private void dropped(UUID userId, UserWeeks user) {
+        if (userId != null && user != null) {
+            droppedStamp.accumulateAndGet(user.stamp(), Math::max);
+            user.weekStarts().forEach(weekStart -> weeks.invalidate(new WeekKey(userId, weekStart)));
+        }
+    }
+
+    private record WeekKey(UUID userId, LocalDate weekStart) {
+    }
+
+    // stamp is that of the user's last eviction, 0 if there was none
+    private record UserWeeks(long stamp, Set<LocalDate> weekStarts) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the windows in which every user of a group is free.
+ * <p>
+ * Each user's free slots are expanded with {@link FreeBusyEngine} on a bounded pool (the caller runs
+ * the work itself once the queue is full), normalised into sorted disjoint windows, and then
+ * intersected with a k-way sweep in O(n log k).
+ */
+@Component
+public class CommonAvailabilityCalculator {
+
+    private final FreeBusyEngine freeBusyEngine;
+    private final ThreadPoolExecutor executor;
+
+    public CommonAvailabilityCalculator(
+            FreeBusyEngine freeBusyEngine,
+            @Value("${calendar.slot-expansion.threads:4}") int threads,
+            @Value("${calendar.slot-expansion.queue-capacity:64}") int queueCapacity) {
+        this.freeBusyEngine = freeBusyEngine;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slot-expansion-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public List<TimeWindow> commonWindows(
+            List<UUID> userIds,
+            Map<UUID, List<Availability>> availabilitiesByUser,
+            Map<UUID, AvailabilityOverrides> overridesByUser,
+            Map<UUID, List<ScheduledSlot>> scheduledSlotsByUser,
+            LocalDateTime start,
+            LocalDateTime end) {
+
+        List<CompletableFuture<List<TimeWindow>>> expansions = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            List<Availability> userAvailabilities = availabilitiesByUser.getOrDefault(userId, List.of());
+            AvailabilityOverrides userOverrides = overridesByUser.getOrDefault(userId, AvailabilityOverrides.NONE);
+            List<ScheduledSlot> userScheduledSlots = scheduledSlotsByUser.getOrDefault(userId, List.of());
+            expansions.add(CompletableFuture.supplyAsync(() -> normalise(
+                    freeBusyEngine.generateAvailableSlots(userAvailabilities, userOverrides, userScheduledSlots, start, end, userId)),
+                    executor));
+        }
+
+        List<List<TimeWindow>> perUser = new ArrayList<>(expansions.size());
+        try {
+            for (CompletableFuture<List<TimeWindow>> expansion : expansions) {
+                perUser.add(expansion.join());
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return intersect(perUser);
+    }
+
+    static List<TimeWindow> normalise(List<AvailabilitySlotDto> slots) {
+        List<TimeWindow> sorted = new ArrayList<>(slots.size());
+        for (AvailabilitySlotDto slot : slots) {
+            if (slot.getStartTime().isBefore(slot.getEndTime())) {
+                sorted.add(new TimeWindow(slot.getStartTime(), slot.getEndTime()));
+            }
+        }
+        sorted.sort(Comparator.comparing(TimeWindow::start));
+
+        List<TimeWindow> merged = new ArrayList<>(sorted.size());
+        for (TimeWindow window : sorted) {
+            int last = merged.size() - 1;
+            if (last >= 0 && !window.start().isAfter(merged.get(last).end())) {
+                if (window.end().isAfter(merged.get(last).end())) {
+                    merged.set(last, new TimeWindow(merged.get(last).start(), window.end()));
+                }
+            } else {
+                merged.add(window);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Intersects k lists of sorted, disjoint windows. The head with the earliest end is always the
+     * one to advance; heads only move forward, so the latest head start never decreases.
+     */
+    static List<TimeWindow> intersect(List<List<TimeWindow>> windowLists) {
+        List<TimeWindow> common = new ArrayList<>();
+        if (windowLists.isEmpty() || windowLists.stream().anyMatch(List::isEmpty)) {
+            return common;
+        }
+
+        int[] positions = new int[windowLists.size()];
+        PriorityQueue<Integer> byEnd = new PriorityQueue<>(
+                Comparator.comparing(list -> windowLists.get(list).get(positions[list]).end()));
+        LocalDateTime latestStart = null;
+        for (int list = 0; list < windowLists.size(); list++) {
+            byEnd.add(list);
+            LocalDateTime headStart = windowLists.get(list).get(0).start();
+            if (latestStart == null || headStart.isAfter(latestStart)) {
+                latestStart = headStart;
+            }
+        }
+
+        while (true) {
+            int list = byEnd.poll();
+            LocalDateTime earliestEnd = windowLists.get(list).get(positions[list]).end();
+            if (latestStart.isBefore(earliestEnd)) {
+                common.add(new TimeWindow(latestStart, earliestEnd));
+            }
+
+            if (++positions[list] == windowLists.get(list).size()) {
+                return common;
+            }
+            LocalDateTime headStart = windowLists.get(list).get(positions[list]).start();
+            if (headStart.isAfter(latestStart)) {
+                latestStart = headStart;
+            }
+            byEnd.add(list);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,402 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Computes free windows from a weekly availability template and a set of busy slots.
+ * <p>
+ * Plain weekly availabilities are grouped per {@link DayOfWeek} once, busy slots are ordered by start once,
+ * and a single sweep over the range decides whether each candidate window is free. Availabilities with a
+ * recurrence rule or start date are expanded lazily alongside the sweep: each one only holds its next
+ * occurrence, so a long-running series is never materialised beyond the swept days. Date-specific
+ * {@link AvailabilityOverrides} are looked up for each swept day and applied before the busy test. A window
+ * {@code [s, e)} is busy when some scheduled slot {@code b} satisfies {@code b.start < e && b.end > s};
+ * since candidate ends only grow during the sweep, the busy slots with {@code b.start < e} form a
+ * growing prefix and the running maximum of their ends answers the test in constant time.
+ */
+@Component
+public class FreeBusyEngine {
+
+    public List<AvailabilitySlotDto> generateAvailableSlots(
+            List<Availability> availabilities,
+            List<ScheduledSlot> scheduledSlots,
+            LocalDateTime start,
+            LocalDateTime end,
+            UUID userId) {
+        return generateAvailableSlots(availabilities, AvailabilityOverrides.NONE, scheduledSlots, start, end, userId);
+    }
+
+    public List<AvailabilitySlotDto> generateAvailableSlots(
+            List<Availability> availabilities,
+            AvailabilityOverrides overrides,
+            List<ScheduledSlot> scheduledSlots,
+            LocalDateTime start,
+            LocalDateTime end,
+            UUID userId) {
+
+        List<AvailabilitySlotDto> availableSlots = new ArrayList<>();
+        if (!start.isBefore(end) || (availabilities.isEmpty() && overrides.isEmpty())) {
+            return availableSlots;
+        }
+
+        BusySweep busy = new BusySweep();
+        busy.addAll(scheduledSlots);
+        Sweep sweep = new Sweep(new Schedule(availabilities, overrides, start, end), busy, start, end, true);
+        SlotSink sink = (slotStart, slotEnd) -> availableSlots.add(new AvailabilitySlotDto(slotStart, slotEnd, userId));
+        while (sweep.nextDay(sink)) {
+            // Each call appends the free windows of one day
+        }
+        return availableSlots;
+    }
+
+    /**
+     * Returns every free window on the days {@code [firstDay, lastDayExclusive)} without the strict range
+     * clipping of {@link #generateAvailableSlots}, so that the result can be cached and clipped later
+     * against any range covering those days. {@code scheduledSlots} must contain every slot overlapping them.
+     */
+    public List<TimeWindow> generateDayWindows(
+            List<Availability> availabilities,
+            List<ScheduledSlot> scheduledSlots,
+            LocalDate firstDay,
+            LocalDate lastDayExclusive) {
+        return generateDayWindows(availabilities, AvailabilityOverrides.NONE, scheduledSlots, firstDay, lastDayExclusive);
+    }
+
+    public List<TimeWindow> generateDayWindows(
+            List<Availability> availabilities,
+            AvailabilityOverrides overrides,
+            List<ScheduledSlot> scheduledSlots,
+            LocalDate firstDay,
+            LocalDate lastDayExclusive) {
+
+        List<TimeWindow> windows = new ArrayList<>();
+        if (!firstDay.isBefore(lastDayExclusive) || (availabilities.isEmpty() && overrides.isEmpty())) {
+            return windows;
+        }
+
+        BusySweep busy = new BusySweep();
+        busy.addAll(scheduledSlots);
+        Sweep sweep = new Sweep(new Schedule(availabilities, overrides, firstDay.atStartOfDay(), lastDayExclusive.atStartOfDay()),
+                busy, firstDay.atStartOfDay(), lastDayExclusive.atStartOfDay(), false);
+        SlotSink sink = (slotStart, slotEnd) -> windows.add(new TimeWindow(slotStart, slotEnd));
+        while (sweep.nextDay(sink)) {
+            // Each call appends the free windows of one day
+        }
+        return windows;
+    }
+
+    /**
+     * Produces the same slots as {@link #generateAvailableSlots} lazily, one day at a time. Busy slots are
+     * pulled from {@code busySlotLoader} in chunks of {@code chunkDays} just before the sweep reaches them;
+     * the loader must return every slot overlapping the chunk and may return slots from earlier chunks again.
+     */
+    public Stream<AvailabilitySlotDto> streamAvailableSlots(
+            List<Availability> availabilities,
+            BiFunction<LocalDateTime, LocalDateTime, List<ScheduledSlot>> busySlotLoader,
+            int chunkDays,
+            LocalDateTime start,
+            LocalDateTime end,
+            UUID userId) {
+        return streamAvailableSlots(availabilities, AvailabilityOverrides.NONE, busySlotLoader, chunkDays, start, end, userId);
+    }
+
+    public Stream<AvailabilitySlotDto> streamAvailableSlots(
+            List<Availability> availabilities,
+            AvailabilityOverrides overrides,
+            BiFunction<LocalDateTime, LocalDateTime, List<ScheduledSlot>> busySlotLoader,
+            int chunkDays,
+            LocalDateTime start,
+            LocalDateTime end,
+            UUID userId) {
+
+        if (!start.isBefore(end) || (availabilities.isEmpty() && overrides.isEmpty())) {
+            return Stream.empty();
+        }
+
+        BusySweep busy = new BusySweep();
+        Sweep sweep = new Sweep(new Schedule(availabilities, overrides, start, end), busy, start, end, true);
+        Iterator<AvailabilitySlotDto> iterator = new Iterator<>() {
+
+            private final ArrayDeque<AvailabilitySlotDto> buffer = new ArrayDeque<>();
+            private final SlotSink sink = (slotStart, slotEnd) -> buffer.add(new AvailabilitySlotDto(slotStart, slotEnd, userId));
+            private LocalDateTime loadedUntil = start;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (buffer.isEmpty() && !exhausted) {
+                    LocalDateTime needed = sweep.currentDayEnd();
+                    while (loadedUntil.isBefore(needed)) {
+                        LocalDateTime chunkEnd = min(loadedUntil.plusDays(chunkDays), end);
+                        busy.addAll(busySlotLoader.apply(loadedUntil, chunkEnd));
+                        loadedUntil = chunkEnd;
+                    }
+                    exhausted = !sweep.nextDay(sink);
+                }
+                return !buffer.isEmpty();
+            }
+
+            @Override
+            public AvailabilitySlotDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return buffer.poll();
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    @FunctionalInterface
+    private interface SlotSink {
+        void accept(LocalDateTime slotStart, LocalDateTime slotEnd);
+    }
+
+    private static final class Sweep {
+
+        private final Schedule schedule;
+        private final BusySweep busy;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        // Whether windows must lie strictly inside (start, end), as the slot endpoints require
+        private final boolean clip;
+        private LocalDate day;
+        private LocalDateTime dayStart;
+
+        Sweep(Schedule schedule, BusySweep busy, LocalDateTime start, LocalDateTime end, boolean clip) {
+            this.schedule = schedule;
+            this.busy = busy;
+            this.start = start;
+            this.end = end;
+            this.clip = clip;
+            this.day = start.toLocalDate();
+            this.dayStart = start;
+        }
+
+        // Windows of the current day never end later than this
+        LocalDateTime currentDayEnd() {
+            return min(day.plusDays(1).atStartOfDay(), end);
+        }
+
+        boolean nextDay(SlotSink out) {
+            if (!dayStart.isBefore(end)) {
+                return false;
+            }
+
+            DayWindows windows = schedule.windowsOn(day);
+            if (windows != null) {
+                windows.collectFree(day, busy, clip ? start : null, clip ? end : null, out);
+            }
+
+            day = day.plusDays(1);
+            dayStart = day.atStartOfDay();
+            return true;
+        }
+    }
+
+    private static final class Schedule {
+
+        private final List<Availability> availabilities;
+        private final AvailabilityOverrides overrides;
+        // Windows of the plain weekly availabilities per weekday, and their positions in the list above
+        private final DayWindows[] weekly = new DayWindows[7];
+        private final List<List<Integer>> weeklyIndexes = new ArrayList<>(7);
+        // The other availabilities, ordered by their next occurrence
+        private final PriorityQueue<Occurrences> upcoming =
+                new PriorityQueue<>(Comparator.comparing((Occurrences occurrences) -> occurrences.next));
+
+        // Days are asked for in increasing order within [start, end)
+        Schedule(List<Availability> availabilities, AvailabilityOverrides overrides, LocalDateTime start, LocalDateTime end) {
+            this.availabilities = availabilities;
+            this.overrides = overrides;
+            for (int i = 0; i < 7; i++) {
+                weeklyIndexes.add(new ArrayList<>());
+            }
+            LocalDate firstDay = start.toLocalDate();
+            LocalDate lastDayExclusive = end.toLocalDate().plusDays(1);
+            for (int i = 0; i < availabilities.size(); i++) {
+                Availability availability = availabilities.get(i);
+                if (AvailabilityRecurrence.isPlainWeekly(availability)) {
+                    weeklyIndexes.get(availability.getDayOfWeek().ordinal()).add(i);
+                    continue;
+                }
+                Occurrences occurrences = new Occurrences(i,
+                        AvailabilityRecurrence.of(availability).occurrences(firstDay, lastDayExclusive));
+                if (occurrences.advance()) {
+                    upcoming.add(occurrences);
+                }
+            }
+            for (int i = 0; i < 7; i++) {
+                if (!weeklyIndexes.get(i).isEmpty()) {
+                    weekly[i] = DayWindows.of(select(weeklyIndexes.get(i)));
+                }
+            }
+        }
+
+        DayWindows windowsOn(LocalDate day) {
+            DayWindows usual = usualWindowsOn(day);
+            AvailabilityOverrides.DayOverride override = overrides.on(day);
+            return override == null ? usual : DayWindows.overridden(usual, override);
+        }
+
+        private DayWindows usualWindowsOn(LocalDate day) {
+            int weekday = day.getDayOfWeek().ordinal();
+            if (upcoming.isEmpty() || upcoming.peek().next.isAfter(day)) {
+                return weekly[weekday];
+            }
+
+            List<Integer> indexes = new ArrayList<>(weeklyIndexes.get(weekday));
+            while (!upcoming.isEmpty() && !upcoming.peek().next.isAfter(day)) {
+                Occurrences occurrences = upcoming.poll();
+                if (occurrences.next.equals(day)) {
+                    indexes.add(occurrences.index);
+                }
+                if (occurrences.advance()) {
+                    upcoming.add(occurrences);
+                }
+            }
+            // Kept in list order, which is the output order within a day
+            indexes.sort(null);
+            return DayWindows.of(select(indexes));
+        }
+
+        private List<Availability> select(List<Integer> indexes) {
+            List<Availability> selected = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                selected.add(availabilities.get(index));
+            }
+            return selected;
+        }
+    }
+
+    private static final class Occurrences {
+
+        private final int index;
+        private final Iterator<LocalDate> dates;
+        private LocalDate next;
+
+        Occurrences(int index, Iterator<LocalDate> dates) {
+            this.index = index;
+            this.dates = dates;
+        }
+
+        boolean advance() {
+            next = dates.hasNext() ? dates.next() : null;
+            return next != null;
+        }
+    }
+
+    private static final class DayWindows {
+
+        // Windows in their original order, which is also the output order
+        private final LocalTime[] startTimes;
+        private final LocalTime[] endTimes;
+        // Indexes into the arrays above, ordered by end time for the sweep
+        private final Integer[] byEnd;
+        private final boolean[] free;
+
+        DayWindows(LocalTime[] startTimes, LocalTime[] endTimes) {
+            this.startTimes = startTimes;
+            this.endTimes = endTimes;
+            byEnd = new Integer[startTimes.length];
+            free = new boolean[startTimes.length];
+            for (int i = 0; i < byEnd.length; i++) {
+                byEnd[i] = i;
+            }
+            Arrays.sort(byEnd, Comparator.comparing(i -> endTimes[i]));
+        }
+
+        static DayWindows of(List<Availability> availabilities) {
+            LocalTime[] startTimes = new LocalTime[availabilities.size()];
+            LocalTime[] endTimes = new LocalTime[availabilities.size()];
+            for (int i = 0; i < startTimes.length; i++) {
+                startTimes[i] = availabilities.get(i).getStartTime();
+                endTimes[i] = availabilities.get(i).getEndTime();
+            }
+            return new DayWindows(startTimes, endTimes);
+        }
+
+        // The parts of the usual windows outside the blackouts, followed by the extra windows
+        static DayWindows overridden(DayWindows usual, AvailabilityOverrides.DayOverride override) {
+            int usualCount = usual == null ? 0 : usual.startTimes.length;
+            List<LocalTime> startTimes = new ArrayList<>(usualCount + override.extras().size());
+            List<LocalTime> endTimes = new ArrayList<>(usualCount + override.extras().size());
+            for (int i = 0; i < usualCount; i++) {
+                for (AvailabilityOverrides.Window part : override.trim(usual.startTimes[i], usual.endTimes[i])) {
+                    startTimes.add(part.start());
+                    endTimes.add(part.end());
+                }
+            }
+            for (AvailabilityOverrides.Window extra : override.extras()) {
+                startTimes.add(extra.start());
+                endTimes.add(extra.end());
+            }
+            return new DayWindows(startTimes.toArray(LocalTime[]::new), endTimes.toArray(LocalTime[]::new));
+        }
+
+        void collectFree(LocalDate day, BusySweep busy, LocalDateTime start, LocalDateTime end, SlotSink out) {
+            for (Integer i : byEnd) {
+                free[i] = !busy.overlaps(day.atTime(startTimes[i]), day.atTime(endTimes[i]));
+            }
+            for (int i = 0; i < startTimes.length; i++) {
+                if (!free[i]) {
+                    continue;
+                }
+                LocalDateTime slotStart = day.atTime(startTimes[i]);
+                LocalDateTime slotEnd = day.atTime(endTimes[i]);
+                if (start == null || (slotStart.isAfter(start) && slotEnd.isBefore(end))) {
+                    out.accept(slotStart, slotEnd);
+                }
+            }
+        }
+    }
+
+    private static final class BusySweep {
+
+        private final PriorityQueue<ScheduledSlot> pending =
+                new PriorityQueue<>(Comparator.comparing(ScheduledSlot::getStartTime));
+        private LocalDateTime maxEnd;
+
+        void addAll(List<ScheduledSlot> scheduledSlots) {
+            pending.addAll(scheduledSlots);
+        }
+
+        // Callers must pass non-decreasing window ends; slots added late are still consumed correctly
+        boolean overlaps(LocalDateTime windowStart, LocalDateTime windowEnd) {
+            while (!pending.isEmpty() && pending.peek().getStartTime().isBefore(windowEnd)) {
+                LocalDateTime slotEnd = pending.poll().getEndTime();
+                if (maxEnd == null || slotEnd.isAfter(maxEnd)) {
+                    maxEnd = slotEnd;
+                }
+            }
+            return maxEnd != null && maxEnd.isAfter(windowStart);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.communityexchange.service.slot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The subset of an RFC 5545 {@code RRULE} that availabilities use: {@code FREQ} (DAILY, WEEKLY or MONTHLY),
+ * {@code INTERVAL}, {@code COUNT}, {@code UNTIL}, {@code BYDAY} (with ordinals such as {@code 1MO} or
+ * {@code -1FR} under MONTHLY), {@code BYMONTHDAY} and {@code BYMONTH}. Weeks start on Monday. The series
+ * starts at its first occurrence on or after the start date. Instances are immutable.
+ * <p>
+ * Occurrences are expanded lazily, one period (day, week or month) at a time, and only for the requested
+ * window. Without {@code COUNT} the expansion jumps straight to the first period that can reach the window;
+ * with it the series is counted from its start, which the count itself bounds.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    public static final int MAX_INTERVAL = 1000;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Set<String> PARTS = Set.of("FREQ", "INTERVAL", "COUNT", "UNTIL", "BYDAY", "BYMONTHDAY", "BYMONTH");
+
+    private final Frequency frequency;
+    private final int interval;
+    // Zero when the series is not counted
+    private final int count;
+    private final LocalDate until;
+    private final DayOfWeek[] byDay;
+    // Parallel to byDay; zero means every such weekday of the period
+    private final int[] byDayOrdinal;
+    private final int[] byMonthDay;
+    // Indexed by month value; null when every month is allowed
+    private final boolean[] byMonth;
+
+    private RecurrenceRule(Frequency frequency, int interval, int count, LocalDate until, DayOfWeek[] byDay,
+                           int[] byDayOrdinal, int[] byMonthDay, boolean[] byMonth) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+        this.byDayOrdinal = byDayOrdinal;
+        this.byMonthDay = byMonthDay;
+        this.byMonth = byMonth;
+    }
+
+    public static RecurrenceRule weekly() {
+        return new RecurrenceRule(Frequency.WEEKLY, 1, 0, null, new DayOfWeek[0], new int[0], new int[0], null);
+    }
+
+    /**
+     * Parses a rule such as {@code FREQ=MONTHLY;BYDAY=1MO}, with or without the {@code RRULE:} prefix.
+     *
+     * @throws IllegalArgumentException naming the first part that is malformed or not supported
+     */
+    public static RecurrenceRule parse(String rule) {
+        String body = rule.strip();
+        if (body.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            body = body.substring(6);
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        int count = 0;
+        LocalDate until = null;
+        List<DayOfWeek> byDay = new ArrayList<>();
+        List<Integer> byDayOrdinal = new ArrayList<>();
+        int[] byMonthDay = new int[0];
+        boolean[] byMonth = null;
+        Set<String> seen = new HashSet<>();
+        for (String part : body.split(";")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            int equals = part.indexOf('=');
+            String name = equals < 0 ? part : part.substring(0, equals).toUpperCase(Locale.ROOT);
+            if (!PARTS.contains(name)) {
+                throw new IllegalArgumentException("Unsupported recurrence rule part: " + part);
+            }
+            if (!seen.add(name)) {
+                throw new IllegalArgumentException("Recurrence rule part " + name + " is given more than once");
+            }
+            String value = part.substring(equals + 1).toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "FREQ" -> frequency = parseFrequency(value);
+                case "INTERVAL" -> interval = parseInt(name, value, 1, MAX_INTERVAL);
+                case "COUNT" -> count = parseInt(name, value, 1, Integer.MAX_VALUE);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> {
+                    for (String day : value.split(",")) {
+                        int split = day.length() - 2;
+                        byDay.add(parseWeekday(day.substring(Math.max(split, 0))));
+                        byDayOrdinal.add(split == 0 ? 0 : parseOrdinal(day.substring(0, Math.max(split, 0))));
+                    }
+                }
+                case "BYMONTHDAY" -> {
+                    byMonthDay = Arrays.stream(value.split(",")).mapToInt(day -> parseInt(name, day, -31, 31)).toArray();
+                    if (Arrays.stream(byMonthDay).anyMatch(day -> day == 0)) {
+                        throw new IllegalArgumentException("BYMONTHDAY must not be 0");
+                    }
+                }
+                default -> {
+                    byMonth = new boolean[13];
+                    for (String month : value.split(",")) {
+                        byMonth[parseInt(name, month, 1, 12)] = true;
+                    }
+                }
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs a FREQ");
+        }
+        if (count > 0 && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL must not be combined");
+        }
+        if (frequency != Frequency.MONTHLY && byDayOrdinal.stream().anyMatch(ordinal -> ordinal != 0)) {
+            throw new IllegalArgumentException("BYDAY ordinals are only supported with FREQ=MONTHLY");
+        }
+        if (frequency == Frequency.WEEKLY && byMonthDay.length > 0) {
+            throw new IllegalArgumentException("BYMONTHDAY must not be used with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, byDay.toArray(new DayOfWeek[0]),
+                byDayOrdinal.stream().mapToInt(Integer::intValue).toArray(), byMonthDay, byMonth);
+    }
+
+    /**
+     * Returns the occurrences in {@code [from, toExclusive)} in ascending order. {@code defaultDay} is the
+     * weekday of a WEEKLY rule without {@code BYDAY}; a MONTHLY rule without {@code BYDAY} or
+     * {@code BYMONTHDAY} repeats on the day of month of {@code seriesStart}.
+     */
+    public Iterator<LocalDate> occurrences(LocalDate seriesStart, DayOfWeek defaultDay, LocalDate from, LocalDate toExclusive) {
+        return new Expansion(seriesStart, defaultDay, from, toExclusive);
+    }
+
+    public boolean occursOn(LocalDate seriesStart, DayOfWeek defaultDay, LocalDate date) {
+        return occurrences(seriesStart, defaultDay, date, date.plusDays(1)).hasNext();
+    }
+
+    private final class Expansion implements Iterator<LocalDate> {
+
+        private final LocalDate seriesStart;
+        private final DayOfWeek defaultDay;
+        private final LocalDate from;
+        private final LocalDate end;
+        // Occurrences of the current period that are still to be returned
+        private final List<LocalDate> pending = new ArrayList<>();
+        private int position;
+        private long period;
+        private int counted;
+        private boolean exhausted;
+
+        Expansion(LocalDate seriesStart, DayOfWeek defaultDay, LocalDate from, LocalDate toExclusive) {
+            this.seriesStart = seriesStart;
+            this.defaultDay = defaultDay;
+            this.from = from.isBefore(seriesStart) ? seriesStart : from;
+            LocalDate afterUntil = until == null ? null : until.plusDays(1);
+            this.end = afterUntil != null && afterUntil.isBefore(toExclusive) ? afterUntil : toExclusive;
+            if (count == 0) {
+                // Periods are whole days, weeks or months, so none before this one can reach the window
+                period = Math.max(0, unitsBetween(this.from) / interval);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (position == pending.size() && !exhausted) {
+                pending.clear();
+                position = 0;
+                LocalDate periodStart = periodStart(period);
+                if (!periodStart.isBefore(end) || (count > 0 && counted >= count)) {
+                    exhausted = true;
+                    break;
+                }
+                collect(periodStart);
+                period++;
+            }
+            return position < pending.size();
+        }
+
+        @Override
+        public LocalDate next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.get(position++);
+        }
+
+        // Adds the occurrences of one period that fall inside the window, counting those before it
+        private void collect(LocalDate periodStart) {
+            for (LocalDate date : candidates(periodStart)) {
+                if (date.isBefore(seriesStart)) {
+                    continue;
+                }
+                if (count > 0 && ++counted > count) {
+                    exhausted = true;
+                    return;
+                }
+                if (!date.isBefore(end)) {
+                    exhausted = true;
+                    return;
+                }
+                if (!date.isBefore(from)) {
+                    pending.add(date);
+                }
+            }
+        }
+
+        private long unitsBetween(LocalDate date) {
+            return switch (frequency) {
+                case DAILY -> ChronoUnit.DAYS.between(seriesStart, date);
+                case WEEKLY -> ChronoUnit.WEEKS.between(weekStart(seriesStart), weekStart(date));
+                case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(seriesStart), YearMonth.from(date));
+            };
+        }
+
+        private LocalDate periodStart(long index) {
+            long units = index * interval;
+            return switch (frequency) {
+                case DAILY -> seriesStart.plusDays(units);
+                case WEEKLY -> weekStart(seriesStart).plusWeeks(units);
+                case MONTHLY -> seriesStart.withDayOfMonth(1).plusMonths(units);
+            };
+        }
+
+        // Candidate dates of the period starting on periodStart, in ascending order
+        private List<LocalDate> candidates(LocalDate periodStart) {
+            List<LocalDate> dates = new ArrayList<>();
+            switch (frequency) {
+                case DAILY -> {
+                    if (matchesDay(periodStart) && matchesMonthDay(periodStart)) {
+                        dates.add(periodStart);
+                    }
+                }
+                case WEEKLY -> {
+                    for (int offset = 0; offset < 7; offset++) {
+                        LocalDate date = periodStart.plusDays(offset);
+                        if (byDay.length == 0 ? date.getDayOfWeek() == defaultDay : matchesDay(date)) {
+                            dates.add(date);
+                        }
+                    }
+                }
+                case MONTHLY -> {
+                    int length = periodStart.lengthOfMonth();
+                    for (int day = 1; day <= length; day++) {
+                        LocalDate date = periodStart.withDayOfMonth(day);
+                        boolean matches = byDay.length == 0 && byMonthDay.length == 0
+                                ? day == seriesStart.getDayOfMonth()
+                                : matchesMonthlyDay(date) && matchesMonthDay(date);
+                        if (matches) {
+                            dates.add(date);
+                        }
+                    }
+                }
+            }
+            if (byMonth != null) {
+                dates.removeIf(date -> !byMonth[date.getMonthValue()]);
+            }
+            return dates;
+        }
+    }
+
+    private boolean matchesDay(LocalDate date) {
+        if (byDay.length == 0) {
+            return true;
+        }
+        for (DayOfWeek day : byDay) {
+            if (day == date.getDayOfWeek()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // BYDAY under MONTHLY, where an ordinal picks the nth (or nth last) such weekday of the month
+    private boolean matchesMonthlyDay(LocalDate date) {
+        if (byDay.length == 0) {
+            return true;
+        }
+        for (int i = 0; i < byDay.length; i++) {
+            if (byDay[i] != date.getDayOfWeek()) {
+                continue;
+            }
+            int ordinal = byDayOrdinal[i];
+            if (ordinal == 0
+                    || (ordinal > 0 && date.equals(date.with(TemporalAdjusters.dayOfWeekInMonth(ordinal, byDay[i]))))
+                    || (ordinal < 0 && (date.lengthOfMonth() - date.getDayOfMonth()) / 7 == -ordinal - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesMonthDay(LocalDate date) {
+        if (byMonthDay.length == 0) {
+            return true;
+        }
+        for (int day : byMonthDay) {
+            int resolved = day > 0 ? day : date.lengthOfMonth() + 1 + day;
+            if (resolved == date.getDayOfMonth()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static Frequency parseFrequency(String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported FREQ: " + value);
+        }
+    }
+
+    private static int parseInt(String name, String value, int min, int max) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException ex) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(name + " must be a number between " + min + " and " + max + ": " + value);
+    }
+
+    private static int parseOrdinal(String value) {
+        int ordinal = parseInt("BYDAY ordinal", value.startsWith("+") ? value.substring(1) : value, -5, 5);
+        if (ordinal == 0) {
+            throw new IllegalArgumentException("BYDAY ordinal must not be 0");
+        }
+        return ordinal;
+    }
+
+    private static DayOfWeek parseWeekday(String value) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(value) && value.length() == 2) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown BYDAY weekday: " + value);
+    }
+
+    // The time part of a date-time UNTIL is dropped, since the rule only decides dates
+    private static LocalDate parseUntil(String value) {
+        try {
+            return LocalDate.parse(value.length() > 8 && value.charAt(8) == 'T' ? value.substring(0, 8) : value, DATE);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("UNTIL must be a date such as 20301231: " + value);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.communityexchange.service.slot;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size distributions of available-slot generation: the range requested and slots returned per call,
+ * and the availabilities and busy slots fed into each week that actually had to be computed.
+ */
+@Component
+public class SlotGenerationMetrics {
+
+    private final DistributionSummary requestedDays;
+    private final DistributionSummary returnedSlots;
+    private final DistributionSummary availabilities;
+    private final DistributionSummary busySlots;
+
+    public SlotGenerationMetrics(MeterRegistry meterRegistry) {
+        this.requestedDays = summary(meterRegistry, "calendar.slots.requested.days", "days");
+        this.returnedSlots = summary(meterRegistry, "calendar.slots.returned", "slots");
+        this.availabilities = summary(meterRegistry, "calendar.slots.generation.availabilities", "availabilities");
+        this.busySlots = summary(meterRegistry, "calendar.slots.generation.busy", "slots");
+    }
+
+    public void recordRequest(long days, int slots) {
+        requestedDays.record(days);
+        returnedSlots.record(slots);
+    }
+
+    public void recordGeneration(int availabilityCount, int busySlotCount) {
+        availabilities.record(availabilityCount);
+        busySlots.record(busySlotCount);
+    }
+
+    private static DistributionSummary summary(MeterRegistry meterRegistry, String name, String baseUnit) {
+        return DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
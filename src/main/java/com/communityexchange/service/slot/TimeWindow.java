@@ -0,0 +1,9 @@
+package com.communityexchange.service.slot;
+
+import java.time.LocalDateTime;
+
+/**
+ * A half-open interval {@code [start, end)} of local date-time.
+ */
+public record TimeWindow(LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,80 @@
+package com.communityexchange.service.slot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, expiring per-user cache behind the availability registries. Entries are only ever dropped on
+ * invalidation and rebuilt lazily by the next reader, so writers never load anything themselves. Writers
+ * only invalidate on their own instance, so entries expire a fixed time after they were loaded, however
+ * often they are read; that bounds how long another instance serves a copy from before a write.
+ * <p>
+ * A reader takes a {@link #stamp()} before loading and may only install its result if the user has not
+ * been invalidated since. Invalidations are stamped from one clock and kept as empty entries, and the
+ * highest stamp of any entry the cache drops on its own is remembered, so an eviction between a load and
+ * its install cannot let a stale copy in.
+ */
+final class UserIndexCache<V> {
+
+    private final Cache<UUID, Entry<V>> entries;
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong droppedStamp = new AtomicLong();
+
+    UserIndexCache(MeterRegistry meterRegistry, String name, long maximumSize, Duration expireAfterWrite) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .<UUID, Entry<V>>evictionListener((userId, entry, cause) -> {
+                    if (entry != null) {
+                        droppedStamp.accumulateAndGet(entry.stamp(), Math::max);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, name);
+    }
+
+    V get(UUID userId, Function<UUID, V> loader) {
+        V cached = getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = stamp();
+        return install(userId, stamp, loader.apply(userId));
+    }
+
+    V getIfPresent(UUID userId) {
+        Entry<V> entry = entries.getIfPresent(userId);
+        return entry == null ? null : entry.value();
+    }
+
+    // Taken before loading, to be passed to install
+    long stamp() {
+        return clock.get();
+    }
+
+    // Caches the value unless the user was invalidated after the stamp was taken; returns it either way
+    V install(UUID userId, long stamp, V value) {
+        entries.asMap().compute(userId, (id, current) -> {
+            long invalidated = current == null ? droppedStamp.get() : current.stamp();
+            return invalidated > stamp ? current : new Entry<>(invalidated, value);
+        });
+        return value;
+    }
+
+    void invalidate(UUID userId) {
+        entries.put(userId, new Entry<>(clock.incrementAndGet(), null));
+    }
+
+    // value is null between an invalidation and the next load
+    private record Entry<V>(long stamp, V value) {
+    }
+}
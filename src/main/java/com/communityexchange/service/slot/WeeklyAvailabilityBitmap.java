@@ -0,0 +1,167 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.entity.Availability;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Minute-resolution bitmap of a weekly availability template: bit {@code n} is set when minute
+ * {@code n} of the week (Monday 00:00 = 0) is covered by at least one active plain weekly availability.
+ * Availabilities with a recurrence rule or start date cannot be folded into a single week; they are kept
+ * beside the bitmap and only expanded for the date a lookup asks about, as are the
+ * {@link AvailabilityOverrides} a lookup is given: blackouts clear every minute they touch and extra
+ * windows then set the whole minutes they cover.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class WeeklyAvailabilityBitmap {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final BitSet minutes;
+    private final List<DatedWindow> datedWindows;
+
+    private WeeklyAvailabilityBitmap(BitSet minutes, List<DatedWindow> datedWindows) {
+        this.minutes = minutes;
+        this.datedWindows = datedWindows;
+    }
+
+    public static WeeklyAvailabilityBitmap of(List<Availability> availabilities) {
+        BitSet minutes = new BitSet(MINUTES_PER_WEEK);
+        List<DatedWindow> datedWindows = new ArrayList<>();
+        for (Availability availability : availabilities) {
+            if (!availability.isActive()) {
+                continue;
+            }
+            // Only whole minutes inside the window count; windows that end before they start are ignored
+            int from = ceilMinute(availability.getStartTime());
+            int to = floorMinute(availability.getEndTime());
+            if (from >= to) {
+                continue;
+            }
+            if (AvailabilityRecurrence.isPlainWeekly(availability)) {
+                int dayOffset = dayOffset(availability.getDayOfWeek());
+                minutes.set(dayOffset + from, dayOffset + to);
+            } else {
+                datedWindows.add(new DatedWindow(AvailabilityRecurrence.of(availability), from, to));
+            }
+        }
+        return new WeeklyAvailabilityBitmap(minutes, List.copyOf(datedWindows));
+    }
+
+    public boolean isAvailableAt(LocalDateTime time) {
+        return isAvailableAt(time, AvailabilityOverrides.NONE);
+    }
+
+    public boolean isAvailableAt(LocalDateTime time, AvailabilityOverrides overrides) {
+        AvailabilityOverrides.DayOverride override = overrides.on(time.toLocalDate());
+        if (override != null) {
+            int minute = time.toLocalTime().toSecondOfDay() / 60;
+            for (AvailabilityOverrides.Window extra : override.extras()) {
+                if (minute >= ceilMinute(extra.start()) && minute < floorMinute(extra.end())) {
+                    return true;
+                }
+            }
+            if (override.blackedOut()) {
+                return false;
+            }
+            for (AvailabilityOverrides.Window blackout : override.blackouts()) {
+                if (minute >= floorMinute(blackout.start()) && minute < ceilMinute(blackout.end())) {
+                    return false;
+                }
+            }
+        }
+        if (minutes.get(minuteOfWeek(time))) {
+            return true;
+        }
+        int minuteOfDay = time.toLocalTime().toSecondOfDay() / 60;
+        for (DatedWindow window : datedWindows) {
+            if (minuteOfDay >= window.from() && minuteOfDay < window.to() && window.recurrence().occursOn(time.toLocalDate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return minutes.isEmpty() && datedWindows.isEmpty();
+    }
+
+    /**
+     * Expands the template for one date into maximal free windows. Overlapping or adjacent
+     * availabilities are merged; a window that runs until midnight ends at the start of the next day.
+     */
+    public List<TimeWindow> windowsOn(LocalDate date) {
+        return windowsOn(date, AvailabilityOverrides.NONE);
+    }
+
+    public List<TimeWindow> windowsOn(LocalDate date, AvailabilityOverrides overrides) {
+        List<TimeWindow> windows = new ArrayList<>();
+        BitSet minutes = this.minutes;
+        int dayOffset = dayOffset(date.getDayOfWeek());
+        int dayEnd = dayOffset + MINUTES_PER_DAY;
+        for (DatedWindow window : datedWindows) {
+            if (window.recurrence().occursOn(date)) {
+                if (minutes == this.minutes) {
+                    minutes = (BitSet) this.minutes.clone();
+                }
+                minutes.set(dayOffset + window.from(), dayOffset + window.to());
+            }
+        }
+        AvailabilityOverrides.DayOverride override = overrides.on(date);
+        if (override != null) {
+            if (minutes == this.minutes) {
+                minutes = (BitSet) this.minutes.clone();
+            }
+            if (override.blackedOut()) {
+                minutes.clear(dayOffset, dayEnd);
+            }
+            for (AvailabilityOverrides.Window blackout : override.blackouts()) {
+                minutes.clear(dayOffset + floorMinute(blackout.start()), dayOffset + ceilMinute(blackout.end()));
+            }
+            for (AvailabilityOverrides.Window extra : override.extras()) {
+                int from = ceilMinute(extra.start());
+                int to = floorMinute(extra.end());
+                if (from < to) {
+                    minutes.set(dayOffset + from, dayOffset + to);
+                }
+            }
+        }
+
+        int from = minutes.nextSetBit(dayOffset);
+        while (from >= 0 && from < dayEnd) {
+            int to = Math.min(minutes.nextClearBit(from), dayEnd);
+            windows.add(new TimeWindow(
+                    date.atStartOfDay().plusMinutes(from - dayOffset),
+                    date.atStartOfDay().plusMinutes(to - dayOffset)));
+            from = minutes.nextSetBit(to);
+        }
+        return windows;
+    }
+
+    private static int minuteOfWeek(LocalDateTime time) {
+        return dayOffset(time.getDayOfWeek()) + time.toLocalTime().toSecondOfDay() / 60;
+    }
+
+    private static int dayOffset(DayOfWeek dayOfWeek) {
+        return dayOfWeek.ordinal() * MINUTES_PER_DAY;
+    }
+
+    private static int floorMinute(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private static int ceilMinute(LocalTime time) {
+        int minute = time.toSecondOfDay() / 60;
+        return time.equals(LocalTime.of(minute / 60, minute % 60)) ? minute : minute + 1;
+    }
+
+    private record DatedWindow(AvailabilityRecurrence recurrence, int from, int to) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.repository.AvailabilityRepository;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Holds the precomputed {@link WeeklyAvailabilityBitmap} of recently queried calendars, keyed by user ID.
+ * <p>
+ * Writers call {@link #evictAfterCommit(UUID)}, which only drops the bitmap; the next reader rebuilds it,
+ * so a write never holds a second connection to reload it. See {@link UserIndexCache} for how a reader
+ * that loaded the template before the commit is kept from installing its stale copy.
+ */
+@Component
+public class WeeklyAvailabilityRegistry {
+
+    public static final String CACHE_NAME = "weeklyAvailabilities";
+
+    private final CalendarIdentityCache calendarIdentityCache;
+    private final AvailabilityRepository availabilityRepository;
+    private final UserIndexCache<WeeklyAvailabilityBitmap> bitmaps;
+
+    public WeeklyAvailabilityRegistry(
+            CalendarIdentityCache calendarIdentityCache,
+            AvailabilityRepository availabilityRepository,
+            MeterRegistry meterRegistry,
+            @Value("${calendar.availability-registry.maximum-size:10000}") long maximumSize,
+            @Value("${calendar.availability-registry.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.calendarIdentityCache = calendarIdentityCache;
+        this.availabilityRepository = availabilityRepository;
+        this.bitmaps = new UserIndexCache<>(meterRegistry, CACHE_NAME, maximumSize, expireAfterWrite);
+    }
+
+    public WeeklyAvailabilityBitmap get(UUID userId) {
+        return bitmaps.get(userId, this::load);
+    }
+
+    public void evictAfterCommit(UUID userId) {
+        TransactionCallbacks.afterCommit(() -> bitmaps.invalidate(userId));
+    }
+
+    private WeeklyAvailabilityBitmap load(UUID userId) {
+        UUID calendarId = calendarIdentityCache.requireCalendarIdOf(userId);
+        return WeeklyAvailabilityBitmap.of(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(calendarId));
+    }
+}
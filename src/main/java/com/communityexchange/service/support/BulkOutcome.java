@@ -0,0 +1,67 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.model.dto.BulkItemResultDto;
+import com.communityexchange.model.dto.BulkResultDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the per-item outcome of a bulk request. Items are rejected with a message as soon as a
+ * check fails; whatever is left at the end was created.
+ */
+public final class BulkOutcome<T> {
+
+    private final String[] errors;
+    private final List<T> created;
+
+    public BulkOutcome(int size) {
+        this.errors = new String[size];
+        this.created = new ArrayList<>(Collections.nCopies(size, null));
+    }
+
+    public static <T> BulkOutcome<T> validated(Validator validator, List<?> items) {
+        BulkOutcome<T> outcome = new BulkOutcome<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == null) {
+                outcome.reject(i, "Item is required");
+                continue;
+            }
+            String violations = validator.validate(items.get(i)).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                outcome.reject(i, violations);
+            }
+        }
+        return outcome;
+    }
+
+    public void reject(int index, String error) {
+        errors[index] = error;
+    }
+
+    public boolean isRejected(int index) {
+        return errors[index] != null;
+    }
+
+    public void created(int index, T item) {
+        created.set(index, item);
+    }
+
+    public BulkResultDto<T> toDto() {
+        List<BulkItemResultDto<T>> results = new ArrayList<>(errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            results.add(new BulkItemResultDto<>(i, created.get(i), errors[i]));
+        }
+        int rejected = (int) Arrays.stream(errors).filter(Objects::nonNull).count();
+        return new BulkResultDto<>(errors.length - rejected, rejected, results);
+    }
+}
@@ -0,0 +1,96 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.exception.SubscriberLimitExceededException;
+import com.communityexchange.model.dto.CalendarChangeDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed calendar changes out to change-feed subscribers. Each subscriber has its own bounded
+ * buffer and publishing only offers to those buffers, so a writer never waits for a reader. A subscriber
+ * whose buffer is full has fallen behind: its stream is completed after the buffered events, rather than
+ * silently skipping changes, and it has to reconnect and catch up by reading the current state.
+ * <p>
+ * At most {@code max-subscribers} streams are open at a time. The feed is local to this instance.
+ */
+@Component
+@Slf4j
+public class CalendarChangeBroadcaster {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Reserved before a subscriber is added, so concurrent subscribes cannot overshoot the limit
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final Counter evictions;
+    private long sequence;
+
+    public CalendarChangeBroadcaster(
+            MeterRegistry meterRegistry,
+            @Value("${calendar.changes.max-subscribers:256}") int maxSubscribers,
+            @Value("${calendar.changes.buffer-size:1024}") int bufferSize) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.evictions = meterRegistry.counter("calendar.changes.evicted.subscribers");
+        Gauge.builder("calendar.changes.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    public void publishAfterCommit(CalendarChangeDto.Type type, UUID userId, UUID resourceId, Long version) {
+        TransactionCallbacks.afterCommit(() -> publish(new CalendarChangeDto(0, type, userId, resourceId, version)));
+    }
+
+    // Serialised so that every subscriber sees changes in sequence order
+    synchronized void publish(CalendarChangeDto change) {
+        change.setSequence(++sequence);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.userIds.isEmpty() || subscriber.userIds.contains(change.getUserId())) {
+                if (subscriber.sink.tryEmitNext(change).isFailure()) {
+                    evict(subscriber);
+                }
+            }
+        }
+    }
+
+    // An empty set of user IDs subscribes to every user's changes
+    public Flux<CalendarChangeDto> subscribe(Set<UUID> userIds) {
+        if (openStreams.incrementAndGet() > maxSubscribers) {
+            openStreams.decrementAndGet();
+            throw new SubscriberLimitExceededException("Too many change feed subscribers, please retry later");
+        }
+        Sinks.Many<CalendarChangeDto> sink = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize));
+        Subscriber subscriber = new Subscriber(Set.copyOf(userIds), sink);
+        subscribers.add(subscriber);
+        return sink.asFlux().doFinally(signal -> remove(subscriber));
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        openStreams.decrementAndGet();
+        return true;
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            evictions.increment();
+            log.warn("Disconnecting a change feed subscriber that fell {} events behind", bufferSize);
+            subscriber.sink.tryEmitComplete();
+        }
+    }
+
+    private record Subscriber(Set<UUID> userIds, Sinks.Many<CalendarChangeDto> sink) {
+    }
+}
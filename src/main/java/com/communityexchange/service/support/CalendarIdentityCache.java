@@ -0,0 +1,114 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.repository.UserCalendarRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Caches the userId ↔ calendarId pairing of every calendar, which never changes once created, so that
+ * service paths can go straight to queries keyed by calendar ID.
+ * <p>
+ * A pairing is only evicted on the instance that deleted the calendar, so other instances keep it for at
+ * most {@code positive-ttl}; nothing that must not see a deleted calendar, such as calendar creation,
+ * relies on this cache. Lookups for unknown IDs are cached too, but only for {@code negative-ttl}, and are
+ * replaced as soon as a calendar is registered. Loads go through Caffeine's per-key compute, so an eviction issued after a
+ * delete commits always wins over a lookup that was still reading the old row. Inside a read-write
+ * transaction misses go to the database without being cached, since that transaction may be looking at
+ * its own uncommitted calendar.
+ */
+@Component
+public class CalendarIdentityCache {
+
+    private final UserCalendarRepository userCalendarRepository;
+    private final Cache<UUID, Optional<UUID>> calendarIdsByUserId;
+    private final Cache<UUID, Optional<UUID>> userIdsByCalendarId;
+
+    public CalendarIdentityCache(
+            UserCalendarRepository userCalendarRepository,
+            MeterRegistry meterRegistry,
+            @Value("${calendar.identity-cache.maximum-size:100000}") long maximumSize,
+            @Value("${calendar.identity-cache.positive-ttl:PT10M}") Duration positiveTtl,
+            @Value("${calendar.identity-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.userCalendarRepository = userCalendarRepository;
+        this.calendarIdsByUserId = build(maximumSize, positiveTtl, negativeTtl);
+        this.userIdsByCalendarId = build(maximumSize, positiveTtl, negativeTtl);
+        CaffeineCacheMetrics.monitor(meterRegistry, calendarIdsByUserId, "calendarIdsByUserId");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByCalendarId, "userIdsByCalendarId");
+    }
+
+    public Optional<UUID> calendarIdOf(UUID userId) {
+        return lookup(calendarIdsByUserId, userId, userCalendarRepository::findIdByUserId);
+    }
+
+    public UUID requireCalendarIdOf(UUID userId) {
+        return calendarIdOf(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User calendar not found for user ID: " + userId));
+    }
+
+    public UUID requireUserIdOf(UUID calendarId) {
+        return lookup(userIdsByCalendarId, calendarId, userCalendarRepository::findUserIdById)
+                .orElseThrow(() -> new ResourceNotFoundException("User calendar not found with id: " + calendarId));
+    }
+
+    public void registerAfterCommit(UUID userId, UUID calendarId) {
+        TransactionCallbacks.afterCommit(() -> {
+            calendarIdsByUserId.put(userId, Optional.of(calendarId));
+            userIdsByCalendarId.put(calendarId, Optional.of(userId));
+        });
+    }
+
+    public void evictAfterCommit(UUID userId, UUID calendarId) {
+        TransactionCallbacks.afterCommit(() -> {
+            calendarIdsByUserId.invalidate(userId);
+            userIdsByCalendarId.invalidate(calendarId);
+        });
+    }
+
+    private static Optional<UUID> lookup(Cache<UUID, Optional<UUID>> cache, UUID key,
+                                         Function<UUID, Optional<UUID>> loader) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return cache.get(key, loader);
+        }
+
+        Optional<UUID> cached = cache.getIfPresent(key);
+        return cached != null && cached.isPresent() ? cached : loader.apply(key);
+    }
+
+    private static Cache<UUID, Optional<UUID>> build(long maximumSize, Duration positiveTtl, Duration negativeTtl) {
+        long positiveTtlNanos = positiveTtl.toNanos();
+        long negativeTtlNanos = negativeTtl.toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<UUID, Optional<UUID>>() {
+                    @Override
+                    public long expireAfterCreate(UUID key, Optional<UUID> value, long currentTime) {
+                        return value.isPresent() ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID key, Optional<UUID> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID key, Optional<UUID> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+}
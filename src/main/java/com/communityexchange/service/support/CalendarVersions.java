@@ -0,0 +1,101 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.model.entity.CalendarTombstone;
+import com.communityexchange.model.projection.UserChangeVersion;
+import com.communityexchange.repository.CalendarTombstoneRepository;
+import com.communityexchange.repository.UserCalendarRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bumps the version stamp of the calendars whose availabilities or scheduled slots a write changes.
+ * The bump is an update of the calendar row inside the writing transaction, so it commits or rolls
+ * back together with the change it stands for. Users without a calendar are skipped.
+ * <p>
+ * The new version is also the change sequence of the rows the write touches. The row lock taken by
+ * the bump is held until commit, so a user's writes commit in sequence order and a sync that has seen
+ * sequence {@code n} only needs the rows above it. Deletions leave a tombstone carrying their sequence,
+ * kept for {@code tombstone-retention}.
+ */
+@Component
+@Slf4j
+public class CalendarVersions {
+
+    private final UserCalendarRepository userCalendarRepository;
+    private final CalendarTombstoneRepository calendarTombstoneRepository;
+    private final Duration tombstoneRetention;
+
+    public CalendarVersions(
+            UserCalendarRepository userCalendarRepository,
+            CalendarTombstoneRepository calendarTombstoneRepository,
+            @Value("${calendar.sync.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.userCalendarRepository = userCalendarRepository;
+        this.calendarTombstoneRepository = calendarTombstoneRepository;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    // Returns the change sequence for the write, or 0 when the user has no calendar
+    public long touch(UUID userId) {
+        return touch(List.of(userId)).getOrDefault(userId, 0L);
+    }
+
+    public Map<UUID, Long> touch(Collection<UUID> userIds) {
+        if (userIds.isEmpty() || userCalendarRepository.incrementChangeVersion(userIds, LocalDateTime.now()) == 0) {
+            return Map.of();
+        }
+        return userCalendarRepository.findChangeVersionsByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserChangeVersion::userId, UserChangeVersion::changeVersion));
+    }
+
+    public void recordDeletion(UUID userId, CalendarTombstone.ResourceType resourceType, UUID resourceId) {
+        recordDeletions(userId, resourceType, List.of(resourceId));
+    }
+
+    // One bump covers the whole batch, so its tombstones share a change sequence
+    public void recordDeletions(UUID userId, CalendarTombstone.ResourceType resourceType, Collection<UUID> resourceIds) {
+        if (resourceIds.isEmpty()) {
+            return;
+        }
+        long changeSequence = touch(userId);
+        if (changeSequence == 0) {
+            return;
+        }
+
+        LocalDateTime deletedAt = LocalDateTime.now();
+        calendarTombstoneRepository.saveAll(resourceIds.stream()
+                .map(resourceId -> {
+                    CalendarTombstone tombstone = new CalendarTombstone();
+                    tombstone.setUserId(userId);
+                    tombstone.setResourceType(resourceType);
+                    tombstone.setResourceId(resourceId);
+                    tombstone.setChangeSequence(changeSequence);
+                    tombstone.setDeletedAt(deletedAt);
+                    return tombstone;
+                })
+                .collect(Collectors.toList()));
+    }
+
+    // A sync token issued before this time may have missed deletions whose tombstones are gone
+    public LocalDateTime oldestSyncableTime() {
+        return LocalDateTime.now().minus(tombstoneRetention);
+    }
+
+    @Scheduled(fixedDelayString = "${calendar.sync.tombstone-purge-interval:PT1H}",
+            initialDelayString = "${calendar.sync.tombstone-purge-interval:PT1H}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = calendarTombstoneRepository.deleteDeletedBefore(oldestSyncableTime());
+        log.info("Purged {} calendar tombstones older than {}", purged, tombstoneRetention);
+    }
+}
@@ -0,0 +1,37 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.exception.InvalidPageTokenException;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a keyset page over scheduled slots ordered by (start time, id): the next page starts
+ * strictly after this key. Clients only see it as an opaque URL-safe token.
+ */
+public record SlotCursor(LocalDateTime startTime, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static SlotCursor after(ScheduledSlotSummary slot) {
+        return new SlotCursor(slot.startTime(), slot.id());
+    }
+
+    public String encode() {
+        String key = startTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SlotCursor decode(String token) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            return new SlotCursor(LocalDateTime.parse(key.substring(0, separator)), UUID.fromString(key.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidPageTokenException("Invalid page token: " + token, ex);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.exception.InvalidPageTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Point a client has synced a calendar up to: the calendar's change version when the sync was read,
+ * and when. The calendar ID ties it to one incarnation of the calendar. Clients only see it as an
+ * opaque URL-safe token.
+ */
+public record SyncToken(UUID calendarId, long changeSequence, LocalDateTime issuedAt) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String key = calendarId + SEPARATOR + changeSequence + SEPARATOR + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            return new SyncToken(UUID.fromString(parts[0]), Long.parseLong(parts[1]), LocalDateTime.parse(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new InvalidPageTokenException("Invalid sync token: " + token, ex);
+        }
+    }
+}
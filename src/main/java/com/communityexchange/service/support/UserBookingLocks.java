@@ -0,0 +1,60 @@
+package com.communityexchange.service.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialises bookings of the same user without serialising the service: each user hashes to one of a
+ * fixed number of lock stripes, and unrelated users only contend when they share a stripe.
+ * <p>
+ * A stripe is held until the surrounding transaction completes, so that the next booking's overlap
+ * check already sees the committed slot. The locks are local to this instance; across instances bookings
+ * are serialised by the calendar row lock that {@link CalendarVersions#touch} takes, which the stripes
+ * only spare the database from contending on. A user without a calendar has no row to lock.
+ */
+@Component
+public class UserBookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public UserBookingLocks(@Value("${calendar.booking.lock-stripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(UUID userId) {
+        lockUntilCompletion(List.of(userId));
+    }
+
+    // Stripes are always taken in ascending order, so two bulk bookings cannot deadlock each other
+    public void lockUntilCompletion(Collection<UUID> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Booking locks must be taken inside a transaction");
+        }
+
+        int[] indexes = userIds.stream()
+                .mapToInt(userId -> Math.floorMod(userId.hashCode(), stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int index : indexes) {
+            ReentrantLock lock = stripes[index];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+}
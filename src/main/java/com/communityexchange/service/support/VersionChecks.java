@@ -0,0 +1,41 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.exception.PreconditionFailedException;
+import com.communityexchange.model.entity.BaseEntity;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.function.Supplier;
+
+/**
+ * Optimistic concurrency for read-modify-write updates. The version a client read is compared up front,
+ * and the flush repeats the comparison in the UPDATE's WHERE clause, which also catches a writer that
+ * committed in between. Either way a stale write fails fast instead of overwriting the other one.
+ */
+public final class VersionChecks {
+
+    private VersionChecks() {
+    }
+
+    public static void requireVersion(BaseEntity entity, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != entity.getVersion()) {
+            throw stale(entity, expectedVersion);
+        }
+    }
+
+    // Without an expected version the failure is left to propagate, and is answered with a conflict
+    public static <T extends BaseEntity> T flush(T entity, Long expectedVersion, Supplier<T> saveAndFlush) {
+        try {
+            return saveAndFlush.get();
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion == null) {
+                throw e;
+            }
+            throw stale(entity, expectedVersion);
+        }
+    }
+
+    private static PreconditionFailedException stale(BaseEntity entity, long expectedVersion) {
+        return new PreconditionFailedException(
+                "Resource " + entity.getId() + " is no longer at version " + expectedVersion);
+    }
+}
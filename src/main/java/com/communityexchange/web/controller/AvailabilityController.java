@@ -1,11 +1,17 @@
 package com.communityexchange.web.controller;
 
 import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.BulkResultDto;
 import com.communityexchange.service.AvailabilityService;
+import com.communityexchange.web.support.EntityTags;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.DayOfWeek;
@@ -13,10 +19,13 @@ import java.util.List;
 import java.util.UUID;
 
 @RestController
+@Validated
 @RequestMapping("/availabilities")
 @RequiredArgsConstructor
 public class AvailabilityController {
     
+    private static final int MAX_BULK_ITEMS = 500;
+    
     private final AvailabilityService availabilityService;
     
     @PostMapping
@@ -25,10 +34,17 @@ public class AvailabilityController {
         return new ResponseEntity<>(createdAvailability, HttpStatus.CREATED);
     }
     
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDto<AvailabilityDto>> createAvailabilities(
+            @RequestBody @NotEmpty @Size(max = MAX_BULK_ITEMS) List<AvailabilityDto> availabilityDtos) {
+        BulkResultDto<AvailabilityDto> result = availabilityService.createAvailabilities(availabilityDtos);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<AvailabilityDto> getAvailabilityById(@PathVariable UUID id) {
         AvailabilityDto availability = availabilityService.getAvailabilityById(id);
-        return ResponseEntity.ok(availability);
+        return EntityTags.ok(availability, availability.getVersion());
     }
     
     @GetMapping("/user-calendar/{userCalendarId}")
@@ -48,9 +64,11 @@ public class AvailabilityController {
     @PutMapping("/{id}")
     public ResponseEntity<AvailabilityDto> updateAvailability(
             @PathVariable UUID id,
-            @Valid @RequestBody AvailabilityDto availabilityDto) {
-        AvailabilityDto updatedAvailability = availabilityService.updateAvailability(id, availabilityDto);
-        return ResponseEntity.ok(updatedAvailability);
+            @Valid @RequestBody AvailabilityDto availabilityDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AvailabilityDto updatedAvailability = availabilityService.updateAvailability(
+                id, availabilityDto, EntityTags.expectedVersion(ifMatch));
+        return EntityTags.ok(updatedAvailability, updatedAvailability.getVersion());
     }
     
     @DeleteMapping("/{id}")
@@ -0,0 +1,52 @@
+package com.communityexchange.web.controller;
+
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.service.AvailabilityOverrideService;
+import com.communityexchange.web.support.EntityTags;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/availability-overrides")
+@RequiredArgsConstructor
+public class AvailabilityOverrideController {
+    
+    private final AvailabilityOverrideService availabilityOverrideService;
+    
+    @PostMapping
+    public ResponseEntity<AvailabilityOverrideDto> createAvailabilityOverride(
+            @Valid @RequestBody AvailabilityOverrideDto availabilityOverrideDto) {
+        AvailabilityOverrideDto createdOverride = availabilityOverrideService.createAvailabilityOverride(availabilityOverrideDto);
+        return new ResponseEntity<>(createdOverride, HttpStatus.CREATED);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<AvailabilityOverrideDto> getAvailabilityOverrideById(@PathVariable UUID id) {
+        AvailabilityOverrideDto availabilityOverride = availabilityOverrideService.getAvailabilityOverrideById(id);
+        return EntityTags.ok(availabilityOverride, availabilityOverride.getVersion());
+    }
+    
+    @GetMapping("/user-calendar/{userCalendarId}")
+    public ResponseEntity<List<AvailabilityOverrideDto>> getAvailabilityOverridesByUserCalendar(
+            @PathVariable UUID userCalendarId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<AvailabilityOverrideDto> overrides =
+                availabilityOverrideService.getAvailabilityOverridesByUserCalendar(userCalendarId, from, to);
+        return ResponseEntity.ok(overrides);
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAvailabilityOverride(@PathVariable UUID id) {
+        availabilityOverrideService.deleteAvailabilityOverride(id);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
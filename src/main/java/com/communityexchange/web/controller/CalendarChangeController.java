@@ -0,0 +1,38 @@
+package com.communityexchange.web.controller;
+
+import com.communityexchange.model.dto.CalendarChangeDto;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/calendars/changes")
+@RequiredArgsConstructor
+public class CalendarChangeController {
+    
+    // Keeps idle connections from being dropped by proxies between changes
+    static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    
+    private final CalendarChangeBroadcaster calendarChangeBroadcaster;
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CalendarChangeDto>> streamChanges(
+            @RequestParam(required = false, defaultValue = "") Set<UUID> userIds) {
+        Flux<ServerSentEvent<CalendarChangeDto>> changes = calendarChangeBroadcaster.subscribe(userIds)
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(String.valueOf(change.getSequence()))
+                        .event(change.getType().name())
+                        .build());
+        Flux<ServerSentEvent<CalendarChangeDto>> heartbeats = Flux.interval(HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<CalendarChangeDto>builder().comment("heartbeat").build());
+        // Heartbeats stop with the changes, so an evicted subscriber's stream really ends
+        return changes.publish(shared -> Flux.merge(shared, heartbeats.takeUntilOther(shared.then())));
+    }
+}
\ No newline at end of file
@@ -1,24 +1,48 @@
 package com.communityexchange.web.controller;
 
+import com.communityexchange.model.dto.BulkResultDto;
+import com.communityexchange.model.dto.CursorPageDto;
 import com.communityexchange.model.dto.ScheduledSlotDto;
 import com.communityexchange.service.ScheduledSlotService;
+import com.communityexchange.service.SlotQueryService;
+import com.communityexchange.web.support.EntityTags;
+import com.communityexchange.web.support.NdjsonResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @RestController
+@Validated
 @RequestMapping("/scheduled-slots")
 @RequiredArgsConstructor
 public class ScheduledSlotController {
     
+    private static final int MAX_BULK_ITEMS = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+    static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+    
     private final ScheduledSlotService scheduledSlotService;
+    private final SlotQueryService slotQueryService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     public ResponseEntity<ScheduledSlotDto> createScheduledSlot(@Valid @RequestBody ScheduledSlotDto scheduledSlotDto) {
@@ -26,10 +50,17 @@ public class ScheduledSlotController {
         return new ResponseEntity<>(createdSlot, HttpStatus.CREATED);
     }
     
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDto<ScheduledSlotDto>> createScheduledSlots(
+            @RequestBody @NotEmpty @Size(max = MAX_BULK_ITEMS) List<ScheduledSlotDto> scheduledSlotDtos) {
+        BulkResultDto<ScheduledSlotDto> result = scheduledSlotService.createScheduledSlots(scheduledSlotDtos);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ScheduledSlotDto> getScheduledSlotById(@PathVariable UUID id) {
         ScheduledSlotDto scheduledSlot = scheduledSlotService.getScheduledSlotById(id);
-        return ResponseEntity.ok(scheduledSlot);
+        return EntityTags.ok(scheduledSlot, scheduledSlot.getVersion());
     }
     
     @GetMapping("/exchange/{exchangeId}")
@@ -39,32 +70,63 @@ public class ScheduledSlotController {
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ScheduledSlotDto>> getScheduledSlotsByUserId(@PathVariable UUID userId) {
-        List<ScheduledSlotDto> scheduledSlots = scheduledSlotService.getScheduledSlotsByUserId(userId);
-        return ResponseEntity.ok(scheduledSlots);
+    public ResponseEntity<List<ScheduledSlotDto>> getScheduledSlotsByUserId(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        CursorPageDto<ScheduledSlotDto> page = scheduledSlotService.getScheduledSlotsByUserId(userId, pageToken, limit);
+        return toResponse(page);
     }
     
     @GetMapping("/user/{userId}/date-range")
     public ResponseEntity<List<ScheduledSlotDto>> getScheduledSlotsByUserIdAndDateRange(
+            @PathVariable UUID userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        CursorPageDto<ScheduledSlotDto> page = scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(
+                userId, start, end, pageToken, limit);
+        return toResponse(page);
+    }
+    
+    @GetMapping(value = "/user/{userId}/date-range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ScheduledSlotDto> streamScheduledSlotsByUserIdAndDateRange(
             @PathVariable UUID userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        List<ScheduledSlotDto> scheduledSlots = scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(userId, start, end);
-        return ResponseEntity.ok(scheduledSlots);
+        return slotQueryService.streamScheduledSlots(userId, start, end);
+    }
+    
+    // Written synchronously rather than as an async body, so a long export is not cut off by the async request timeout
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportScheduledSlots(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+        scheduledSlotService.exportScheduledSlots(start, end,
+                NdjsonResponses.lineWriter(objectMapper, ScheduledSlotDto.class, outputStream));
+        outputStream.flush();
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<ScheduledSlotDto> updateScheduledSlot(
             @PathVariable UUID id,
-            @Valid @RequestBody ScheduledSlotDto scheduledSlotDto) {
-        ScheduledSlotDto updatedSlot = scheduledSlotService.updateScheduledSlot(id, scheduledSlotDto);
-        return ResponseEntity.ok(updatedSlot);
+            @Valid @RequestBody ScheduledSlotDto scheduledSlotDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ScheduledSlotDto updatedSlot = scheduledSlotService.updateScheduledSlot(
+                id, scheduledSlotDto, EntityTags.expectedVersion(ifMatch));
+        return EntityTags.ok(updatedSlot, updatedSlot.getVersion());
     }
     
     @PutMapping("/{id}/confirm")
-    public ResponseEntity<ScheduledSlotDto> confirmScheduledSlot(@PathVariable UUID id) {
-        ScheduledSlotDto confirmedSlot = scheduledSlotService.confirmScheduledSlot(id);
-        return ResponseEntity.ok(confirmedSlot);
+    public ResponseEntity<ScheduledSlotDto> confirmScheduledSlot(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ScheduledSlotDto confirmedSlot = scheduledSlotService.confirmScheduledSlot(id, EntityTags.expectedVersion(ifMatch));
+        return EntityTags.ok(confirmedSlot, confirmedSlot.getVersion());
     }
     
     @DeleteMapping("/{id}")
@@ -72,4 +134,13 @@ public class ScheduledSlotController {
         scheduledSlotService.deleteScheduledSlot(id);
         return ResponseEntity.noContent().build();
     }
+    
+    // The body stays a plain array; the token for the next page, if any, travels in a header
+    private static ResponseEntity<List<ScheduledSlotDto>> toResponse(CursorPageDto<ScheduledSlotDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextPageToken() != null) {
+            response.header(NEXT_PAGE_TOKEN_HEADER, page.getNextPageToken());
+        }
+        return response.body(page.getItems());
+    }
 }
\ No newline at end of file
@@ -1,16 +1,25 @@
 package com.communityexchange.web.controller;
 
 import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.dto.CalendarSyncDto;
+import com.communityexchange.model.dto.CommonAvailabilityRequestDto;
+import com.communityexchange.model.dto.CommonAvailableSlotDto;
 import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.projection.CalendarVersion;
+import com.communityexchange.service.SlotQueryService;
 import com.communityexchange.service.UserCalendarService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +29,7 @@ import java.util.UUID;
 public class UserCalendarController {
     
     private final UserCalendarService userCalendarService;
+    private final SlotQueryService slotQueryService;
     
     @PostMapping
     public ResponseEntity<UserCalendarDto> createUserCalendar(@RequestParam UUID userId) {
@@ -28,7 +38,10 @@ public class UserCalendarController {
     }
     
     @GetMapping("/{userId}")
-    public ResponseEntity<UserCalendarDto> getUserCalendar(@PathVariable UUID userId) {
+    public ResponseEntity<UserCalendarDto> getUserCalendar(@PathVariable UUID userId, WebRequest webRequest) {
+        if (isNotModified(userId, webRequest)) {
+            return null;
+        }
         UserCalendarDto userCalendar = userCalendarService.getUserCalendar(userId);
         return ResponseEntity.ok(userCalendar);
     }
@@ -37,14 +50,54 @@ public class UserCalendarController {
     public ResponseEntity<List<AvailabilitySlotDto>> getAvailableSlots(
             @PathVariable UUID userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            WebRequest webRequest) {
+        if (isNotModified(userId, webRequest)) {
+            return null;
+        }
         List<AvailabilitySlotDto> availableSlots = userCalendarService.getAvailableSlots(userId, start, end);
         return ResponseEntity.ok(availableSlots);
     }
     
+    @GetMapping(value = "/{userId}/available-slots", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AvailabilitySlotDto> streamAvailableSlots(
+            @PathVariable UUID userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return slotQueryService.streamAvailableSlots(userId, start, end);
+    }
+    
+    @GetMapping("/{userId}/sync")
+    public ResponseEntity<CalendarSyncDto> syncCalendar(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String since) {
+        CalendarSyncDto sync = userCalendarService.syncCalendar(userId, since);
+        return ResponseEntity.ok(sync);
+    }
+    
+    @PostMapping("/common-available-slots")
+    public ResponseEntity<List<CommonAvailableSlotDto>> getCommonAvailableSlots(
+            @Valid @RequestBody CommonAvailabilityRequestDto request) {
+        List<CommonAvailableSlotDto> commonSlots = userCalendarService.getCommonAvailableSlots(
+                request.getUserIds(), request.getStart(), request.getEnd());
+        return ResponseEntity.ok(commonSlots);
+    }
+    
     @DeleteMapping("/{userId}")
     public ResponseEntity<Void> deleteUserCalendar(@PathVariable UUID userId) {
         userCalendarService.deleteUserCalendar(userId);
         return ResponseEntity.noContent().build();
     }
+    
+    // Answers If-None-Match / If-Modified-Since from the calendar's version stamp alone and otherwise adds
+    // ETag and Last-Modified to the response. The stamp is read before the body, so a write landing in
+    // between can only leave the ETag older than the body, costing one extra full response, never a missed change.
+    private boolean isNotModified(UUID userId, WebRequest webRequest) {
+        CalendarVersion version = userCalendarService.getCalendarVersion(userId);
+        String eTag = "\"" + version.calendarId() + "-" + version.changeVersion() + "\"";
+        long lastModified = version.updatedAt() == null
+                ? -1
+                : version.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return webRequest.checkNotModified(eTag, lastModified);
+    }
 }
\ No newline at end of file
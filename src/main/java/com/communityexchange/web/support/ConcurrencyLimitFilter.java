@@ -0,0 +1,131 @@
+package com.communityexchange.web.support;
+
+import com.communityexchange.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of API requests in flight. With virtual threads Tomcat no longer bounds concurrency
+ * through its worker pool, so without a cap a burst would just queue up on the connection pool and
+ * time out there. A request waits up to {@code concurrency-wait} for a permit and is answered with
+ * 503 otherwise. Streamed responses keep their permit until the async dispatch completes.
+ * <p>
+ * Registered by {@link com.communityexchange.config.WebConfig} when {@code max-concurrent-requests} is
+ * positive; actuator endpoints are never limited. Neither is the change feed stream: its subscribers sit
+ * idle for as long as they stay connected and are already capped by {@code calendar.changes.max-subscribers},
+ * so holding permits for them would only starve the rest of the API.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String CHANGE_STREAM_PATH = "/calendars/changes/stream";
+
+    private final long waitNanos;
+    private final Semaphore permits;
+    private final ObjectMapper objectMapper;
+    private final Counter rejections;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  int maxConcurrentRequests, Duration concurrencyWait) {
+        this.waitNanos = concurrencyWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.objectMapper = objectMapper;
+        this.rejections = meterRegistry.counter("calendar.web.rejected.requests");
+        Gauge.builder("calendar.web.active.requests", permits, semaphore -> maxConcurrentRequests - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator") || path.equals(CHANGE_STREAM_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejections.increment();
+            reject(request, response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Too many concurrent requests, please retry",
+                "uri=" + request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.communityexchange.web.support;
+
+import com.communityexchange.exception.PreconditionFailedException;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Entity tags for single resources: the tag is the entity's optimistic-locking version, so a client
+ * sends back in If-Match exactly what it got in ETag. Only one strong tag, or *, is understood.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(of(version));
+        }
+        return response.body(body);
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Null when there is no precondition; a tag this service cannot have issued can never match
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Falls through to the failed precondition below
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + tag + " does not match the current version");
+    }
+}
@@ -0,0 +1,270 @@
+package com.communityexchange.web.support;
+
+import com.communityexchange.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POSTs to the configured paths safe to retry. The first request carrying an {@code Idempotency-Key}
+ * runs normally and its response is kept in a bounded cache for {@code ttl}; a retry with the same key
+ * and body is answered from that copy, marked with {@code Idempotent-Replayed}, without reaching the
+ * controller. A duplicate arriving while the first is still running waits up to {@code in-flight-wait}
+ * for its outcome instead of racing it.
+ * <p>
+ * Server errors are not kept, so a request that failed with a 5xx can be retried under the same key.
+ * Reusing a key with a different body is refused with 422. The cache is local to this instance.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String CACHE_NAME = "idempotentResponses";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Set<String> paths;
+    private final Cache<String, Execution> executions;
+    private final long waitNanos;
+    private final ObjectMapper objectMapper;
+    private final Counter replays;
+
+    public IdempotencyFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry, Set<String> paths,
+                             long maximumSize, Duration ttl, Duration inFlightWait) {
+        this.paths = Set.copyOf(paths);
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.waitNanos = inFlightWait.toNanos();
+        this.objectMapper = objectMapper;
+        this.replays = meterRegistry.counter("calendar.web.idempotent.replays");
+        CaffeineCacheMetrics.monitor(meterRegistry, executions, CACHE_NAME);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        BufferedRequest bufferedRequest = new BufferedRequest(request);
+        String cacheKey = request.getRequestURI() + " " + idempotencyKey;
+        byte[] fingerprint = fingerprint(bufferedRequest.body);
+        long deadline = System.nanoTime() + waitNanos;
+        // Loops only when the request it waited for failed and left the key free again
+        while (true) {
+            Execution execution = new Execution(fingerprint);
+            Execution earlier = executions.asMap().putIfAbsent(cacheKey, execution);
+            if (earlier == null) {
+                execute(bufferedRequest, response, filterChain, cacheKey, execution);
+                return;
+            }
+            if (!Arrays.equals(earlier.fingerprint, fingerprint)) {
+                reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+                return;
+            }
+
+            StoredResponse stored;
+            try {
+                stored = earlier.outcome.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                rejectInProgress(request, response);
+                return;
+            } catch (ExecutionException ex) {
+                stored = null;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                rejectInProgress(request, response);
+                return;
+            }
+            if (stored != null) {
+                replays.increment();
+                stored.replay(response);
+                return;
+            }
+        }
+    }
+
+    private void execute(BufferedRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String cacheKey, Execution execution) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                stored = StoredResponse.of(responseWrapper);
+            }
+        } finally {
+            if (stored == null) {
+                executions.asMap().remove(cacheKey, execution);
+            }
+            execution.outcome.complete(stored);
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void rejectInProgress(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader("Retry-After", "1");
+        reject(request, response, HttpStatus.CONFLICT,
+                "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress, please retry");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                message,
+                "uri=" + request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static byte[] fingerprint(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    // The outcome completes with null when the first request failed and nothing was kept
+    private record Execution(byte[] fingerprint, CompletableFuture<StoredResponse> outcome) {
+
+        Execution(byte[] fingerprint) {
+            this(fingerprint, new CompletableFuture<>());
+        }
+    }
+
+    private record StoredResponse(int status, Map<String, List<String>> headers, byte[] body) {
+
+        static StoredResponse of(ContentCachingResponseWrapper response) {
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (String name : response.getHeaderNames()) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+            if (response.getContentType() != null) {
+                headers.put("Content-Type", List.of(response.getContentType()));
+            }
+            return new StoredResponse(response.getStatus(), headers, response.getContentAsByteArray());
+        }
+
+        void replay(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            response.flushBuffer();
+        }
+    }
+
+    // The body is read up front so it can be fingerprinted and still handed to the controller
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Buffered request bodies are read synchronously");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
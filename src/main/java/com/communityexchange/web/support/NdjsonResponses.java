@@ -0,0 +1,34 @@
+package com.communityexchange.web.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes pushed elements as newline-delimited JSON, one element per line, without collecting them
+ * first.
+ */
+public final class NdjsonResponses {
+
+    private NdjsonResponses() {
+    }
+
+    // For producers that push elements, such as an export that has to run inside its own transaction;
+    // streams that can be pulled are returned as a Flux and encoded by Spring MVC instead
+    public static <T> Consumer<T> lineWriter(ObjectMapper objectMapper, Class<T> type, OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return element -> {
+            try {
+                writer.writeValue(outputStream, element);
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+-- The schema ddl-auto=update created before the migrations took over. Every statement is conditional, so
+-- a database that already holds it is baselined onto V1 unchanged and brought up to date by the later ones.
+
+create table if not exists user_calendars (
+    id uuid not null,
+    user_id uuid not null unique,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists availabilities (
+    id uuid not null,
+    user_calendar_id uuid not null references user_calendars (id),
+    day_of_week varchar(255) not null check (day_of_week in ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY')),
+    start_time time(6) not null,
+    end_time time(6) not null,
+    is_recurring boolean not null,
+    is_active boolean not null,
+    primary key (id)
+);
+
+create table if not exists scheduled_slots (
+    id uuid not null,
+    user_id uuid not null,
+    exchange_id uuid not null unique,
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    title varchar(255),
+    description text,
+    is_confirmed boolean not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,36 @@
+-- Optimistic locking versions, change sequences for delta syncs, recurrence rules and the tables added
+-- alongside them. Existing rows start at version and sequence 0, so their first sync is a full one.
+
+alter table user_calendars add column version bigint default 0 not null;
+alter table user_calendars add column change_version bigint default 0 not null;
+
+alter table availabilities add column version bigint default 0 not null;
+alter table availabilities add column change_sequence bigint default 0 not null;
+alter table availabilities add column recurrence_rule varchar(255);
+alter table availabilities add column start_date date;
+
+alter table scheduled_slots add column version bigint default 0 not null;
+alter table scheduled_slots add column change_sequence bigint default 0 not null;
+
+create table availability_overrides (
+    id uuid not null,
+    version bigint default 0 not null,
+    user_calendar_id uuid not null references user_calendars (id),
+    override_date date not null,
+    type varchar(255) not null check (type in ('EXTRA','BLACKOUT')),
+    start_time time(6),
+    end_time time(6),
+    reason varchar(255),
+    primary key (id)
+);
+
+create table calendar_tombstones (
+    id uuid not null,
+    version bigint default 0 not null,
+    user_id uuid not null,
+    resource_type varchar(255) not null check (resource_type in ('SCHEDULED_SLOT','AVAILABILITY')),
+    resource_id uuid not null,
+    change_sequence bigint not null,
+    deleted_at timestamp(6) not null,
+    primary key (id)
+);
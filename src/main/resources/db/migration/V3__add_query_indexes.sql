@@ -0,0 +1,18 @@
+-- Overlap and range lookups of a user's slots, and keyset pages over them in (start_time, id) order
+create index idx_scheduled_slots_user_time on scheduled_slots (user_id, start_time, end_time);
+create index idx_scheduled_slots_user_start_id on scheduled_slots (user_id, start_time, id);
+
+-- Export streams over every user's slots in start order
+create index idx_scheduled_slots_start_id on scheduled_slots (start_time, id);
+
+-- Weekday lookups of a calendar's availabilities
+create index idx_availabilities_calendar_day on availabilities (user_calendar_id, day_of_week);
+
+-- A calendar's overrides by date
+create index idx_availability_overrides_calendar_date on availability_overrides (user_calendar_id, override_date);
+
+-- Delta syncs read the rows and tombstones above a change sequence; the tombstone purge deletes by age
+create index idx_availabilities_calendar_change on availabilities (user_calendar_id, change_sequence);
+create index idx_scheduled_slots_user_change on scheduled_slots (user_id, change_sequence);
+create index idx_calendar_tombstones_user_change on calendar_tombstones (user_id, change_sequence);
+create index idx_calendar_tombstones_deleted_at on calendar_tombstones (deleted_at);
@@ -0,0 +1,46 @@
+package com.communityexchange.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpoint_ShouldExposeServiceTimersAndSlotSizeHistograms() throws Exception {
+        UUID userId = UUID.randomUUID();
+        mockMvc.perform(post("/calendars").param("userId", userId.toString()))
+                .andExpect(status().isCreated());
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 0, 0);
+        mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
+                        .param("start", start.toString())
+                        .param("end", start.plusDays(7).toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "calendar_service_seconds_bucket{class=\"com.communityexchange.service.impl.UserCalendarServiceImpl\"")))
+                .andExpect(content().string(containsString("method=\"getAvailableSlots\"")))
+                .andExpect(content().string(containsString("calendar_slots_requested_days_bucket")))
+                .andExpect(content().string(containsString("calendar_slots_returned_slots_count")));
+    }
+}
@@ -10,10 +10,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -172,4 +176,107 @@ public class ScheduledSlotApiTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(3));
     }
-}
\ No newline at end of file
+
+    @Test
+    void userSlots_ShouldBeWalkableInStartTimeOrderThroughPageTokens() throws Exception {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime base = LocalDateTime.of(2030, 3, 4, 8, 0);
+        for (int i = 4; i >= 0; i--) {
+            ScheduledSlotDto slotDto = new ScheduledSlotDto();
+            slotDto.setUserId(userId);
+            slotDto.setExchangeId(UUID.randomUUID());
+            slotDto.setStartTime(base.plusHours(i));
+            slotDto.setEndTime(base.plusHours(i).plusMinutes(30));
+            mockMvc.perform(post("/scheduled-slots")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(slotDto)))
+                    .andExpect(status().isCreated());
+        }
+
+        List<LocalDateTime> startTimes = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/scheduled-slots/user/{userId}", userId).param("limit", "2");
+            if (pageToken != null) {
+                request.param("pageToken", pageToken);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ScheduledSlotDto[] page = objectMapper.readValue(result.getResponse().getContentAsString(), ScheduledSlotDto[].class);
+            Arrays.stream(page).forEach(slot -> startTimes.add(slot.getStartTime()));
+            pageToken = result.getResponse().getHeader("X-Next-Page-Token");
+            pages++;
+        } while (pageToken != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of(base, base.plusHours(1), base.plusHours(2), base.plusHours(3), base.plusHours(4)), startTimes);
+    }
+
+    @Test
+    void export_ShouldStreamSlotsStartingInRangeAcrossUsers() throws Exception {
+        LocalDateTime monthStart = LocalDateTime.of(2031, 5, 1, 0, 0);
+        List<LocalDateTime> starts = List.of(
+                monthStart.minusHours(1), monthStart, monthStart.plusDays(10), monthStart.plusMonths(1));
+        for (LocalDateTime start : starts) {
+            ScheduledSlotDto slotDto = new ScheduledSlotDto();
+            slotDto.setUserId(UUID.randomUUID());
+            slotDto.setExchangeId(UUID.randomUUID());
+            slotDto.setStartTime(start);
+            slotDto.setEndTime(start.plusMinutes(45));
+            slotDto.setDescription("Reconciliation notes");
+            mockMvc.perform(post("/scheduled-slots")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(slotDto)))
+                    .andExpect(status().isCreated());
+        }
+
+        String body = mockMvc.perform(get("/scheduled-slots/export")
+                        .param("start", monthStart.toString())
+                        .param("end", monthStart.plusMonths(1).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<ScheduledSlotDto> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            exported.add(objectMapper.readValue(line, ScheduledSlotDto.class));
+        }
+        assertEquals(List.of(monthStart, monthStart.plusDays(10)), exported.stream().map(ScheduledSlotDto::getStartTime).toList());
+        assertEquals("Reconciliation notes", exported.get(0).getDescription());
+    }
+
+    @Test
+    void retriedCreate_WithIdempotencyKey_ShouldReplayTheFirstResultInsteadOfConflicting() throws Exception {
+        UUID userId = UUID.randomUUID();
+        ScheduledSlotDto slotDto = new ScheduledSlotDto();
+        slotDto.setUserId(userId);
+        slotDto.setExchangeId(UUID.randomUUID());
+        slotDto.setStartTime(LocalDateTime.of(2030, 1, 7, 10, 0));
+        slotDto.setEndTime(LocalDateTime.of(2030, 1, 7, 11, 0));
+        String body = objectMapper.writeValueAsString(slotDto);
+
+        String created = mockMvc.perform(post("/scheduled-slots")
+                .header("Idempotency-Key", "booking-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String replayed = mockMvc.perform(post("/scheduled-slots")
+                .header("Idempotency-Key", "booking-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(created, replayed);
+        mockMvc.perform(get("/scheduled-slots/user/{userId}", userId))
+                .andExpect(jsonPath("$.length()").value(1));
+        // Without the key the retry is a second booking of the same exchange
+        mockMvc.perform(post("/scheduled-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isConflict());
+    }
+}
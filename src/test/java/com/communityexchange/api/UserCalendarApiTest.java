@@ -0,0 +1,275 @@
+package com.communityexchange.api;
+
+import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.CalendarTombstone;
+import com.communityexchange.repository.CalendarTombstoneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class UserCalendarApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CalendarTombstoneRepository calendarTombstoneRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void createCalendar_ForAUserWhoAlreadyHasOne_ShouldAnswerConflict() throws Exception {
+        UUID userId = UUID.randomUUID();
+        mockMvc.perform(post("/calendars").param("userId", userId.toString()))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/calendars").param("userId", userId.toString()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void conditionalGets_ShouldAnswerNotModifiedUntilAvailabilityOrSlotWritesChangeTheVersion() throws Exception {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime monday = LocalDateTime.of(2030, 1, 7, 0, 0);
+        String createJson = mockMvc.perform(post("/calendars").param("userId", userId.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID calendarId = objectMapper.readValue(createJson, UserCalendarDto.class).getId();
+
+        String initialETag = mockMvc.perform(get("/calendars/{userId}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(initialETag);
+        mockMvc.perform(get("/calendars/{userId}", userId).header("If-None-Match", initialETag))
+                .andExpect(status().isNotModified());
+
+        AvailabilityDto availability = new AvailabilityDto();
+        availability.setUserCalendarId(calendarId);
+        availability.setDayOfWeek(DayOfWeek.MONDAY);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(17, 0));
+        mockMvc.perform(post("/availabilities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availability)))
+                .andExpect(status().isCreated());
+
+        String availabilityETag = mockMvc.perform(get("/calendars/{userId}", userId).header("If-None-Match", initialETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(initialETag, availabilityETag);
+        mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
+                .param("start", monday.toString())
+                .param("end", monday.plusDays(1).toString())
+                .header("If-None-Match", availabilityETag))
+                .andExpect(status().isNotModified());
+
+        ScheduledSlotDto slot = new ScheduledSlotDto();
+        slot.setUserId(userId);
+        slot.setExchangeId(UUID.randomUUID());
+        slot.setStartTime(monday.withHour(10));
+        slot.setEndTime(monday.withHour(11));
+        mockMvc.perform(post("/scheduled-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(slot)))
+                .andExpect(status().isCreated());
+
+        String slotETag = mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
+                .param("start", monday.toString())
+                .param("end", monday.plusDays(1).toString())
+                .header("If-None-Match", availabilityETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(availabilityETag, slotETag);
+    }
+
+    @Test
+    void sync_ShouldReturnOnlyUpsertsAndTombstonesSinceTheToken() throws Exception {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime monday = LocalDateTime.of(2030, 1, 7, 0, 0);
+        String createJson = mockMvc.perform(post("/calendars").param("userId", userId.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID calendarId = objectMapper.readValue(createJson, UserCalendarDto.class).getId();
+
+        AvailabilityDto availability = new AvailabilityDto();
+        availability.setUserCalendarId(calendarId);
+        availability.setDayOfWeek(DayOfWeek.MONDAY);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(17, 0));
+        String availabilityJson = mockMvc.perform(post("/availabilities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availability)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID availabilityId = objectMapper.readValue(availabilityJson, AvailabilityDto.class).getId();
+        ScheduledSlotDto first = slot(userId, monday.withHour(10));
+        mockMvc.perform(post("/scheduled-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isCreated());
+
+        String fullJson = mockMvc.perform(get("/calendars/{userId}/sync", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullSync").value(true))
+                .andExpect(jsonPath("$.scheduledSlots.length()").value(1))
+                .andExpect(jsonPath("$.availabilities.length()").value(1))
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(fullJson).get("syncToken").asText();
+
+        mockMvc.perform(get("/calendars/{userId}/sync", userId).param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullSync").value(false))
+                .andExpect(jsonPath("$.scheduledSlots.length()").value(0))
+                .andExpect(jsonPath("$.availabilities.length()").value(0))
+                .andExpect(jsonPath("$.deleted.length()").value(0));
+
+        ScheduledSlotDto second = slot(userId, monday.withHour(14));
+        mockMvc.perform(post("/scheduled-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/availabilities/{id}", availabilityId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/calendars/{userId}/sync", userId).param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scheduledSlots.length()").value(1))
+                .andExpect(jsonPath("$.scheduledSlots[0].exchangeId").value(second.getExchangeId().toString()))
+                .andExpect(jsonPath("$.availabilities.length()").value(0))
+                .andExpect(jsonPath("$.deleted[0].resourceType").value("AVAILABILITY"))
+                .andExpect(jsonPath("$.deleted[0].resourceId").value(availabilityId.toString()));
+
+        mockMvc.perform(get("/calendars/{userId}/sync", UUID.randomUUID()).param("since", token))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/calendars/{userId}/sync", userId).param("since", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void overrides_ShouldBlackOutAndAddWindowsOnTheirDatesOnly() throws Exception {
+        UUID userId = UUID.randomUUID();
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        String createJson = mockMvc.perform(post("/calendars").param("userId", userId.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID calendarId = objectMapper.readValue(createJson, UserCalendarDto.class).getId();
+
+        AvailabilityDto availability = new AvailabilityDto();
+        availability.setUserCalendarId(calendarId);
+        availability.setDayOfWeek(DayOfWeek.MONDAY);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(17, 0));
+        mockMvc.perform(post("/availabilities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availability)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/availability-overrides")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(override(calendarId, monday, AvailabilityOverride.Type.BLACKOUT, null, null))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/availability-overrides")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(override(calendarId, monday.plusWeeks(1), AvailabilityOverride.Type.EXTRA,
+                        LocalTime.of(18, 0), LocalTime.of(20, 0)))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
+                .param("start", monday.atStartOfDay().toString())
+                .param("end", monday.plusWeeks(2).atStartOfDay().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].startTime").value("2030-01-14T09:00:00"))
+                .andExpect(jsonPath("$[1].startTime").value("2030-01-14T18:00:00"));
+        mockMvc.perform(get("/availability-overrides/user-calendar/{userCalendarId}", calendarId)
+                .param("from", monday.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].type").value("EXTRA"));
+    }
+
+    @Test
+    void deleteCalendar_WithAvailabilitiesAndOverrides_ShouldRemoveThemAndTombstoneTheAvailabilities() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String createJson = mockMvc.perform(post("/calendars").param("userId", userId.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID calendarId = objectMapper.readValue(createJson, UserCalendarDto.class).getId();
+
+        AvailabilityDto availability = new AvailabilityDto();
+        availability.setUserCalendarId(calendarId);
+        availability.setDayOfWeek(DayOfWeek.MONDAY);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(17, 0));
+        String availabilityJson = mockMvc.perform(post("/availabilities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availability)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID availabilityId = objectMapper.readValue(availabilityJson, AvailabilityDto.class).getId();
+        mockMvc.perform(post("/availability-overrides")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(override(calendarId, LocalDate.of(2030, 1, 7),
+                        AvailabilityOverride.Type.BLACKOUT, null, null))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete("/calendars/{userId}", userId))
+                .andExpect(status().isNoContent());
+        // The foreign keys are only checked once the calendar row's delete is flushed
+        entityManager.flush();
+
+        assertEquals(List.of(availabilityId), calendarTombstoneRepository.findByUserIdAndChangeSequenceGreaterThan(userId, 0).stream()
+                .filter(tombstone -> tombstone.getResourceType() == CalendarTombstone.ResourceType.AVAILABILITY)
+                .map(CalendarTombstone::getResourceId)
+                .toList());
+    }
+
+    private static AvailabilityOverrideDto override(UUID calendarId, LocalDate date, AvailabilityOverride.Type type,
+                                                    LocalTime start, LocalTime end) {
+        AvailabilityOverrideDto override = new AvailabilityOverrideDto();
+        override.setUserCalendarId(calendarId);
+        override.setDate(date);
+        override.setType(type);
+        override.setStartTime(start);
+        override.setEndTime(end);
+        return override;
+    }
+
+    private static ScheduledSlotDto slot(UUID userId, LocalDateTime start) {
+        ScheduledSlotDto slot = new ScheduledSlotDto();
+        slot.setUserId(userId);
+        slot.setExchangeId(UUID.randomUUID());
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        return slot;
+    }
+}
@@ -0,0 +1,80 @@
+package com.communityexchange.benchmark;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.service.slot.FreeBusyEngine;
+import com.communityexchange.service.slot.LegacySlotGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link FreeBusyEngine} with the original nested loop on a busy provider calendar, by range
+ * length, availability density and number of bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailableSlotGenerationBenchmark {
+
+    @Param({"7", "90"})
+    private int days;
+
+    @Param({"1", "10"})
+    private int windowsPerDay;
+
+    @Param({"50", "500"})
+    private int busySlots;
+
+    private final FreeBusyEngine engine = new FreeBusyEngine();
+    private final UUID userId = UUID.randomUUID();
+
+    private List<Availability> availabilities;
+    private List<ScheduledSlot> scheduledSlots;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        start = BenchmarkData.EPOCH;
+        end = start.plusDays(days);
+        availabilities = BenchmarkData.weekdayAvailabilities(windowsPerDay);
+        scheduledSlots = BenchmarkData.busySlots(userId, days, busySlots);
+    }
+
+    @Benchmark
+    public List<AvailabilitySlotDto> legacyNestedLoop() {
+        return LegacySlotGenerator.generateAvailableSlots(availabilities, scheduledSlots, start, end, userId);
+    }
+
+    @Benchmark
+    public List<AvailabilitySlotDto> sweepLineEngine() {
+        return engine.generateAvailableSlots(availabilities, scheduledSlots, start, end, userId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AvailableSlotGenerationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
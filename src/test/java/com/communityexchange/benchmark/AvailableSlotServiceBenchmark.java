@@ -0,0 +1,149 @@
+package com.communityexchange.benchmark;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.mapper.AvailabilityMapper;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.mapper.UserCalendarMapper;
+import com.communityexchange.repository.AvailabilityOverrideRepository;
+import com.communityexchange.repository.AvailabilityRepository;
+import com.communityexchange.repository.CalendarTombstoneRepository;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import com.communityexchange.repository.UserCalendarRepository;
+import com.communityexchange.service.impl.UserCalendarServiceImpl;
+import com.communityexchange.service.slot.AvailabilityOverrideRegistry;
+import com.communityexchange.service.slot.AvailabilityOverrides;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.slot.CommonAvailabilityCalculator;
+import com.communityexchange.service.slot.FreeBusyEngine;
+import com.communityexchange.service.slot.SlotGenerationMetrics;
+import com.communityexchange.service.slot.WeeklyAvailabilityRegistry;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.CalendarVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@link UserCalendarServiceImpl#getAvailableSlots} end to end, with in-memory repositories, once with
+ * the week cache disabled and once with every week already cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailableSlotServiceBenchmark {
+
+    @Param({"7", "90"})
+    private int days;
+
+    @Param({"1", "10"})
+    private int windowsPerDay;
+
+    @Param({"50", "500"})
+    private int busySlots;
+
+    private final UUID userId = UUID.randomUUID();
+
+    private UserCalendarServiceImpl uncachedService;
+    private UserCalendarServiceImpl cachedService;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        start = BenchmarkData.EPOCH;
+        end = start.plusDays(days);
+        List<Availability> availabilities = BenchmarkData.weekdayAvailabilities(windowsPerDay);
+        List<ScheduledSlot> scheduledSlots = BenchmarkData.busySlots(userId, days, busySlots);
+
+        uncachedService = service(availabilities, scheduledSlots, 0);
+        cachedService = service(availabilities, scheduledSlots, 10_000);
+        cachedService.getAvailableSlots(userId, start, end);
+    }
+
+    @Benchmark
+    public List<AvailabilitySlotDto> uncachedWeeks() {
+        return uncachedService.getAvailableSlots(userId, start, end);
+    }
+
+    @Benchmark
+    public List<AvailabilitySlotDto> cachedWeeks() {
+        return cachedService.getAvailableSlots(userId, start, end);
+    }
+
+    // Stub-only mocks, so that millions of invocations are not recorded
+    private UserCalendarServiceImpl service(List<Availability> availabilities, List<ScheduledSlot> scheduledSlots,
+                                            long cacheSize) {
+        UUID calendarId = UUID.randomUUID();
+        CalendarIdentityCache calendarIdentityCache = mock(CalendarIdentityCache.class, withSettings().stubOnly());
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(calendarId);
+
+        AvailabilityRepository availabilityRepository = mock(AvailabilityRepository.class, withSettings().stubOnly());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(calendarId)).thenReturn(availabilities);
+
+        ScheduledSlotRepository scheduledSlotRepository = mock(ScheduledSlotRepository.class, withSettings().stubOnly());
+        when(scheduledSlotRepository.findOverlapping(eq(userId), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime rangeStart = invocation.getArgument(1);
+            LocalDateTime rangeEnd = invocation.getArgument(2);
+            return scheduledSlots.stream()
+                    .filter(slot -> slot.getStartTime().isBefore(rangeEnd) && slot.getEndTime().isAfter(rangeStart))
+                    .toList();
+        });
+
+        AvailabilityOverrideRegistry availabilityOverrideRegistry = mock(AvailabilityOverrideRegistry.class, withSettings().stubOnly());
+        when(availabilityOverrideRegistry.get(userId)).thenReturn(AvailabilityOverrides.NONE);
+
+        FreeBusyEngine freeBusyEngine = new FreeBusyEngine();
+        return new UserCalendarServiceImpl(
+                mock(UserCalendarRepository.class, withSettings().stubOnly()),
+                availabilityRepository,
+                mock(AvailabilityOverrideRepository.class, withSettings().stubOnly()),
+                scheduledSlotRepository,
+                mock(CalendarTombstoneRepository.class, withSettings().stubOnly()),
+                freeBusyEngine,
+                new CommonAvailabilityCalculator(freeBusyEngine, 2, 8),
+                mock(WeeklyAvailabilityRegistry.class, withSettings().stubOnly()),
+                availabilityOverrideRegistry,
+                calendarIdentityCache,
+                new AvailableSlotCache(new SimpleMeterRegistry(), cacheSize, Duration.ofHours(1)),
+                new SlotGenerationMetrics(new SimpleMeterRegistry()),
+                mock(CalendarVersions.class, withSettings().stubOnly()),
+                new UserCalendarMapper(new AvailabilityMapper()),
+                new ScheduledSlotMapper(),
+                new AvailabilityMapper());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AvailableSlotServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
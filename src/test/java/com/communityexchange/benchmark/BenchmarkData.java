@@ -0,0 +1,73 @@
+package com.communityexchange.benchmark;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic calendars for the benchmarks. Everything is derived from a fixed seed so that runs on
+ * different commits measure the same data.
+ */
+public final class BenchmarkData {
+
+    public static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final int WORKDAY_START_HOUR = 8;
+    private static final int WORKDAY_MINUTES = 10 * 60;
+
+    private BenchmarkData() {
+    }
+
+    // windowsPerDay equal windows between 08:00 and 18:00 on weekdays
+    public static List<Availability> weekdayAvailabilities(int windowsPerDay) {
+        int windowMinutes = WORKDAY_MINUTES / windowsPerDay;
+        List<Availability> availabilities = new ArrayList<>();
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            for (int i = 0; i < windowsPerDay; i++) {
+                LocalTime windowStart = LocalTime.of(WORKDAY_START_HOUR, 0).plusMinutes((long) i * windowMinutes);
+                Availability availability = new Availability();
+                availability.setDayOfWeek(dayOfWeek);
+                availability.setStartTime(windowStart);
+                availability.setEndTime(windowStart.plusMinutes(windowMinutes));
+                availabilities.add(availability);
+            }
+        }
+        return availabilities;
+    }
+
+    // Half-hour bookings on half-hour boundaries, spread uniformly over the range
+    public static List<ScheduledSlot> busySlots(UUID userId, int days, int count) {
+        Random random = new Random(7);
+        List<ScheduledSlot> scheduledSlots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime slotStart = EPOCH.plusMinutes(30L * random.nextInt(days * 48));
+            ScheduledSlot slot = new ScheduledSlot();
+            slot.setUserId(userId);
+            slot.setExchangeId(UUID.randomUUID());
+            slot.setStartTime(slotStart);
+            slot.setEndTime(slotStart.plusMinutes(30));
+            scheduledSlots.add(slot);
+        }
+        return scheduledSlots;
+    }
+
+    public static List<AvailabilitySlotDto> availableSlots(UUID userId, int count) {
+        List<AvailabilitySlotDto> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime slotStart = EPOCH.plusHours(i);
+            slots.add(new AvailabilitySlotDto(slotStart, slotStart.plusMinutes(45), userId));
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,135 @@
+package com.communityexchange.benchmark;
+
+import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.model.mapper.AvailabilityMapper;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.mapper.UserCalendarMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written mappers with the ModelMapper setup they replaced. Run with the GC profiler
+ * (as {@link #main} does) to get {@code gc.alloc.rate.norm}, the bytes allocated per mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final AvailabilityMapper availabilityMapper = new AvailabilityMapper();
+    private final ScheduledSlotMapper scheduledSlotMapper = new ScheduledSlotMapper();
+    private final UserCalendarMapper userCalendarMapper = new UserCalendarMapper(availabilityMapper);
+
+    private ScheduledSlot scheduledSlot;
+    private ScheduledSlotDto scheduledSlotDto;
+    private Availability availability;
+    private UserCalendar userCalendar;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        scheduledSlot = new ScheduledSlot();
+        scheduledSlot.setId(UUID.randomUUID());
+        scheduledSlot.setUserId(UUID.randomUUID());
+        scheduledSlot.setExchangeId(UUID.randomUUID());
+        scheduledSlot.setStartTime(start);
+        scheduledSlot.setEndTime(start.plusHours(1));
+        scheduledSlot.setTitle("Guitar lesson");
+        scheduledSlot.setDescription("Bring the capo");
+        scheduledSlotDto = scheduledSlotMapper.toDto(scheduledSlot);
+
+        userCalendar = new UserCalendar();
+        userCalendar.setId(UUID.randomUUID());
+        userCalendar.setUserId(UUID.randomUUID());
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            Availability weekday = new Availability();
+            weekday.setId(UUID.randomUUID());
+            weekday.setDayOfWeek(dayOfWeek);
+            weekday.setStartTime(LocalTime.of(9, 0));
+            weekday.setEndTime(LocalTime.of(17, 0));
+            userCalendar.addAvailability(weekday);
+        }
+        availability = userCalendar.getAvailabilities().iterator().next();
+
+        // ModelMapper builds its type maps on first use; keep that out of the measurement
+        modelMapper.map(scheduledSlot, ScheduledSlotDto.class);
+        modelMapper.map(scheduledSlotDto, ScheduledSlot.class);
+        modelMapper.map(availability, AvailabilityDto.class);
+        modelMapper.map(userCalendar, UserCalendarDto.class);
+    }
+
+    @Benchmark
+    public ScheduledSlotDto scheduledSlotToDtoModelMapper() {
+        return modelMapper.map(scheduledSlot, ScheduledSlotDto.class);
+    }
+
+    @Benchmark
+    public ScheduledSlotDto scheduledSlotToDtoMapper() {
+        return scheduledSlotMapper.toDto(scheduledSlot);
+    }
+
+    @Benchmark
+    public ScheduledSlot scheduledSlotToEntityModelMapper() {
+        return modelMapper.map(scheduledSlotDto, ScheduledSlot.class);
+    }
+
+    @Benchmark
+    public ScheduledSlot scheduledSlotToEntityMapper() {
+        return scheduledSlotMapper.toEntity(scheduledSlotDto);
+    }
+
+    @Benchmark
+    public AvailabilityDto availabilityToDtoModelMapper() {
+        return modelMapper.map(availability, AvailabilityDto.class);
+    }
+
+    @Benchmark
+    public AvailabilityDto availabilityToDtoMapper() {
+        return availabilityMapper.toDto(availability);
+    }
+
+    @Benchmark
+    public UserCalendarDto userCalendarToDtoModelMapper() {
+        return modelMapper.map(userCalendar, UserCalendarDto.class);
+    }
+
+    @Benchmark
+    public UserCalendarDto userCalendarToDtoMapper() {
+        return userCalendarMapper.toDto(userCalendar);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DtoMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.communityexchange.benchmark;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.service.slot.FreeBusyEngine;
+import com.communityexchange.service.slot.RecurrenceRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expands decade-long recurrence rules lazily: a week at the far end of the series should cost about the
+ * same as a week at its start unless the rule has a COUNT, which has to be counted from the start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceExpansionBenchmark {
+
+    @Param({"FREQ=WEEKLY;BYDAY=MO,WE,FR", "FREQ=MONTHLY;BYDAY=-1FR", "FREQ=DAILY;INTERVAL=2;COUNT=1826"})
+    private String rule;
+
+    private final FreeBusyEngine engine = new FreeBusyEngine();
+    private final UUID userId = UUID.randomUUID();
+
+    private RecurrenceRule recurrenceRule;
+    private List<Availability> availabilities;
+    private List<ScheduledSlot> scheduledSlots;
+    private LocalDate seriesStart;
+    private LocalDate decadeEnd;
+    private LocalDateTime lastWeekStart;
+
+    @Setup
+    public void setUp() {
+        seriesStart = BenchmarkData.EPOCH.toLocalDate();
+        decadeEnd = seriesStart.plusYears(10);
+        lastWeekStart = decadeEnd.minusWeeks(1).atStartOfDay();
+        recurrenceRule = RecurrenceRule.parse(rule);
+        availabilities = BenchmarkData.weekdayAvailabilities(4);
+        for (Availability availability : availabilities) {
+            availability.setRecurrenceRule(rule);
+            availability.setStartDate(seriesStart);
+        }
+        scheduledSlots = List.of();
+    }
+
+    @Benchmark
+    public int lastWeekOfDecade() {
+        return count(recurrenceRule.occurrences(seriesStart, DayOfWeek.MONDAY,
+                lastWeekStart.toLocalDate(), decadeEnd));
+    }
+
+    @Benchmark
+    public int wholeDecade() {
+        return count(recurrenceRule.occurrences(seriesStart, DayOfWeek.MONDAY, seriesStart, decadeEnd));
+    }
+
+    @Benchmark
+    public List<AvailabilitySlotDto> availableSlotsInLastWeekOfDecade() {
+        return engine.generateAvailableSlots(availabilities, scheduledSlots,
+                lastWeekStart, decadeEnd.atStartOfDay(), userId);
+    }
+
+    private static int count(Iterator<LocalDate> dates) {
+        int count = 0;
+        while (dates.hasNext()) {
+            dates.next();
+            count++;
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RecurrenceExpansionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
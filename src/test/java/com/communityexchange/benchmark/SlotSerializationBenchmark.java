@@ -0,0 +1,107 @@
+package com.communityexchange.benchmark;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of available-slot responses, as a JSON array and as the NDJSON stream the
+ * controllers return as a Flux, with the same date handling Spring Boot configures for them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int slots;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+    private final StringHttpMessageConverter stringConverter = new StringHttpMessageConverter(StandardCharsets.UTF_8);
+
+    private List<AvailabilitySlotDto> availableSlots;
+    private ByteArrayOutputStream buffer;
+    private HttpOutputMessage outputMessage;
+
+    @Setup
+    public void setUp() {
+        availableSlots = BenchmarkData.availableSlots(UUID.randomUUID(), slots);
+        buffer = new ByteArrayOutputStream(slots * 128);
+        HttpHeaders headers = new HttpHeaders();
+        outputMessage = new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    @Benchmark
+    public byte[] jsonArray() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(availableSlots);
+    }
+
+    // What Spring MVC does for a Flux returned as application/x-ndjson: every element goes through the
+    // Jackson message converter as JSON, followed by a newline through the string converter
+    @Benchmark
+    public int ndjsonStream() {
+        buffer.reset();
+        Flux.fromIterable(availableSlots)
+                .doOnNext(slot -> {
+                    try {
+                        jsonConverter.write(slot, MediaType.APPLICATION_JSON, outputMessage);
+                        stringConverter.write("\n", MediaType.TEXT_PLAIN, outputMessage);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .blockLast();
+        return buffer.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlotSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
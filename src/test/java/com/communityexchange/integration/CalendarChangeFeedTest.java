@@ -0,0 +1,126 @@
+package com.communityexchange.integration;
+
+import com.communityexchange.model.dto.CalendarChangeDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import com.communityexchange.service.ScheduledSlotService;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: changes are only published once the writing transaction commits
+@SpringBootTest(properties = "calendar.changes.max-subscribers=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CalendarChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CalendarChangeBroadcaster calendarChangeBroadcaster;
+
+    @Autowired
+    private ScheduledSlotService scheduledSlotService;
+
+    @Autowired
+    private ScheduledSlotRepository scheduledSlotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        scheduledSlotRepository.deleteAll(scheduledSlotRepository.findByUserId(userId));
+    }
+
+    @Test
+    void committedChanges_ShouldBePublishedAndRolledBackOnesShouldNot() {
+        Flux<CalendarChangeDto> changes = calendarChangeBroadcaster.subscribe(Set.of(userId));
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            scheduledSlotService.createScheduledSlot(slot());
+            throw new IllegalStateException("rolled back");
+        }));
+        ScheduledSlotDto created = scheduledSlotService.createScheduledSlot(slot());
+        scheduledSlotService.deleteScheduledSlot(created.getId());
+
+        StepVerifier.create(changes)
+                .expectNextMatches(change -> change.getType() == CalendarChangeDto.Type.SLOT_CREATED
+                        && change.getResourceId().equals(created.getId())
+                        && change.getVersion() == 0L)
+                .expectNextMatches(change -> change.getType() == CalendarChangeDto.Type.SLOT_DELETED
+                        && change.getResourceId().equals(created.getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    // The MockMvc streams cannot be cancelled, so the context holding them is not reused
+    @Test
+    @DirtiesContext
+    void stream_ShouldWriteChangesAsServerSentEventsAndRefuseSubscribersOverTheLimit() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/calendars/changes/stream")
+                        .param("userIds", userId.toString())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult second = mockMvc.perform(get("/calendars/changes/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(get("/calendars/changes/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+
+        ScheduledSlotDto created = scheduledSlotService.createScheduledSlot(slot());
+
+        String resourceId = "\"resourceId\":\"" + created.getId() + "\"";
+        String body = awaitContent(stream, resourceId);
+        assertTrue(body.contains("event:SLOT_CREATED"));
+        assertTrue(body.contains("id:"));
+        assertTrue(awaitContent(second, resourceId).contains(userId.toString()));
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+
+    private ScheduledSlotDto slot() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        ScheduledSlotDto slot = new ScheduledSlotDto();
+        slot.setUserId(userId);
+        slot.setExchangeId(UUID.randomUUID());
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        return slot;
+    }
+}
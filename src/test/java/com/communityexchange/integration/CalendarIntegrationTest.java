@@ -94,7 +94,7 @@ public class CalendarIntegrationTest {
         assertNotNull(availabilities);
         assertFalse(availabilities.isEmpty());
         
-        List<ScheduledSlotDto> scheduledSlots = scheduledSlotService.getScheduledSlotsByUserId(userId);
+        List<ScheduledSlotDto> scheduledSlots = scheduledSlotService.getScheduledSlotsByUserId(userId, null, 100).getItems();
         assertNotNull(scheduledSlots);
         assertFalse(scheduledSlots.isEmpty());
         
@@ -107,7 +107,7 @@ public class CalendarIntegrationTest {
         // Verify that updating works
         AvailabilityDto toUpdate = mondayAvailabilities.get(0);
         toUpdate.setStartTime(LocalTime.of(10, 0));
-        AvailabilityDto updatedAvailability = availabilityService.updateAvailability(toUpdate.getId(), toUpdate);
+        AvailabilityDto updatedAvailability = availabilityService.updateAvailability(toUpdate.getId(), toUpdate, null);
         assertEquals(LocalTime.of(10, 0), updatedAvailability.getStartTime());
         
         // Get the UserCalendar entity from the repository for verification later
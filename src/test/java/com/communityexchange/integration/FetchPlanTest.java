@@ -0,0 +1,142 @@
+package com.communityexchange.integration;
+
+import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.repository.AvailabilityRepository;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import com.communityexchange.repository.UserCalendarRepository;
+import com.communityexchange.service.AvailabilityService;
+import com.communityexchange.service.ScheduledSlotService;
+import com.communityexchange.service.UserCalendarService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: entities left in a shared persistence context would hide the lazy loads being counted
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class FetchPlanTest {
+
+    private static final int USERS = 3;
+
+    @Autowired
+    private UserCalendarService userCalendarService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ScheduledSlotService scheduledSlotService;
+
+    @Autowired
+    private UserCalendarRepository userCalendarRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private ScheduledSlotRepository scheduledSlotRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private final List<UUID> calendarIds = new ArrayList<>();
+    private final LocalDateTime monday = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            UUID userId = UUID.randomUUID();
+            UserCalendarDto calendar = userCalendarService.createUserCalendar(userId);
+            for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)) {
+                AvailabilityDto availability = new AvailabilityDto();
+                availability.setUserCalendarId(calendar.getId());
+                availability.setDayOfWeek(day);
+                availability.setStartTime(LocalTime.of(9, 0));
+                availability.setEndTime(LocalTime.of(17, 0));
+                availabilityService.createAvailability(availability);
+            }
+            for (int hour = 9; hour < 12; hour++) {
+                ScheduledSlotDto slot = new ScheduledSlotDto();
+                slot.setUserId(userId);
+                slot.setExchangeId(UUID.randomUUID());
+                slot.setStartTime(monday.withHour(hour));
+                slot.setEndTime(monday.withHour(hour).plusMinutes(30));
+                slot.setTitle("Exchange");
+                slot.setDescription("Long exchange notes");
+                scheduledSlotService.createScheduledSlot(slot);
+            }
+            userIds.add(userId);
+            calendarIds.add(calendar.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userIds.forEach(userId -> scheduledSlotRepository.deleteAll(scheduledSlotRepository.findByUserId(userId)));
+        calendarIds.forEach(calendarId -> availabilityRepository.deleteAll(availabilityRepository.findByUserCalendarId(calendarId)));
+        userIds.forEach(userCalendarService::deleteUserCalendar);
+    }
+
+    @Test
+    void getUserCalendar_ShouldLoadCalendarAndAvailabilitiesInOneStatement() {
+        UserCalendarDto calendar = countStatements(1, () -> userCalendarService.getUserCalendar(userIds.get(0)));
+
+        assertEquals(2, calendar.getAvailabilities().size());
+    }
+
+    @Test
+    void availabilityReads_ShouldNotLoadTheOwningCalendarAgain() {
+        UUID calendarId = calendarIds.get(0);
+        List<AvailabilityDto> availabilities = countStatements(1, () -> availabilityService.getAvailabilitiesByUserCalendar(calendarId));
+        AvailabilityDto availability = countStatements(1, () -> availabilityService.getAvailabilityById(availabilities.get(0).getId()));
+
+        assertEquals(calendarId, availability.getUserCalendarId());
+    }
+
+    @Test
+    void scheduledSlotLists_ShouldUseOneStatementAndSkipTheDescription() {
+        List<ScheduledSlotDto> slots = countStatements(1, () ->
+                scheduledSlotService.getScheduledSlotsByUserId(userIds.get(0), null, 100).getItems());
+        List<ScheduledSlotDto> inRange = countStatements(1, () ->
+                scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(userIds.get(0), monday, monday.plusDays(1), null, 100).getItems());
+
+        assertEquals(3, slots.size());
+        assertEquals(3, inRange.size());
+        assertTrue(slots.stream().allMatch(slot -> slot.getDescription() == null));
+        assertEquals("Long exchange notes", scheduledSlotService.getScheduledSlotById(slots.get(0).getId()).getDescription());
+    }
+
+    @Test
+    void getCommonAvailableSlots_ShouldNotIssueAQueryPerParticipant() {
+        // The first call also loads every participant's override index, in one more batched statement
+        countStatements(4, () -> userCalendarService.getCommonAvailableSlots(userIds, monday, monday.plusDays(2)));
+        countStatements(3, () -> userCalendarService.getCommonAvailableSlots(userIds, monday, monday.plusDays(2)));
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Statements executed");
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package com.communityexchange.integration;
+
+import com.communityexchange.exception.PreconditionFailedException;
+import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.repository.AvailabilityRepository;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import com.communityexchange.service.AvailabilityService;
+import com.communityexchange.service.ScheduledSlotService;
+import com.communityexchange.service.UserCalendarService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: each update has to commit before the next one can see its version
+@SpringBootTest
+@ActiveProfiles("test")
+public class OptimisticLockingTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserCalendarService userCalendarService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ScheduledSlotService scheduledSlotService;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private ScheduledSlotRepository scheduledSlotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final UUID userId = UUID.randomUUID();
+    private UUID calendarId;
+
+    @BeforeEach
+    void setUp() {
+        UserCalendarDto calendar = userCalendarService.createUserCalendar(userId);
+        calendarId = calendar.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduledSlotRepository.deleteAll(scheduledSlotRepository.findByUserId(userId));
+        availabilityRepository.deleteAll(availabilityRepository.findByUserCalendarId(calendarId));
+        userCalendarService.deleteUserCalendar(userId);
+    }
+
+    @Test
+    void concurrentAvailabilityUpdates_FromTheSameVersion_ShouldLetExactlyOneWin() throws Exception {
+        AvailabilityDto created = availabilityService.createAvailability(availability(9));
+        assertEquals(0L, created.getVersion());
+
+        List<AvailabilityDto> winners = race(hour ->
+                availabilityService.updateAvailability(created.getId(), availability(hour), created.getVersion()));
+
+        assertEquals(1, winners.size());
+        assertEquals(1L, winners.get(0).getVersion());
+        AvailabilityDto stored = availabilityService.getAvailabilityById(created.getId());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(winners.get(0).getStartTime(), stored.getStartTime());
+    }
+
+    @Test
+    void concurrentSlotUpdates_FromTheSameVersion_ShouldLetExactlyOneWin() throws Exception {
+        ScheduledSlotDto created = scheduledSlotService.createScheduledSlot(slot(9));
+
+        List<ScheduledSlotDto> winners = race(hour ->
+                scheduledSlotService.updateScheduledSlot(created.getId(), slot(hour), created.getVersion()));
+
+        assertEquals(1, winners.size());
+        ScheduledSlotDto stored = scheduledSlotService.getScheduledSlotById(created.getId());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(winners.get(0).getStartTime(), stored.getStartTime());
+    }
+
+    @Test
+    void staleWrite_WithoutIfMatch_ShouldFailAtFlushInsteadOfOverwriting() {
+        AvailabilityDto created = availabilityService.createAvailability(availability(9));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            Availability stale = availabilityRepository.findById(created.getId()).orElseThrow();
+            // Another request commits its update between this read and the write below
+            CompletableFuture.runAsync(() ->
+                    availabilityService.updateAvailability(created.getId(), availability(10), null)).join();
+            stale.setStartTime(LocalTime.of(11, 0));
+            availabilityRepository.saveAndFlush(stale);
+        }));
+
+        AvailabilityDto stored = availabilityService.getAvailabilityById(created.getId());
+        assertEquals(LocalTime.of(10, 0), stored.getStartTime());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    // Every thread writes a different hour from the same starting version; all but one must be refused
+    private <T> List<T> race(IntFunction<T> update) throws Exception {
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<T>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int hour = 10 + thread;
+            Callable<T> worker = () -> {
+                start.await();
+                try {
+                    return update.apply(hour);
+                } catch (PreconditionFailedException ex) {
+                    refused.incrementAndGet();
+                    return null;
+                }
+            };
+            workers.add(executor.submit(worker));
+        }
+        start.countDown();
+        List<T> winners = new ArrayList<>();
+        for (Future<T> worker : workers) {
+            T result = worker.get(30, TimeUnit.SECONDS);
+            if (result != null) {
+                winners.add(result);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS - 1, refused.get());
+        return winners;
+    }
+
+    private AvailabilityDto availability(int startHour) {
+        AvailabilityDto availability = new AvailabilityDto();
+        availability.setUserCalendarId(calendarId);
+        availability.setDayOfWeek(DayOfWeek.MONDAY);
+        availability.setStartTime(LocalTime.of(startHour, 0));
+        availability.setEndTime(LocalTime.of(startHour + 1, 0));
+        return availability;
+    }
+
+    private ScheduledSlotDto slot(int startHour) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, startHour, 0);
+        ScheduledSlotDto slot = new ScheduledSlotDto();
+        slot.setUserId(userId);
+        slot.setExchangeId(UUID.randomUUID());
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        return slot;
+    }
+}
@@ -0,0 +1,136 @@
+package com.communityexchange.integration;
+
+import com.communityexchange.CalendarServiceApplication;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the same burst of JPA-backed reads through the application once on Tomcat's platform-thread
+ * pool and once on virtual threads, and prints the latency percentiles of both. Slow, so only run on
+ * demand: {@code ./mvnw test -Dtest=RequestThreadingLoadTest -Dload-test=true}.
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+public class RequestThreadingLoadTest {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 25;
+    private static final int POOL_SIZE = 10;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void compareP99Latency() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-9s p50=%6.1f ms  p99=%7.1f ms  max=%7.1f ms  rejected=%d%n",
+                "platform", platform.percentile(50), platform.percentile(99), platform.percentile(100), platform.rejected());
+        System.out.printf("%-9s p50=%6.1f ms  p99=%7.1f ms  max=%7.1f ms  rejected=%d%n",
+                "virtual", virtual.percentile(50), virtual.percentile(99), virtual.percentile(100), virtual.rejected());
+
+        for (Result result : List.of(platform, virtual)) {
+            assertEquals(0, result.failed());
+            assertTrue(result.rejected() < CLIENTS * REQUESTS_PER_CLIENT / 100);
+        }
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CalendarServiceApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.com.communityexchange=INFO",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "calendar.web.max-concurrent-requests=" + (virtualThreads ? 300 : 0),
+                        "calendar.web.concurrency-wait=PT2S")
+                .run()) {
+            seed(context.getBean(ScheduledSlotRepository.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/scheduled-slots/user/" + userId);
+
+            burst(uri, CLIENTS / 4, 10);
+            return burst(uri, CLIENTS, REQUESTS_PER_CLIENT);
+        }
+    }
+
+    private void seed(ScheduledSlotRepository scheduledSlotRepository) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 8, 0);
+        List<ScheduledSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ScheduledSlot slot = new ScheduledSlot();
+            slot.setUserId(userId);
+            slot.setExchangeId(UUID.randomUUID());
+            slot.setStartTime(start.plusHours(i));
+            slot.setEndTime(start.plusHours(i).plusMinutes(30));
+            slots.add(slot);
+        }
+        scheduledSlotRepository.saveAll(slots);
+    }
+
+    private static Result burst(URI uri, int clients, int requestsPerClient) throws Exception {
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build()) {
+            List<Future<?>> workers = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long started = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[next.getAndIncrement()] = System.nanoTime() - started;
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        } else if (response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, rejected.get(), failed.get());
+    }
+
+    private record Result(long[] sortedLatencies, int rejected, int failed) {
+
+        double percentile(int percentile) {
+            int index = Math.min(sortedLatencies.length - 1, (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
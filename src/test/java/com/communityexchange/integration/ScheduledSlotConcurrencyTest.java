@@ -0,0 +1,99 @@
+package com.communityexchange.integration;
+
+import com.communityexchange.exception.SchedulingConflictException;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import com.communityexchange.service.ScheduledSlotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: every booking has to commit for the others to see it
+@SpringBootTest
+@ActiveProfiles("test")
+public class ScheduledSlotConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int BOOKINGS_PER_THREAD = 25;
+
+    @Autowired
+    private ScheduledSlotService scheduledSlotService;
+
+    @Autowired
+    private ScheduledSlotRepository scheduledSlotRepository;
+
+    private final List<UUID> userIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+    @AfterEach
+    void tearDown() {
+        userIds.forEach(userId -> scheduledSlotRepository.deleteAll(scheduledSlotRepository.findByUserId(userId)));
+    }
+
+    @Test
+    void concurrentBookings_ShouldNeverProduceOverlappingSlots() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 7, 8, 0);
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    // 30-90 minute bookings inside a 10 hour day, so most attempts collide
+                    LocalDateTime slotStart = base.plusMinutes(15L * random.nextInt(40));
+                    ScheduledSlotDto slot = new ScheduledSlotDto();
+                    slot.setUserId(userIds.get(random.nextInt(userIds.size())));
+                    slot.setExchangeId(UUID.randomUUID());
+                    slot.setStartTime(slotStart);
+                    slot.setEndTime(slotStart.plusMinutes(30L + 15L * random.nextInt(5)));
+                    slot.setTitle("Stress booking");
+                    try {
+                        scheduledSlotService.createScheduledSlot(slot);
+                    } catch (SchedulingConflictException ex) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int booked = 0;
+        for (UUID userId : userIds) {
+            List<ScheduledSlot> slots = new ArrayList<>(scheduledSlotRepository.findByUserId(userId));
+            slots.sort(Comparator.comparing(ScheduledSlot::getStartTime));
+            for (int i = 1; i < slots.size(); i++) {
+                assertFalse(slots.get(i).getStartTime().isBefore(slots.get(i - 1).getEndTime()),
+                        "Overlapping bookings for user " + userId + " at " + slots.get(i).getStartTime());
+            }
+            booked += slots.size();
+        }
+        assertTrue(booked > 0);
+        assertEquals(THREADS * BOOKINGS_PER_THREAD, booked + conflicts.get());
+    }
+}
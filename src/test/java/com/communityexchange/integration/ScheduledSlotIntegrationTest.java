@@ -66,7 +66,7 @@ public class ScheduledSlotIntegrationTest {
         assertEquals(exchangeId, retrievedByExchangeId.getExchangeId());
 
         // Test retrieving by user ID
-        List<ScheduledSlotDto> slotsByUser = scheduledSlotService.getScheduledSlotsByUserId(userId);
+        List<ScheduledSlotDto> slotsByUser = scheduledSlotService.getScheduledSlotsByUserId(userId, null, 100).getItems();
         assertNotNull(slotsByUser);
         assertFalse(slotsByUser.isEmpty());
         assertEquals(1, slotsByUser.size());
@@ -74,7 +74,7 @@ public class ScheduledSlotIntegrationTest {
 
         // Test retrieving by date range
         List<ScheduledSlotDto> slotsByDateRange = scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(
-                userId, now, now.plusDays(2));
+                userId, now, now.plusDays(2), null, 100).getItems();
         assertNotNull(slotsByDateRange);
         assertFalse(slotsByDateRange.isEmpty());
         assertEquals(1, slotsByDateRange.size());
@@ -86,14 +86,14 @@ public class ScheduledSlotIntegrationTest {
         updateDto.setStartTime(startTime.plusHours(1));
         updateDto.setEndTime(endTime.plusHours(1));
 
-        ScheduledSlotDto updatedSlot = scheduledSlotService.updateScheduledSlot(createdSlot.getId(), updateDto);
+        ScheduledSlotDto updatedSlot = scheduledSlotService.updateScheduledSlot(createdSlot.getId(), updateDto, createdSlot.getVersion());
         assertNotNull(updatedSlot);
         assertEquals("Updated Meeting Title", updatedSlot.getTitle());
         assertEquals("Updated meeting description", updatedSlot.getDescription());
         assertEquals(startTime.plusHours(1), updatedSlot.getStartTime());
 
         // Test confirming
-        ScheduledSlotDto confirmedSlot = scheduledSlotService.confirmScheduledSlot(createdSlot.getId());
+        ScheduledSlotDto confirmedSlot = scheduledSlotService.confirmScheduledSlot(createdSlot.getId(), null);
         assertNotNull(confirmedSlot);
         assertTrue(confirmedSlot.isConfirmed());
 
@@ -122,17 +122,17 @@ public class ScheduledSlotIntegrationTest {
         }
 
         // Verify all slots were created
-        List<ScheduledSlotDto> userSlots = scheduledSlotService.getScheduledSlotsByUserId(userId);
+        List<ScheduledSlotDto> userSlots = scheduledSlotService.getScheduledSlotsByUserId(userId, null, 100).getItems();
         assertNotNull(userSlots);
         assertEquals(3, userSlots.size());
 
         // Verify date range filtering works
         List<ScheduledSlotDto> dayOneSlots = scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(
-                userId, now, now.plusDays(1));
+                userId, now, now.plusDays(1), null, 100).getItems();
         assertEquals(1, dayOneSlots.size());
 
         List<ScheduledSlotDto> dayTwoSlots = scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(
-                userId, now.plusDays(1), now.plusDays(2));
+                userId, now.plusDays(1), now.plusDays(2), null, 100).getItems();
         assertEquals(1, dayTwoSlots.size());
 
         // Clean up all created slots
@@ -141,7 +141,7 @@ public class ScheduledSlotIntegrationTest {
         }
 
         // Verify all slots were deleted
-        List<ScheduledSlotDto> slotsAfterDeletion = scheduledSlotService.getScheduledSlotsByUserId(userId);
+        List<ScheduledSlotDto> slotsAfterDeletion = scheduledSlotService.getScheduledSlotsByUserId(userId, null, 100).getItems();
         assertTrue(slotsAfterDeletion.isEmpty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.communityexchange.model.mapper;
+
+import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.entity.UserCalendar;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The mappers replaced a default ModelMapper; these pin them to the output it used to produce
+public class DtoMappersTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final AvailabilityMapper availabilityMapper = new AvailabilityMapper();
+    private final AvailabilityOverrideMapper availabilityOverrideMapper = new AvailabilityOverrideMapper();
+    private final ScheduledSlotMapper scheduledSlotMapper = new ScheduledSlotMapper();
+    private final UserCalendarMapper userCalendarMapper = new UserCalendarMapper(availabilityMapper);
+
+    @Test
+    void scheduledSlotToDto_ShouldMatchModelMapper() {
+        ScheduledSlot scheduledSlot = scheduledSlot();
+
+        assertScheduledSlotDtoEquals(modelMapper.map(scheduledSlot, ScheduledSlotDto.class), scheduledSlotMapper.toDto(scheduledSlot));
+    }
+
+    @Test
+    void scheduledSlotToEntity_ShouldCopyEverythingButTheId() {
+        ScheduledSlotDto scheduledSlotDto = scheduledSlotMapper.toDto(scheduledSlot());
+
+        ScheduledSlot scheduledSlot = scheduledSlotMapper.toEntity(scheduledSlotDto);
+
+        assertNull(scheduledSlot.getId());
+        assertScheduledSlotDtoEquals(scheduledSlotDto, modelMapper.map(scheduledSlot, ScheduledSlotDto.class), false);
+    }
+
+    @Test
+    void availabilityToDto_ShouldMatchModelMapper() {
+        Availability availability = calendarWithAvailability().getAvailabilities().iterator().next();
+
+        assertAvailabilityDtoEquals(modelMapper.map(availability, AvailabilityDto.class), availabilityMapper.toDto(availability));
+    }
+
+    @Test
+    void availabilityToEntity_ShouldLeaveIdAndCalendarToTheCaller() {
+        AvailabilityDto availabilityDto = availabilityMapper.toDto(calendarWithAvailability().getAvailabilities().iterator().next());
+
+        Availability availability = availabilityMapper.toEntity(availabilityDto);
+
+        assertNull(availability.getId());
+        assertNull(availability.getUserCalendar());
+        assertEquals(availabilityDto.getDayOfWeek(), availability.getDayOfWeek());
+        assertEquals(availabilityDto.getStartTime(), availability.getStartTime());
+        assertEquals(availabilityDto.getEndTime(), availability.getEndTime());
+        assertEquals(availabilityDto.isRecurring(), availability.isRecurring());
+        assertEquals(availabilityDto.isActive(), availability.isActive());
+        assertEquals(availabilityDto.getRecurrenceRule(), availability.getRecurrenceRule());
+        assertEquals(availabilityDto.getStartDate(), availability.getStartDate());
+    }
+
+    @Test
+    void availabilityOverrideRoundTrip_ShouldKeepEverythingButIdAndCalendar() {
+        UserCalendar userCalendar = calendarWithAvailability();
+        AvailabilityOverride availabilityOverride = new AvailabilityOverride();
+        availabilityOverride.setId(UUID.randomUUID());
+        availabilityOverride.setUserCalendar(userCalendar);
+        availabilityOverride.setDate(LocalDate.of(2024, 12, 25));
+        availabilityOverride.setType(AvailabilityOverride.Type.BLACKOUT);
+        availabilityOverride.setStartTime(LocalTime.of(12, 0));
+        availabilityOverride.setEndTime(LocalTime.of(13, 0));
+        availabilityOverride.setReason("Lunch with family");
+
+        AvailabilityOverrideDto availabilityOverrideDto = availabilityOverrideMapper.toDto(availabilityOverride);
+        AvailabilityOverride mapped = availabilityOverrideMapper.toEntity(availabilityOverrideDto);
+
+        assertEquals(availabilityOverride.getId(), availabilityOverrideDto.getId());
+        assertEquals(userCalendar.getId(), availabilityOverrideDto.getUserCalendarId());
+        assertNull(mapped.getId());
+        assertNull(mapped.getUserCalendar());
+        assertEquals(availabilityOverride.getDate(), mapped.getDate());
+        assertEquals(availabilityOverride.getType(), mapped.getType());
+        assertEquals(availabilityOverride.getStartTime(), mapped.getStartTime());
+        assertEquals(availabilityOverride.getEndTime(), mapped.getEndTime());
+        assertEquals(availabilityOverride.getReason(), mapped.getReason());
+    }
+
+    @Test
+    void userCalendarToDto_ShouldMatchModelMapper() {
+        UserCalendar userCalendar = calendarWithAvailability();
+
+        UserCalendarDto expected = modelMapper.map(userCalendar, UserCalendarDto.class);
+        UserCalendarDto actual = userCalendarMapper.toDto(userCalendar);
+
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(1, actual.getAvailabilities().size());
+        assertAvailabilityDtoEquals(expected.getAvailabilities().get(0), actual.getAvailabilities().get(0));
+    }
+
+    private static ScheduledSlot scheduledSlot() {
+        ScheduledSlot scheduledSlot = new ScheduledSlot();
+        scheduledSlot.setId(UUID.randomUUID());
+        scheduledSlot.setUserId(UUID.randomUUID());
+        scheduledSlot.setExchangeId(UUID.randomUUID());
+        scheduledSlot.setStartTime(LocalDateTime.of(2024, 1, 1, 9, 0));
+        scheduledSlot.setEndTime(LocalDateTime.of(2024, 1, 1, 10, 0));
+        scheduledSlot.setTitle("Guitar lesson");
+        scheduledSlot.setDescription("Bring the capo");
+        scheduledSlot.setConfirmed(true);
+        return scheduledSlot;
+    }
+
+    private static UserCalendar calendarWithAvailability() {
+        UserCalendar userCalendar = new UserCalendar();
+        userCalendar.setId(UUID.randomUUID());
+        userCalendar.setUserId(UUID.randomUUID());
+        Availability availability = new Availability();
+        availability.setId(UUID.randomUUID());
+        availability.setDayOfWeek(DayOfWeek.WEDNESDAY);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(12, 0));
+        availability.setRecurring(false);
+        availability.setActive(false);
+        availability.setRecurrenceRule("FREQ=MONTHLY;BYDAY=1WE");
+        availability.setStartDate(LocalDate.of(2024, 1, 3));
+        userCalendar.addAvailability(availability);
+        return userCalendar;
+    }
+
+    private static void assertScheduledSlotDtoEquals(ScheduledSlotDto expected, ScheduledSlotDto actual) {
+        assertScheduledSlotDtoEquals(expected, actual, true);
+    }
+
+    private static void assertScheduledSlotDtoEquals(ScheduledSlotDto expected, ScheduledSlotDto actual, boolean compareIds) {
+        if (compareIds) {
+            assertEquals(expected.getId(), actual.getId());
+        }
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getExchangeId(), actual.getExchangeId());
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.isConfirmed(), actual.isConfirmed());
+    }
+
+    private static void assertAvailabilityDtoEquals(AvailabilityDto expected, AvailabilityDto actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUserCalendarId(), actual.getUserCalendarId());
+        assertEquals(expected.getDayOfWeek(), actual.getDayOfWeek());
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertEquals(expected.isRecurring(), actual.isRecurring());
+        assertEquals(expected.isActive(), actual.isActive());
+        assertEquals(expected.getRecurrenceRule(), actual.getRecurrenceRule());
+        assertEquals(expected.getStartDate(), actual.getStartDate());
+    }
+}
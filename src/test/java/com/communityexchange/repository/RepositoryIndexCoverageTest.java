@@ -0,0 +1,106 @@
+package com.communityexchange.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the schema the migrations build, which Hibernate has already validated at startup
+@SpringBootTest
+@ActiveProfiles("test")
+public class RepositoryIndexCoverageTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            AvailabilityRepository.class,
+            AvailabilityOverrideRepository.class,
+            ScheduledSlotRepository.class,
+            UserCalendarRepository.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A derived query is supported when every OR branch filters on the leading column of some index,
+    // so the database can seek instead of scanning the table
+    @Test
+    void derivedQueries_ShouldAllHaveASupportingIndex() {
+        List<String> unsupported = new ArrayList<>();
+        int checked = 0;
+        for (Class<?> repository : REPOSITORIES) {
+            Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+            Set<String> leadingColumns = leadingIndexColumns(domainType.getAnnotation(Table.class).name());
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Query.class) || method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                checked++;
+                for (PartTree.OrPart branch : new PartTree(method.getName(), domainType)) {
+                    Set<String> columns = branch.stream()
+                            .map(Part::getProperty)
+                            .map(property -> columnOf(domainType, property))
+                            .collect(Collectors.toSet());
+                    if (columns.stream().noneMatch(leadingColumns::contains)) {
+                        unsupported.add(repository.getSimpleName() + "." + method.getName() + " filtering on " + columns);
+                    }
+                }
+            }
+        }
+
+        assertTrue(checked > 0);
+        assertTrue(unsupported.isEmpty(), () -> "Derived queries without a supporting index: " + unsupported);
+    }
+
+    @Test
+    void migrations_ShouldCreateTheQueryIndexes() {
+        assertTrue(leadingIndexColumns("availabilities").contains("user_calendar_id"));
+        assertTrue(leadingIndexColumns("scheduled_slots").containsAll(Set.of("user_id", "start_time", "exchange_id")));
+        assertTrue(leadingIndexColumns("user_calendars").contains("user_id"));
+    }
+
+    // Includes the indexes behind primary keys and unique constraints, but not the ones H2 adds for foreign
+    // keys on its own: PostgreSQL has no such indexes, so a query relying on them would scan there
+    private Set<String> leadingIndexColumns(String table) {
+        Set<String> columns = jdbcTemplate.queryForList("""
+                        select c.column_name from information_schema.index_columns c
+                        join information_schema.indexes i on i.index_schema = c.index_schema and i.index_name = c.index_name
+                        where c.table_name = ? and c.ordinal_position = 1
+                        and (i.index_type_name <> 'INDEX' or not i.is_generated)""",
+                        String.class, table.toUpperCase(Locale.ROOT)).stream()
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        assertFalse(columns.isEmpty(), "No indexes found on " + table);
+        return columns;
+    }
+
+    // A nested path such as userCalendar.id filters on the join column of its first segment
+    private static String columnOf(Class<?> domainType, PropertyPath property) {
+        Field field = ReflectionUtils.findField(domainType, property.getSegment());
+        assertNotNull(field, property.toDotPath());
+        JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+        if (joinColumn != null) {
+            return joinColumn.name();
+        }
+        Column column = field.getAnnotation(Column.class);
+        return column != null && !column.name().isEmpty() ? column.name() : field.getName();
+    }
+}
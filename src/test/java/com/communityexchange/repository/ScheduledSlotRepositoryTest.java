@@ -0,0 +1,176 @@
+package com.communityexchange.repository;
+
+import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.communityexchange.repository.ScheduledSlotRepositoryTest$RecordingStatementInspector")
+@ActiveProfiles("test")
+@Transactional
+public class ScheduledSlotRepositoryTest {
+
+    @Autowired
+    private ScheduledSlotRepository scheduledSlotRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDateTime windowStart = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private final LocalDateTime windowEnd = LocalDateTime.of(2024, 1, 1, 17, 0);
+
+    private ScheduledSlot startsBefore;
+    private ScheduledSlot inside;
+
+    @BeforeEach
+    void setUp() {
+        startsBefore = save(userId, windowStart.minusHours(2), windowStart.plusHours(1));
+        inside = save(userId, windowStart.plusHours(3), windowStart.plusHours(4));
+        save(userId, windowStart.minusHours(1), windowStart);
+        save(userId, windowEnd, windowEnd.plusHours(1));
+        save(UUID.randomUUID(), windowStart, windowEnd);
+        entityManager.flush();
+    }
+
+    @Test
+    void findOverlapping_ShouldIncludeSlotsStartingBeforeWindowAndExcludeTouchingOnes() {
+        List<ScheduledSlot> overlapping = scheduledSlotRepository.findOverlapping(userId, windowStart, windowEnd);
+
+        assertEquals(Set.of(startsBefore.getId(), inside.getId()),
+                Set.copyOf(overlapping.stream().map(ScheduledSlot::getId).toList()));
+    }
+
+    @Test
+    void existsOverlapping_ShouldDetectConflictsAndHonourExclusion() {
+        assertTrue(scheduledSlotRepository.existsOverlapping(userId, windowStart.plusHours(3), windowStart.plusHours(5)));
+        assertFalse(scheduledSlotRepository.existsOverlapping(userId, windowStart.plusHours(5), windowEnd));
+        assertFalse(scheduledSlotRepository.existsOverlapping(userId, windowEnd.plusHours(1), windowEnd.plusHours(2)));
+        assertFalse(scheduledSlotRepository.existsOverlappingExcluding(
+                userId, windowStart.plusHours(3), windowStart.plusHours(5), inside.getId()));
+    }
+
+    @Test
+    void keysetPages_ShouldWalkSlotsStartingInRangeInOrder() {
+        List<ScheduledSlotSummary> firstPage = scheduledSlotRepository.findFirstPageStartingBetween(
+                userId, windowStart.minusHours(1), windowEnd, Limit.of(2));
+        ScheduledSlotSummary last = firstPage.get(1);
+        List<ScheduledSlotSummary> secondPage = scheduledSlotRepository.findPageStartingAfter(
+                userId, last.startTime(), last.id(), windowEnd, Limit.of(2));
+
+        assertEquals(List.of(windowStart.minusHours(1), windowStart.plusHours(3)),
+                firstPage.stream().map(ScheduledSlotSummary::startTime).toList());
+        assertEquals(List.of(windowEnd), secondPage.stream().map(ScheduledSlotSummary::startTime).toList());
+    }
+
+    @Test
+    void keysetPages_ShouldBreakStartTimeTiesById() {
+        UUID owner = UUID.randomUUID();
+        List<UUID> tiedIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tiedIds.add(save(owner, windowStart, windowEnd).getId());
+        }
+        entityManager.flush();
+
+        List<ScheduledSlotSummary> firstPage = scheduledSlotRepository.findFirstPage(owner, Limit.of(2));
+        ScheduledSlotSummary last = firstPage.get(1);
+        List<ScheduledSlotSummary> secondPage = scheduledSlotRepository.findPageAfter(
+                owner, last.startTime(), last.id(), Limit.of(2));
+
+        // The ID order is the database's own, so only check that the pages split the tie without gaps or repeats
+        List<UUID> walked = new ArrayList<>(firstPage.stream().map(ScheduledSlotSummary::id).toList());
+        walked.addAll(secondPage.stream().map(ScheduledSlotSummary::id).toList());
+        assertEquals(3, walked.size());
+        assertEquals(Set.copyOf(tiedIds), Set.copyOf(walked));
+    }
+
+    // H2 does not weigh the ORDER BY when choosing an index, so it may pick either index leading with
+    // (user_id, start_time); what matters is that the page starts with a seek to the cursor rather than
+    // reading every slot of the user
+    @Test
+    void keysetQuery_ShouldSeekToTheCursorOnAUserAndStartTimeIndex() {
+        String sql = generatedSql(() -> scheduledSlotRepository.findPageAfter(userId, windowStart, inside.getId(), Limit.of(2)));
+
+        String plan = explain(sql, userId, windowStart, windowStart, windowStart, inside.getId(), 0, 2);
+
+        assertTrue(Pattern.compile("IDX_SCHEDULED_SLOTS_USER_(START_ID|TIME): USER_ID = \\?1\\s+AND START_TIME >= \\?2")
+                .matcher(plan.toUpperCase()).find(), plan);
+    }
+
+    @Test
+    void overlapQuery_ShouldBeServedByCompositeIndex() {
+        String sql = generatedSql(() -> scheduledSlotRepository.findOverlapping(userId, windowStart, windowEnd));
+
+        String plan = explain(sql, userId, windowEnd, windowStart);
+
+        assertTrue(plan.toUpperCase().contains("IDX_SCHEDULED_SLOTS_USER_TIME"), plan);
+    }
+
+    // The statement Hibernate generated for the repository call, as recorded by the inspector
+    private static String generatedSql(Runnable query) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        query.run();
+        List<String> selects = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select"))
+                .toList();
+        assertEquals(1, selects.size(), selects::toString);
+        return selects.get(0);
+    }
+
+    // Parameters are bound in the order their placeholders appear in the generated SQL
+    private String explain(String sql, Object... parameters) {
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private ScheduledSlot save(UUID owner, LocalDateTime start, LocalDateTime end) {
+        ScheduledSlot slot = new ScheduledSlot();
+        slot.setUserId(owner);
+        slot.setExchangeId(UUID.randomUUID());
+        slot.setStartTime(start);
+        slot.setEndTime(end);
+        return scheduledSlotRepository.save(slot);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.communityexchange.repository;
+
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Starts on a database laid out and filled the way ddl-auto=update left it before the migrations took over;
+// the context only loads if the migrations bring it up to the schema Hibernate validates
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:pre_migration_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private static final UUID CALENDAR_ID = UUID.randomUUID();
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID AVAILABILITY_ID = UUID.randomUUID();
+    private static final UUID SLOT_ID = UUID.randomUUID();
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private ScheduledSlotRepository scheduledSlotRepository;
+
+    @Autowired
+    private UserCalendarRepository userCalendarRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void preMigrationDatabase(DynamicPropertyRegistry registry) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbc.execute("""
+                create table user_calendars (
+                    id uuid not null, user_id uuid not null unique,
+                    created_at timestamp(6), updated_at timestamp(6),
+                    primary key (id))""");
+        jdbc.execute("""
+                create table availabilities (
+                    id uuid not null, user_calendar_id uuid not null references user_calendars (id),
+                    day_of_week varchar(255) not null, start_time time(6) not null, end_time time(6) not null,
+                    is_recurring boolean not null, is_active boolean not null,
+                    primary key (id))""");
+        jdbc.execute("""
+                create table scheduled_slots (
+                    id uuid not null, user_id uuid not null, exchange_id uuid not null unique,
+                    start_time timestamp(6) not null, end_time timestamp(6) not null,
+                    title varchar(255), description text, is_confirmed boolean not null,
+                    created_at timestamp(6), updated_at timestamp(6),
+                    primary key (id))""");
+        jdbc.update("insert into user_calendars (id, user_id) values (?, ?)", CALENDAR_ID, USER_ID);
+        jdbc.update("insert into availabilities values (?, ?, 'MONDAY', ?, ?, true, true)",
+                AVAILABILITY_ID, CALENDAR_ID, LocalTime.of(9, 0), LocalTime.of(17, 0));
+        jdbc.update("insert into scheduled_slots (id, user_id, exchange_id, start_time, end_time, is_confirmed) values (?, ?, ?, ?, ?, false)",
+                SLOT_ID, USER_ID, UUID.randomUUID(), LocalDateTime.of(2030, 1, 7, 10, 0), LocalDateTime.of(2030, 1, 7, 11, 0));
+
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void migrations_ShouldBaselineAnUnversionedDatabaseAndAddTheNewColumnsToItsRows() {
+        List<Map<String, Object>> history = jdbcTemplate.queryForList("select \"version\", \"type\" from \"flyway_schema_history\""
+                + " where \"success\" and \"version\" is not null order by \"installed_rank\"");
+        assertEquals(Map.of("version", "0", "type", "BASELINE"), Map.copyOf(history.get(0)));
+        assertEquals(List.of("1", "2", "3"), history.subList(1, history.size()).stream().map(row -> row.get("version")).toList());
+
+        assertEquals(CALENDAR_ID, userCalendarRepository.findIdByUserId(USER_ID).orElseThrow());
+        Availability availability = availabilityRepository.findById(AVAILABILITY_ID).orElseThrow();
+        assertEquals(0, availability.getVersion());
+        assertEquals(0, availability.getChangeSequence());
+        assertNull(availability.getRecurrenceRule());
+        ScheduledSlot slot = scheduledSlotRepository.findById(SLOT_ID).orElseThrow();
+        assertEquals(0, slot.getVersion());
+        assertEquals(0, slot.getChangeSequence());
+    }
+}
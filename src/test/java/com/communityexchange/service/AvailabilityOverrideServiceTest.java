@@ -0,0 +1,172 @@
+package com.communityexchange.service;
+
+import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.model.dto.CalendarChangeDto;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.model.mapper.AvailabilityOverrideMapper;
+import com.communityexchange.repository.AvailabilityOverrideRepository;
+import com.communityexchange.repository.UserCalendarRepository;
+import com.communityexchange.service.impl.AvailabilityOverrideServiceImpl;
+import com.communityexchange.service.slot.AvailabilityOverrideRegistry;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.CalendarVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityOverrideServiceTest {
+
+    @Mock
+    private AvailabilityOverrideRepository availabilityOverrideRepository;
+
+    @Mock
+    private UserCalendarRepository userCalendarRepository;
+
+    @Mock
+    private AvailabilityOverrideRegistry availabilityOverrideRegistry;
+
+    @Mock
+    private AvailableSlotCache availableSlotCache;
+
+    @Mock
+    private CalendarIdentityCache calendarIdentityCache;
+
+    @Mock
+    private CalendarVersions calendarVersions;
+
+    @Mock
+    private CalendarChangeBroadcaster calendarChangeBroadcaster;
+
+    @Spy
+    private AvailabilityOverrideMapper availabilityOverrideMapper = new AvailabilityOverrideMapper();
+
+    @InjectMocks
+    private AvailabilityOverrideServiceImpl availabilityOverrideService;
+
+    private UserCalendar userCalendar;
+    private AvailabilityOverride availabilityOverride;
+    private AvailabilityOverrideDto availabilityOverrideDto;
+    private final UUID userCalendarId = UUID.randomUUID();
+    private final UUID overrideId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDate date = LocalDate.of(2030, 1, 7);
+
+    @BeforeEach
+    void setUp() {
+        userCalendar = new UserCalendar();
+        userCalendar.setId(userCalendarId);
+        userCalendar.setUserId(userId);
+
+        availabilityOverride = new AvailabilityOverride();
+        availabilityOverride.setId(overrideId);
+        availabilityOverride.setUserCalendar(userCalendar);
+        availabilityOverride.setDate(date);
+        availabilityOverride.setType(AvailabilityOverride.Type.EXTRA);
+        availabilityOverride.setStartTime(LocalTime.of(18, 0));
+        availabilityOverride.setEndTime(LocalTime.of(20, 0));
+
+        availabilityOverrideDto = new AvailabilityOverrideDto();
+        availabilityOverrideDto.setUserCalendarId(userCalendarId);
+        availabilityOverrideDto.setDate(date);
+        availabilityOverrideDto.setType(AvailabilityOverride.Type.EXTRA);
+        availabilityOverrideDto.setStartTime(LocalTime.of(18, 0));
+        availabilityOverrideDto.setEndTime(LocalTime.of(20, 0));
+    }
+
+    @Test
+    void createAvailabilityOverride_ShouldSaveAndRebuildTheIndexAfterCommit() {
+        // Arrange
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId)).thenReturn(userId);
+        when(userCalendarRepository.getReferenceById(userCalendarId)).thenReturn(userCalendar);
+        when(availabilityOverrideRepository.save(any(AvailabilityOverride.class))).thenReturn(availabilityOverride);
+
+        // Act
+        AvailabilityOverrideDto result = availabilityOverrideService.createAvailabilityOverride(availabilityOverrideDto);
+
+        // Assert
+        assertEquals(overrideId, result.getId());
+        assertEquals(userCalendarId, result.getUserCalendarId());
+        assertEquals(date, result.getDate());
+        verify(calendarVersions).touch(userId);
+        verify(availabilityOverrideRegistry).evictAfterCommit(userId);
+        verify(availableSlotCache).evictUserAfterCommit(userId);
+        verify(calendarChangeBroadcaster).publishAfterCommit(
+                eq(CalendarChangeDto.Type.OVERRIDE_CREATED), eq(userId), eq(overrideId), any());
+    }
+
+    @Test
+    void createAvailabilityOverride_WithNonexistentUserCalendar_ShouldThrowException() {
+        // Arrange
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId))
+                .thenThrow(new ResourceNotFoundException("User calendar not found with id: " + userCalendarId));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> availabilityOverrideService.createAvailabilityOverride(availabilityOverrideDto));
+        verify(availabilityOverrideRepository, never()).save(any(AvailabilityOverride.class));
+        verifyNoInteractions(availabilityOverrideRegistry, availableSlotCache);
+    }
+
+    @Test
+    void getAvailabilityOverridesByUserCalendar_ShouldPassTheRangeThrough() {
+        // Arrange
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId)).thenReturn(userId);
+        when(availabilityOverrideRepository.findInRange(userCalendarId, date, null)).thenReturn(List.of(availabilityOverride));
+
+        // Act
+        List<AvailabilityOverrideDto> result =
+                availabilityOverrideService.getAvailabilityOverridesByUserCalendar(userCalendarId, date, null);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(AvailabilityOverride.Type.EXTRA, result.get(0).getType());
+    }
+
+    @Test
+    void deleteAvailabilityOverride_WithValidId_ShouldDeleteAndRebuildTheIndexAfterCommit() {
+        // Arrange
+        when(availabilityOverrideRepository.findWithUserCalendarById(overrideId)).thenReturn(Optional.of(availabilityOverride));
+
+        // Act
+        availabilityOverrideService.deleteAvailabilityOverride(overrideId);
+
+        // Assert
+        verify(availabilityOverrideRepository).delete(availabilityOverride);
+        verify(calendarVersions).touch(userId);
+        verify(availabilityOverrideRegistry).evictAfterCommit(userId);
+        verify(availableSlotCache).evictUserAfterCommit(userId);
+        verify(calendarChangeBroadcaster).publishAfterCommit(CalendarChangeDto.Type.OVERRIDE_DELETED, userId, overrideId, null);
+    }
+
+    @Test
+    void deleteAvailabilityOverride_WithNonexistentId_ShouldThrowException() {
+        // Arrange
+        when(availabilityOverrideRepository.findWithUserCalendarById(any(UUID.class))).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> availabilityOverrideService.deleteAvailabilityOverride(UUID.randomUUID()));
+        verify(availabilityOverrideRepository, never()).delete(any(AvailabilityOverride.class));
+        verifyNoInteractions(availabilityOverrideRegistry, availableSlotCache);
+    }
+}
@@ -1,31 +1,48 @@
 package com.communityexchange.service;
 
+import com.communityexchange.exception.PreconditionFailedException;
 import com.communityexchange.exception.ResourceNotFoundException;
 import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.BulkResultDto;
+import com.communityexchange.model.dto.CalendarChangeDto;
 import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.CalendarTombstone;
 import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.model.mapper.AvailabilityMapper;
 import com.communityexchange.repository.AvailabilityRepository;
 import com.communityexchange.repository.UserCalendarRepository;
 import com.communityexchange.service.impl.AvailabilityServiceImpl;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.slot.WeeklyAvailabilityRegistry;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import com.communityexchange.service.support.CalendarVersions;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +55,25 @@ public class AvailabilityServiceTest {
     private UserCalendarRepository userCalendarRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private WeeklyAvailabilityRegistry weeklyAvailabilityRegistry;
+
+    @Mock
+    private AvailableSlotCache availableSlotCache;
+
+    @Mock
+    private CalendarIdentityCache calendarIdentityCache;
+
+    @Mock
+    private CalendarVersions calendarVersions;
+
+    @Mock
+    private CalendarChangeBroadcaster calendarChangeBroadcaster;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private AvailabilityMapper availabilityMapper = new AvailabilityMapper();
 
     @InjectMocks
     private AvailabilityServiceImpl availabilityService;
@@ -81,10 +116,9 @@ public class AvailabilityServiceTest {
     @Test
     void createAvailability_ShouldCreateAvailabilitySuccessfully() {
         // Arrange
-        when(userCalendarRepository.findById(userCalendarId)).thenReturn(Optional.of(userCalendar));
-        when(modelMapper.map(availabilityDto, Availability.class)).thenReturn(availability);
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId)).thenReturn(userId);
+        when(userCalendarRepository.getReferenceById(userCalendarId)).thenReturn(userCalendar);
         when(availabilityRepository.save(any(Availability.class))).thenReturn(availability);
-        when(modelMapper.map(availability, AvailabilityDto.class)).thenReturn(availabilityDto);
 
         // Act
         AvailabilityDto result = availabilityService.createAvailability(availabilityDto);
@@ -97,26 +131,77 @@ public class AvailabilityServiceTest {
         assertEquals(availabilityDto.getEndTime(), result.getEndTime());
         assertTrue(result.isRecurring());
         assertTrue(result.isActive());
-        verify(userCalendarRepository).findById(userCalendarId);
+        verify(userCalendarRepository, never()).findById(any(UUID.class));
         verify(availabilityRepository).save(any(Availability.class));
+        verify(calendarVersions).touch(userId);
+        verify(calendarChangeBroadcaster).publishAfterCommit(eq(CalendarChangeDto.Type.AVAILABILITY_CREATED), eq(userId), any(), any());
+        verify(weeklyAvailabilityRegistry).evictAfterCommit(userId);
+        verify(availableSlotCache).evictUserAfterCommit(userId);
+    }
+
+    @Test
+    void createAvailability_WithRecurrenceRuleButNoStartDate_ShouldStartTheSeriesToday() {
+        availabilityDto.setRecurrenceRule("FREQ=MONTHLY;BYDAY=1MO");
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId)).thenReturn(userId);
+        when(userCalendarRepository.getReferenceById(userCalendarId)).thenReturn(userCalendar);
+        ArgumentCaptor<Availability> saved = ArgumentCaptor.forClass(Availability.class);
+        when(availabilityRepository.save(saved.capture())).thenReturn(availability);
+
+        availabilityService.createAvailability(availabilityDto);
+
+        assertEquals("FREQ=MONTHLY;BYDAY=1MO", saved.getValue().getRecurrenceRule());
+        assertEquals(LocalDate.now(), saved.getValue().getStartDate());
     }
 
     @Test
     void createAvailability_WithNonexistentUserCalendar_ShouldThrowException() {
         // Arrange
-        when(userCalendarRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId))
+                .thenThrow(new ResourceNotFoundException("User calendar not found with id: " + userCalendarId));
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> availabilityService.createAvailability(availabilityDto));
-        verify(userCalendarRepository).findById(userCalendarId);
         verify(availabilityRepository, never()).save(any(Availability.class));
     }
 
+    @Test
+    void createAvailabilities_ShouldSaveValidItemsInOneBatchAndReportTheRest() {
+        // Arrange
+        UUID unknownCalendarId = UUID.randomUUID();
+        AvailabilityDto unknownCalendar = new AvailabilityDto();
+        unknownCalendar.setUserCalendarId(unknownCalendarId);
+        unknownCalendar.setDayOfWeek(DayOfWeek.TUESDAY);
+        unknownCalendar.setStartTime(LocalTime.of(9, 0));
+        unknownCalendar.setEndTime(LocalTime.of(12, 0));
+        AvailabilityDto missingFields = new AvailabilityDto();
+        missingFields.setUserCalendarId(userCalendarId);
+
+        when(userCalendarRepository.findAllById(any())).thenReturn(List.of(userCalendar));
+        when(availabilityRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BulkResultDto<AvailabilityDto> result = availabilityService.createAvailabilities(
+                Arrays.asList(availabilityDto, unknownCalendar, missingFields));
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(userCalendarId, result.getResults().get(0).getItem().getUserCalendarId());
+        assertNull(result.getResults().get(0).getError());
+        assertEquals("User calendar not found with id: " + unknownCalendarId, result.getResults().get(1).getError());
+        assertEquals("Day of week is required; End time is required; Start time is required", result.getResults().get(2).getError());
+        verify(userCalendarRepository).findAllById(Set.of(userCalendarId, unknownCalendarId));
+        verify(availabilityRepository).saveAll(argThat((List<Availability> saved) -> saved.size() == 1
+                && saved.get(0).getUserCalendar() == userCalendar));
+        verify(calendarVersions).touch(Set.of(userId));
+        verify(weeklyAvailabilityRegistry).evictAfterCommit(userId);
+        verify(availableSlotCache).evictUserAfterCommit(userId);
+    }
+
     @Test
     void getAvailabilityById_WithValidId_ShouldReturnAvailability() {
         // Arrange
         when(availabilityRepository.findById(availabilityId)).thenReturn(Optional.of(availability));
-        when(modelMapper.map(availability, AvailabilityDto.class)).thenReturn(availabilityDto);
 
         // Act
         AvailabilityDto result = availabilityService.getAvailabilityById(availabilityId);
@@ -142,9 +227,8 @@ public class AvailabilityServiceTest {
     void getAvailabilitiesByUserCalendar_ShouldReturnAvailabilities() {
         // Arrange
         List<Availability> availabilities = Collections.singletonList(availability);
-        when(userCalendarRepository.findById(userCalendarId)).thenReturn(Optional.of(userCalendar));
-        when(availabilityRepository.findByUserCalendar(userCalendar)).thenReturn(availabilities);
-        when(modelMapper.map(availability, AvailabilityDto.class)).thenReturn(availabilityDto);
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId)).thenReturn(userId);
+        when(availabilityRepository.findByUserCalendarId(userCalendarId)).thenReturn(availabilities);
 
         // Act
         List<AvailabilityDto> result = availabilityService.getAvailabilitiesByUserCalendar(userCalendarId);
@@ -154,28 +238,26 @@ public class AvailabilityServiceTest {
         assertEquals(1, result.size());
         assertEquals(availabilityDto.getDayOfWeek(), result.get(0).getDayOfWeek());
         assertEquals(availabilityDto.getStartTime(), result.get(0).getStartTime());
-        verify(userCalendarRepository).findById(userCalendarId);
-        verify(availabilityRepository).findByUserCalendar(userCalendar);
+        verify(availabilityRepository).findByUserCalendarId(userCalendarId);
+        verifyNoInteractions(userCalendarRepository);
     }
 
     @Test
     void getAvailabilitiesByUserCalendar_WithNonexistentUserCalendar_ShouldThrowException() {
         // Arrange
-        when(userCalendarRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(calendarIdentityCache.requireUserIdOf(any(UUID.class))).thenThrow(new ResourceNotFoundException("User calendar not found"));
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> availabilityService.getAvailabilitiesByUserCalendar(UUID.randomUUID()));
-        verify(userCalendarRepository).findById(any(UUID.class));
-        verify(availabilityRepository, never()).findByUserCalendar(any(UserCalendar.class));
+        verify(availabilityRepository, never()).findByUserCalendarId(any(UUID.class));
     }
 
     @Test
     void getAvailabilitiesByUserCalendarAndDayOfWeek_ShouldReturnAvailabilities() {
         // Arrange
         List<Availability> availabilities = Collections.singletonList(availability);
-        when(userCalendarRepository.findById(userCalendarId)).thenReturn(Optional.of(userCalendar));
-        when(availabilityRepository.findByUserCalendarAndDayOfWeek(userCalendar, DayOfWeek.MONDAY)).thenReturn(availabilities);
-        when(modelMapper.map(availability, AvailabilityDto.class)).thenReturn(availabilityDto);
+        when(calendarIdentityCache.requireUserIdOf(userCalendarId)).thenReturn(userId);
+        when(availabilityRepository.findByUserCalendarIdAndDayOfWeek(userCalendarId, DayOfWeek.MONDAY)).thenReturn(availabilities);
 
         // Act
         List<AvailabilityDto> result = availabilityService.getAvailabilitiesByUserCalendarAndDayOfWeek(userCalendarId, DayOfWeek.MONDAY);
@@ -185,16 +267,14 @@ public class AvailabilityServiceTest {
         assertEquals(1, result.size());
         assertEquals(availabilityDto.getDayOfWeek(), result.get(0).getDayOfWeek());
         assertEquals(availabilityDto.getStartTime(), result.get(0).getStartTime());
-        verify(userCalendarRepository).findById(userCalendarId);
-        verify(availabilityRepository).findByUserCalendarAndDayOfWeek(userCalendar, DayOfWeek.MONDAY);
+        verify(availabilityRepository).findByUserCalendarIdAndDayOfWeek(userCalendarId, DayOfWeek.MONDAY);
     }
 
     @Test
     void updateAvailability_ShouldUpdateAvailabilitySuccessfully() {
         // Arrange
-        when(availabilityRepository.findById(availabilityId)).thenReturn(Optional.of(availability));
-        when(availabilityRepository.save(any(Availability.class))).thenReturn(availability);
-        when(modelMapper.map(availability, AvailabilityDto.class)).thenReturn(availabilityDto);
+        when(availabilityRepository.findWithUserCalendarById(availabilityId)).thenReturn(Optional.of(availability));
+        when(availabilityRepository.saveAndFlush(any(Availability.class))).thenReturn(availability);
 
         AvailabilityDto updatedDto = new AvailabilityDto();
         updatedDto.setDayOfWeek(DayOfWeek.TUESDAY);
@@ -204,7 +284,7 @@ public class AvailabilityServiceTest {
         updatedDto.setActive(false);
 
         // Act
-        AvailabilityDto result = availabilityService.updateAvailability(availabilityId, updatedDto);
+        AvailabilityDto result = availabilityService.updateAvailability(availabilityId, updatedDto, null);
 
         // Assert
         assertNotNull(result);
@@ -214,43 +294,64 @@ public class AvailabilityServiceTest {
         assertEquals(LocalTime.of(18, 0), availability.getEndTime());
         assertFalse(availability.isRecurring());
         assertFalse(availability.isActive());
-        verify(availabilityRepository).findById(availabilityId);
-        verify(availabilityRepository).save(availability);
+        verify(availabilityRepository).findWithUserCalendarById(availabilityId);
+        verify(availabilityRepository).saveAndFlush(availability);
+        verify(calendarVersions).touch(userId);
+        verify(weeklyAvailabilityRegistry).evictAfterCommit(userId);
+        verify(availableSlotCache).evictUserAfterCommit(userId);
     }
 
     @Test
     void updateAvailability_WithNonexistentId_ShouldThrowException() {
         // Arrange
-        when(availabilityRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(availabilityRepository.findWithUserCalendarById(any(UUID.class))).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> availabilityService.updateAvailability(UUID.randomUUID(), availabilityDto));
-        verify(availabilityRepository).findById(any(UUID.class));
-        verify(availabilityRepository, never()).save(any(Availability.class));
+        assertThrows(ResourceNotFoundException.class, () -> availabilityService.updateAvailability(UUID.randomUUID(), availabilityDto, null));
+        verify(availabilityRepository).findWithUserCalendarById(any(UUID.class));
+        verify(availabilityRepository, never()).saveAndFlush(any(Availability.class));
+    }
+
+    @Test
+    void updateAvailability_WithStaleVersion_ShouldFailPreconditionWithoutWriting() {
+        // Arrange
+        availability.setVersion(1);
+        when(availabilityRepository.findWithUserCalendarById(availabilityId)).thenReturn(Optional.of(availability));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> availabilityService.updateAvailability(availabilityId, availabilityDto, 0L));
+        verify(availabilityRepository, never()).saveAndFlush(any(Availability.class));
+        verifyNoInteractions(calendarVersions, weeklyAvailabilityRegistry, availableSlotCache);
     }
 
     @Test
     void deleteAvailability_WithValidId_ShouldDeleteAvailability() {
         // Arrange
-        when(availabilityRepository.existsById(availabilityId)).thenReturn(true);
-        doNothing().when(availabilityRepository).deleteById(availabilityId);
+        when(availabilityRepository.findWithUserCalendarById(availabilityId)).thenReturn(Optional.of(availability));
+        doNothing().when(availabilityRepository).delete(availability);
 
         // Act
         availabilityService.deleteAvailability(availabilityId);
 
         // Assert
-        verify(availabilityRepository).existsById(availabilityId);
-        verify(availabilityRepository).deleteById(availabilityId);
+        verify(availabilityRepository).findWithUserCalendarById(availabilityId);
+        verify(availabilityRepository).delete(availability);
+        verify(calendarVersions).recordDeletion(userId, CalendarTombstone.ResourceType.AVAILABILITY, availabilityId);
+        verify(calendarChangeBroadcaster).publishAfterCommit(CalendarChangeDto.Type.AVAILABILITY_DELETED, userId, availabilityId, null);
+        verify(weeklyAvailabilityRegistry).evictAfterCommit(userId);
+        verify(availableSlotCache).evictUserAfterCommit(userId);
     }
 
     @Test
     void deleteAvailability_WithNonexistentId_ShouldThrowException() {
         // Arrange
-        when(availabilityRepository.existsById(any(UUID.class))).thenReturn(false);
+        when(availabilityRepository.findWithUserCalendarById(any(UUID.class))).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> availabilityService.deleteAvailability(UUID.randomUUID()));
-        verify(availabilityRepository).existsById(any(UUID.class));
-        verify(availabilityRepository, never()).deleteById(any(UUID.class));
+        verify(availabilityRepository).findWithUserCalendarById(any(UUID.class));
+        verify(availabilityRepository, never()).delete(any(Availability.class));
+        verify(weeklyAvailabilityRegistry, never()).evictAfterCommit(any(UUID.class));
+        verify(availableSlotCache, never()).evictUserAfterCommit(any(UUID.class));
     }
 }
\ No newline at end of file
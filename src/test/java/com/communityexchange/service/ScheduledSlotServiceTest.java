@@ -1,26 +1,51 @@
 package com.communityexchange.service;
 
+import com.communityexchange.exception.InvalidPageTokenException;
+import com.communityexchange.exception.PreconditionFailedException;
 import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.exception.SchedulingConflictException;
+import com.communityexchange.model.dto.BulkResultDto;
+import com.communityexchange.model.dto.CalendarChangeDto;
+import com.communityexchange.model.dto.CursorPageDto;
 import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.entity.CalendarTombstone;
 import com.communityexchange.model.entity.ScheduledSlot;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
 import com.communityexchange.repository.ScheduledSlotRepository;
 import com.communityexchange.service.impl.ScheduledSlotServiceImpl;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.support.CalendarChangeBroadcaster;
+import com.communityexchange.service.support.CalendarVersions;
+import com.communityexchange.service.support.UserBookingLocks;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +55,25 @@ public class ScheduledSlotServiceTest {
     private ScheduledSlotRepository scheduledSlotRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private AvailableSlotCache availableSlotCache;
+
+    @Mock
+    private UserBookingLocks userBookingLocks;
+
+    @Mock
+    private CalendarVersions calendarVersions;
+
+    @Mock
+    private CalendarChangeBroadcaster calendarChangeBroadcaster;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ScheduledSlotMapper scheduledSlotMapper = new ScheduledSlotMapper();
+
+    @Mock
+    private EntityManager entityManager;
 
     @InjectMocks
     private ScheduledSlotServiceImpl scheduledSlotService;
@@ -75,9 +118,7 @@ public class ScheduledSlotServiceTest {
     void createScheduledSlot_ShouldCreateSuccessfully() {
         // Arrange
         when(scheduledSlotRepository.findByExchangeId(exchangeId)).thenReturn(Optional.empty());
-        when(modelMapper.map(scheduledSlotDto, ScheduledSlot.class)).thenReturn(scheduledSlot);
-        when(scheduledSlotRepository.save(any(ScheduledSlot.class))).thenReturn(scheduledSlot);
-        when(modelMapper.map(scheduledSlot, ScheduledSlotDto.class)).thenReturn(scheduledSlotDto);
+        when(scheduledSlotRepository.saveAndFlush(any(ScheduledSlot.class))).thenReturn(scheduledSlot);
 
         // Act
         ScheduledSlotDto result = scheduledSlotService.createScheduledSlot(scheduledSlotDto);
@@ -93,7 +134,10 @@ public class ScheduledSlotServiceTest {
         assertEquals(scheduledSlotDto.getDescription(), result.getDescription());
         assertFalse(result.isConfirmed());
         verify(scheduledSlotRepository).findByExchangeId(exchangeId);
-        verify(scheduledSlotRepository).save(any(ScheduledSlot.class));
+        verify(scheduledSlotRepository).saveAndFlush(any(ScheduledSlot.class));
+        verify(calendarVersions).touch(userId);
+        verify(calendarChangeBroadcaster).publishAfterCommit(eq(CalendarChangeDto.Type.SLOT_CREATED), eq(userId), any(), any());
+        verify(availableSlotCache).evictWeeksAfterCommit(userId, scheduledSlot.getStartTime(), scheduledSlot.getEndTime());
     }
 
     @Test
@@ -102,16 +146,111 @@ public class ScheduledSlotServiceTest {
         when(scheduledSlotRepository.findByExchangeId(exchangeId)).thenReturn(Optional.of(scheduledSlot));
 
         // Act & Assert
-        assertThrows(IllegalStateException.class, () -> scheduledSlotService.createScheduledSlot(scheduledSlotDto));
+        assertThrows(SchedulingConflictException.class, () -> scheduledSlotService.createScheduledSlot(scheduledSlotDto));
         verify(scheduledSlotRepository).findByExchangeId(exchangeId);
-        verify(scheduledSlotRepository, never()).save(any(ScheduledSlot.class));
+        verify(scheduledSlotRepository, never()).saveAndFlush(any(ScheduledSlot.class));
+    }
+
+    @Test
+    void createScheduledSlot_OverlappingExistingSlot_ShouldThrowException() {
+        // Arrange
+        when(scheduledSlotRepository.findByExchangeId(exchangeId)).thenReturn(Optional.empty());
+        when(scheduledSlotRepository.existsOverlapping(userId, scheduledSlotDto.getStartTime(), scheduledSlotDto.getEndTime()))
+                .thenReturn(true);
+
+        // Act & Assert
+        assertThrows(SchedulingConflictException.class, () -> scheduledSlotService.createScheduledSlot(scheduledSlotDto));
+        verify(userBookingLocks).lockUntilCompletion(userId);
+        verify(scheduledSlotRepository, never()).saveAndFlush(any(ScheduledSlot.class));
+        verifyNoInteractions(availableSlotCache);
+    }
+
+    @Test
+    void createScheduledSlot_ShouldLockTheCalendarRowBeforeCheckingOverlaps() {
+        // Arrange
+        when(scheduledSlotRepository.findByExchangeId(exchangeId)).thenReturn(Optional.empty());
+        when(scheduledSlotRepository.saveAndFlush(any(ScheduledSlot.class))).thenReturn(scheduledSlot);
+
+        // Act
+        scheduledSlotService.createScheduledSlot(scheduledSlotDto);
+
+        // Assert
+        InOrder inOrder = inOrder(userBookingLocks, calendarVersions, scheduledSlotRepository);
+        inOrder.verify(userBookingLocks).lockUntilCompletion(userId);
+        inOrder.verify(calendarVersions).touch(userId);
+        inOrder.verify(scheduledSlotRepository).existsOverlapping(userId, scheduledSlotDto.getStartTime(), scheduledSlotDto.getEndTime());
+    }
+
+    @Test
+    void createScheduledSlot_WhenAConcurrentBookingTakesTheExchange_ShouldThrowConflict() {
+        // Arrange
+        when(scheduledSlotRepository.findByExchangeId(exchangeId)).thenReturn(Optional.empty());
+        when(scheduledSlotRepository.saveAndFlush(any(ScheduledSlot.class)))
+                .thenThrow(new DataIntegrityViolationException("unique exchange_id"));
+
+        // Act & Assert
+        SchedulingConflictException ex = assertThrows(SchedulingConflictException.class,
+                () -> scheduledSlotService.createScheduledSlot(scheduledSlotDto));
+        assertEquals("A scheduled slot already exists for this exchange", ex.getMessage());
+        verifyNoInteractions(availableSlotCache, calendarChangeBroadcaster);
+    }
+
+    @Test
+    void updateScheduledSlot_OverlappingAnotherSlot_ShouldThrowException() {
+        // Arrange
+        when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
+        when(scheduledSlotRepository.existsOverlappingExcluding(
+                userId, scheduledSlotDto.getStartTime(), scheduledSlotDto.getEndTime(), scheduledSlotId)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(SchedulingConflictException.class, () -> scheduledSlotService.updateScheduledSlot(scheduledSlotId, scheduledSlotDto, null));
+        verify(userBookingLocks).lockUntilCompletion(userId);
+        verify(scheduledSlotRepository, never()).saveAndFlush(any(ScheduledSlot.class));
+    }
+
+    @Test
+    void createScheduledSlots_ShouldRejectTakenExchangesAndOverlapsPerItem() {
+        // Arrange
+        ScheduledSlotDto takenExchange = slotDto(UUID.randomUUID(), scheduledSlot.getStartTime().plusDays(1));
+        ScheduledSlotDto overlapsExisting = slotDto(UUID.randomUUID(), scheduledSlot.getStartTime().plusDays(2));
+        ScheduledSlotDto free = slotDto(UUID.randomUUID(), scheduledSlot.getStartTime().plusDays(3));
+        ScheduledSlotDto overlapsEarlierItem = slotDto(UUID.randomUUID(), free.getStartTime().plusMinutes(30));
+        ScheduledSlotDto duplicateExchange = slotDto(free.getExchangeId(), scheduledSlot.getStartTime().plusDays(4));
+
+        ScheduledSlot existingExchange = new ScheduledSlot();
+        existingExchange.setExchangeId(takenExchange.getExchangeId());
+        ScheduledSlot existingBooking = new ScheduledSlot();
+        existingBooking.setUserId(userId);
+        existingBooking.setStartTime(overlapsExisting.getStartTime().minusMinutes(30));
+        existingBooking.setEndTime(overlapsExisting.getStartTime().plusMinutes(30));
+
+        when(scheduledSlotRepository.findByExchangeIdIn(any())).thenReturn(List.of(existingExchange));
+        when(scheduledSlotRepository.findOverlappingForUsers(eq(Set.of(userId)), any(), any())).thenReturn(List.of(existingBooking));
+        when(scheduledSlotRepository.saveAllAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BulkResultDto<ScheduledSlotDto> result = scheduledSlotService.createScheduledSlots(
+                List.of(takenExchange, overlapsExisting, free, overlapsEarlierItem, duplicateExchange, new ScheduledSlotDto()));
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(5, result.getRejected());
+        assertEquals("A scheduled slot already exists for this exchange", result.getResults().get(0).getError());
+        assertEquals("The user already has a scheduled slot overlapping this time", result.getResults().get(1).getError());
+        assertEquals(free.getExchangeId(), result.getResults().get(2).getItem().getExchangeId());
+        assertEquals("The user already has a scheduled slot overlapping this time", result.getResults().get(3).getError());
+        assertEquals("A scheduled slot already exists for this exchange", result.getResults().get(4).getError());
+        assertNotNull(result.getResults().get(5).getError());
+        verify(userBookingLocks).lockUntilCompletion(Set.of(userId));
+        verify(scheduledSlotRepository).saveAllAndFlush(argThat((List<ScheduledSlot> slots) -> slots.size() == 1
+                && slots.get(0).getExchangeId().equals(free.getExchangeId())));
+        verify(availableSlotCache).evictWeeksAfterCommit(userId, free.getStartTime(), free.getEndTime());
     }
 
     @Test
     void getScheduledSlotById_WithValidId_ShouldReturnScheduledSlot() {
         // Arrange
         when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
-        when(modelMapper.map(scheduledSlot, ScheduledSlotDto.class)).thenReturn(scheduledSlotDto);
 
         // Act
         ScheduledSlotDto result = scheduledSlotService.getScheduledSlotById(scheduledSlotId);
@@ -138,7 +277,6 @@ public class ScheduledSlotServiceTest {
     void getScheduledSlotByExchangeId_WithValidId_ShouldReturnScheduledSlot() {
         // Arrange
         when(scheduledSlotRepository.findByExchangeId(exchangeId)).thenReturn(Optional.of(scheduledSlot));
-        when(modelMapper.map(scheduledSlot, ScheduledSlotDto.class)).thenReturn(scheduledSlotDto);
 
         // Act
         ScheduledSlotDto result = scheduledSlotService.getScheduledSlotByExchangeId(exchangeId);
@@ -163,19 +301,47 @@ public class ScheduledSlotServiceTest {
     @Test
     void getScheduledSlotsByUserId_ShouldReturnScheduledSlots() {
         // Arrange
-        List<ScheduledSlot> scheduledSlots = Arrays.asList(scheduledSlot);
-        when(scheduledSlotRepository.findByUserId(userId)).thenReturn(scheduledSlots);
-        when(modelMapper.map(scheduledSlot, ScheduledSlotDto.class)).thenReturn(scheduledSlotDto);
+        when(scheduledSlotRepository.findFirstPage(userId, Limit.of(11))).thenReturn(List.of(summary()));
 
         // Act
-        List<ScheduledSlotDto> result = scheduledSlotService.getScheduledSlotsByUserId(userId);
+        CursorPageDto<ScheduledSlotDto> result = scheduledSlotService.getScheduledSlotsByUserId(userId, null, 10);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(scheduledSlotDto.getId(), result.get(0).getId());
-        assertEquals(scheduledSlotDto.getUserId(), result.get(0).getUserId());
-        verify(scheduledSlotRepository).findByUserId(userId);
+        assertEquals(1, result.getItems().size());
+        assertEquals(scheduledSlotDto.getId(), result.getItems().get(0).getId());
+        assertEquals(scheduledSlotDto.getUserId(), result.getItems().get(0).getUserId());
+        assertNull(result.getItems().get(0).getDescription());
+        assertNull(result.getNextPageToken());
+        verify(scheduledSlotRepository).findFirstPage(userId, Limit.of(11));
+    }
+
+    @Test
+    void getScheduledSlotsByUserId_WithMoreRowsThanLimit_ShouldContinueAfterTheLastSlotReturned() {
+        // Arrange
+        ScheduledSlotSummary first = summary();
+        ScheduledSlotSummary second = new ScheduledSlotSummary(UUID.randomUUID(), 0L, userId, UUID.randomUUID(),
+                first.endTime(), first.endTime().plusHours(1), null, false);
+        when(scheduledSlotRepository.findFirstPage(userId, Limit.of(2))).thenReturn(List.of(first, second));
+        when(scheduledSlotRepository.findPageAfter(userId, first.startTime(), first.id(), Limit.of(2))).thenReturn(List.of(second));
+
+        // Act
+        CursorPageDto<ScheduledSlotDto> firstPage = scheduledSlotService.getScheduledSlotsByUserId(userId, null, 1);
+        CursorPageDto<ScheduledSlotDto> secondPage = scheduledSlotService.getScheduledSlotsByUserId(
+                userId, firstPage.getNextPageToken(), 1);
+
+        // Assert
+        assertEquals(List.of(first.id()), firstPage.getItems().stream().map(ScheduledSlotDto::getId).toList());
+        assertNotNull(firstPage.getNextPageToken());
+        assertEquals(List.of(second.id()), secondPage.getItems().stream().map(ScheduledSlotDto::getId).toList());
+        assertNull(secondPage.getNextPageToken());
+    }
+
+    @Test
+    void getScheduledSlotsByUserId_WithMalformedToken_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidPageTokenException.class, () -> scheduledSlotService.getScheduledSlotsByUserId(userId, "not-a-token", 10));
+        verifyNoInteractions(scheduledSlotRepository);
     }
 
     @Test
@@ -183,29 +349,49 @@ public class ScheduledSlotServiceTest {
         // Arrange
         LocalDateTime start = LocalDateTime.now();
         LocalDateTime end = start.plusDays(7);
-        List<ScheduledSlot> scheduledSlots = Arrays.asList(scheduledSlot);
-        
-        when(scheduledSlotRepository.findByUserIdAndStartTimeBetween(userId, start, end)).thenReturn(scheduledSlots);
-        when(modelMapper.map(scheduledSlot, ScheduledSlotDto.class)).thenReturn(scheduledSlotDto);
+        when(scheduledSlotRepository.findFirstPageStartingBetween(userId, start, end, Limit.of(11))).thenReturn(List.of(summary()));
 
         // Act
-        List<ScheduledSlotDto> result = scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(userId, start, end);
+        CursorPageDto<ScheduledSlotDto> result = scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(userId, start, end, null, 10);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(scheduledSlotDto.getId(), result.get(0).getId());
-        assertEquals(scheduledSlotDto.getUserId(), result.get(0).getUserId());
-        verify(scheduledSlotRepository).findByUserIdAndStartTimeBetween(userId, start, end);
+        assertEquals(1, result.getItems().size());
+        assertEquals(scheduledSlotDto.getId(), result.getItems().get(0).getId());
+        assertEquals(scheduledSlotDto.getUserId(), result.getItems().get(0).getUserId());
+        assertNull(result.getNextPageToken());
+        verify(scheduledSlotRepository).findFirstPageStartingBetween(userId, start, end, Limit.of(11));
+    }
+
+    @Test
+    void exportScheduledSlots_ShouldPassEverySlotToTheSinkAndClearThePersistenceContextPeriodically() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusMonths(1);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(scheduledSlotRepository.streamStartingWithin(start, end))
+                .thenReturn(Stream.generate(() -> scheduledSlot).limit(1001).onClose(() -> closed.set(true)));
+        List<ScheduledSlotDto> exported = new ArrayList<>();
+
+        // Act
+        long count = scheduledSlotService.exportScheduledSlots(start, end, exported::add);
+
+        // Assert
+        assertEquals(1001, count);
+        assertEquals(1001, exported.size());
+        assertEquals(scheduledSlot.getDescription(), exported.get(0).getDescription());
+        assertTrue(closed.get());
+        verify(entityManager, times(2)).clear();
     }
 
     @Test
     void updateScheduledSlot_ShouldUpdateSuccessfully() {
         // Arrange
         when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
-        when(scheduledSlotRepository.save(any(ScheduledSlot.class))).thenReturn(scheduledSlot);
-        when(modelMapper.map(scheduledSlot, ScheduledSlotDto.class)).thenReturn(scheduledSlotDto);
+        when(scheduledSlotRepository.saveAndFlush(any(ScheduledSlot.class))).thenReturn(scheduledSlot);
 
+        LocalDateTime oldStartTime = scheduledSlot.getStartTime();
+        LocalDateTime oldEndTime = scheduledSlot.getEndTime();
         LocalDateTime newStartTime = LocalDateTime.now().plusHours(3);
         LocalDateTime newEndTime = LocalDateTime.now().plusHours(4);
         
@@ -216,7 +402,7 @@ public class ScheduledSlotServiceTest {
         updatedDto.setDescription("Updated Description");
 
         // Act
-        ScheduledSlotDto result = scheduledSlotService.updateScheduledSlot(scheduledSlotId, updatedDto);
+        ScheduledSlotDto result = scheduledSlotService.updateScheduledSlot(scheduledSlotId, updatedDto, null);
 
         // Assert
         assertNotNull(result);
@@ -226,7 +412,9 @@ public class ScheduledSlotServiceTest {
         assertEquals("Updated Title", scheduledSlot.getTitle());
         assertEquals("Updated Description", scheduledSlot.getDescription());
         verify(scheduledSlotRepository).findById(scheduledSlotId);
-        verify(scheduledSlotRepository).save(scheduledSlot);
+        verify(scheduledSlotRepository).saveAndFlush(scheduledSlot);
+        verify(availableSlotCache).evictWeeksAfterCommit(userId, oldStartTime, oldEndTime);
+        verify(availableSlotCache).evictWeeksAfterCommit(userId, newStartTime, newEndTime);
     }
 
     @Test
@@ -236,30 +424,30 @@ public class ScheduledSlotServiceTest {
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> 
-            scheduledSlotService.updateScheduledSlot(UUID.randomUUID(), scheduledSlotDto));
+            scheduledSlotService.updateScheduledSlot(UUID.randomUUID(), scheduledSlotDto, null));
         verify(scheduledSlotRepository).findById(any(UUID.class));
-        verify(scheduledSlotRepository, never()).save(any(ScheduledSlot.class));
+        verify(scheduledSlotRepository, never()).saveAndFlush(any(ScheduledSlot.class));
     }
 
     @Test
     void confirmScheduledSlot_ShouldConfirmSuccessfully() {
         // Arrange
         when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
-        when(scheduledSlotRepository.save(any(ScheduledSlot.class))).thenReturn(scheduledSlot);
+        when(scheduledSlotRepository.saveAndFlush(any(ScheduledSlot.class))).thenReturn(scheduledSlot);
         
         // Update DTO to reflect confirmation
         scheduledSlotDto.setConfirmed(true);
-        when(modelMapper.map(scheduledSlot, ScheduledSlotDto.class)).thenReturn(scheduledSlotDto);
 
         // Act
-        ScheduledSlotDto result = scheduledSlotService.confirmScheduledSlot(scheduledSlotId);
+        ScheduledSlotDto result = scheduledSlotService.confirmScheduledSlot(scheduledSlotId, null);
 
         // Assert
         assertNotNull(result);
         assertTrue(result.isConfirmed());
         assertTrue(scheduledSlot.isConfirmed());
         verify(scheduledSlotRepository).findById(scheduledSlotId);
-        verify(scheduledSlotRepository).save(scheduledSlot);
+        verify(scheduledSlotRepository).saveAndFlush(scheduledSlot);
+        verifyNoInteractions(availableSlotCache);
     }
 
     @Test
@@ -269,34 +457,90 @@ public class ScheduledSlotServiceTest {
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> 
-            scheduledSlotService.confirmScheduledSlot(UUID.randomUUID()));
+            scheduledSlotService.confirmScheduledSlot(UUID.randomUUID(), null));
         verify(scheduledSlotRepository).findById(any(UUID.class));
-        verify(scheduledSlotRepository, never()).save(any(ScheduledSlot.class));
+        verify(scheduledSlotRepository, never()).saveAndFlush(any(ScheduledSlot.class));
+    }
+
+    @Test
+    void updateScheduledSlot_WithStaleVersion_ShouldFailPreconditionWithoutWriting() {
+        // Arrange
+        scheduledSlot.setVersion(3);
+        when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () ->
+            scheduledSlotService.updateScheduledSlot(scheduledSlotId, scheduledSlotDto, 2L));
+        verify(scheduledSlotRepository, never()).saveAndFlush(any(ScheduledSlot.class));
+        verifyNoInteractions(calendarVersions, availableSlotCache);
+    }
+
+    @Test
+    void confirmScheduledSlot_WhenVersionChangesBeforeFlush_ShouldFailPrecondition() {
+        // Arrange
+        when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
+        when(scheduledSlotRepository.saveAndFlush(any(ScheduledSlot.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ScheduledSlot.class, scheduledSlotId));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () ->
+            scheduledSlotService.confirmScheduledSlot(scheduledSlotId, 0L));
+        // The calendar version bump rolls back together with the failed write
+        verifyNoInteractions(availableSlotCache, calendarChangeBroadcaster);
+    }
+
+    @Test
+    void confirmScheduledSlot_WhenVersionChangesWithoutPrecondition_ShouldPropagateLockingFailure() {
+        // Arrange
+        when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
+        when(scheduledSlotRepository.saveAndFlush(any(ScheduledSlot.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ScheduledSlot.class, scheduledSlotId));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+            scheduledSlotService.confirmScheduledSlot(scheduledSlotId, null));
     }
 
     @Test
     void deleteScheduledSlot_WithValidId_ShouldDeleteSuccessfully() {
         // Arrange
-        when(scheduledSlotRepository.existsById(scheduledSlotId)).thenReturn(true);
-        doNothing().when(scheduledSlotRepository).deleteById(scheduledSlotId);
+        when(scheduledSlotRepository.findById(scheduledSlotId)).thenReturn(Optional.of(scheduledSlot));
 
         // Act
         scheduledSlotService.deleteScheduledSlot(scheduledSlotId);
 
         // Assert
-        verify(scheduledSlotRepository).existsById(scheduledSlotId);
-        verify(scheduledSlotRepository).deleteById(scheduledSlotId);
+        verify(scheduledSlotRepository).findById(scheduledSlotId);
+        verify(scheduledSlotRepository).delete(scheduledSlot);
+        verify(calendarVersions).recordDeletion(userId, CalendarTombstone.ResourceType.SCHEDULED_SLOT, scheduledSlotId);
+        verify(calendarChangeBroadcaster).publishAfterCommit(CalendarChangeDto.Type.SLOT_DELETED, userId, scheduledSlotId, null);
+        verify(availableSlotCache).evictWeeksAfterCommit(userId, scheduledSlot.getStartTime(), scheduledSlot.getEndTime());
     }
 
     @Test
     void deleteScheduledSlot_WithInvalidId_ShouldThrowException() {
         // Arrange
-        when(scheduledSlotRepository.existsById(any(UUID.class))).thenReturn(false);
+        when(scheduledSlotRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> 
             scheduledSlotService.deleteScheduledSlot(UUID.randomUUID()));
-        verify(scheduledSlotRepository).existsById(any(UUID.class));
-        verify(scheduledSlotRepository, never()).deleteById(any(UUID.class));
+        verify(scheduledSlotRepository).findById(any(UUID.class));
+        verify(scheduledSlotRepository, never()).delete(any(ScheduledSlot.class));
+    }
+
+    private ScheduledSlotDto slotDto(UUID exchange, LocalDateTime start) {
+        ScheduledSlotDto slotDto = new ScheduledSlotDto();
+        slotDto.setUserId(userId);
+        slotDto.setExchangeId(exchange);
+        slotDto.setStartTime(start);
+        slotDto.setEndTime(start.plusHours(1));
+        slotDto.setTitle("Imported");
+        return slotDto;
+    }
+
+    private ScheduledSlotSummary summary() {
+        return new ScheduledSlotSummary(scheduledSlot.getId(), scheduledSlot.getVersion(), scheduledSlot.getUserId(), scheduledSlot.getExchangeId(),
+                scheduledSlot.getStartTime(), scheduledSlot.getEndTime(), scheduledSlot.getTitle(), scheduledSlot.isConfirmed());
     }
-}
\ No newline at end of file
+}
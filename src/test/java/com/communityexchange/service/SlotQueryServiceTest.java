@@ -0,0 +1,96 @@
+package com.communityexchange.service;
+
+import com.communityexchange.model.dto.ScheduledSlotDto;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.projection.ScheduledSlotSummary;
+import com.communityexchange.repository.ScheduledSlotRepository;
+import com.communityexchange.service.impl.SlotQueryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SlotQueryServiceTest {
+
+    @Mock
+    private UserCalendarService userCalendarService;
+
+    @Mock
+    private ScheduledSlotRepository scheduledSlotRepository;
+
+    private SlotQueryServiceImpl slotQueryService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private final LocalDateTime end = start.plusDays(30);
+
+    @BeforeEach
+    void setUp() {
+        slotQueryService = new SlotQueryServiceImpl(userCalendarService, scheduledSlotRepository, new ScheduledSlotMapper(), 2);
+    }
+
+    @Test
+    void streamScheduledSlots_ShouldFollowKeysetPagesUntilAShortPage() {
+        ScheduledSlotSummary first = slot(1);
+        ScheduledSlotSummary second = slot(2);
+        ScheduledSlotSummary third = slot(3);
+        when(scheduledSlotRepository.findFirstPageStartingBetween(userId, start, end, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+        when(scheduledSlotRepository.findPageStartingAfter(userId, second.startTime(), second.id(), end, Limit.of(2)))
+                .thenReturn(List.of(third));
+
+        StepVerifier.create(slotQueryService.streamScheduledSlots(userId, start, end).map(ScheduledSlotDto::getId))
+                .expectNext(first.id(), second.id(), third.id())
+                .verifyComplete();
+
+        verify(scheduledSlotRepository, times(1)).findPageStartingAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void streamScheduledSlots_ShouldNotReadAheadOfDemand() {
+        ScheduledSlotSummary first = slot(1);
+        when(scheduledSlotRepository.findFirstPageStartingBetween(userId, start, end, Limit.of(2)))
+                .thenReturn(List.of(first, slot(2)));
+
+        StepVerifier.create(slotQueryService.streamScheduledSlots(userId, start, end).map(ScheduledSlotDto::getId), 0)
+                .thenRequest(1)
+                .expectNext(first.id())
+                .thenCancel()
+                .verify();
+
+        verify(scheduledSlotRepository, never()).findPageStartingAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void streamScheduledSlots_WithEmptyRange_ShouldCompleteAfterOneQuery() {
+        when(scheduledSlotRepository.findFirstPageStartingBetween(userId, start, end, Limit.of(2))).thenReturn(List.of());
+
+        StepVerifier.create(slotQueryService.streamScheduledSlots(userId, start, end))
+                .verifyComplete();
+
+        verify(scheduledSlotRepository, never()).findPageStartingAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void streamAvailableSlots_ShouldNotTouchTheServiceBeforeSubscription() {
+        slotQueryService.streamAvailableSlots(userId, start, end);
+
+        verifyNoInteractions(userCalendarService);
+    }
+
+    private ScheduledSlotSummary slot(int hour) {
+        return new ScheduledSlotSummary(UUID.randomUUID(), 0L, userId, UUID.randomUUID(),
+                start.plusHours(hour), start.plusHours(hour).plusMinutes(30), null, false);
+    }
+}
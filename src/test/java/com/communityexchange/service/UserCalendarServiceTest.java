@@ -1,30 +1,59 @@
 package com.communityexchange.service;
 
+import com.communityexchange.exception.InvalidPageTokenException;
+import com.communityexchange.exception.CalendarAlreadyExistsException;
 import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.exception.SyncTokenExpiredException;
 import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.dto.CalendarSyncDto;
+import com.communityexchange.model.dto.CommonAvailableSlotDto;
 import com.communityexchange.model.dto.UserCalendarDto;
 import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.CalendarTombstone;
 import com.communityexchange.model.entity.ScheduledSlot;
 import com.communityexchange.model.entity.UserCalendar;
+import com.communityexchange.model.mapper.AvailabilityMapper;
+import com.communityexchange.model.mapper.ScheduledSlotMapper;
+import com.communityexchange.model.mapper.UserCalendarMapper;
+import com.communityexchange.model.projection.CalendarVersion;
+import com.communityexchange.repository.AvailabilityOverrideRepository;
 import com.communityexchange.repository.AvailabilityRepository;
+import com.communityexchange.repository.CalendarTombstoneRepository;
 import com.communityexchange.repository.ScheduledSlotRepository;
 import com.communityexchange.repository.UserCalendarRepository;
 import com.communityexchange.service.impl.UserCalendarServiceImpl;
+import com.communityexchange.service.slot.AvailabilityOverrideRegistry;
+import com.communityexchange.service.slot.AvailabilityOverrides;
+import com.communityexchange.service.slot.AvailableSlotCache;
+import com.communityexchange.service.slot.CommonAvailabilityCalculator;
+import com.communityexchange.service.slot.FreeBusyEngine;
+import com.communityexchange.service.slot.SlotGenerationMetrics;
+import com.communityexchange.service.slot.WeeklyAvailabilityBitmap;
+import com.communityexchange.service.slot.WeeklyAvailabilityRegistry;
+import com.communityexchange.service.support.CalendarIdentityCache;
+import com.communityexchange.service.support.CalendarVersions;
+import com.communityexchange.service.support.SyncToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,11 +70,47 @@ class UserCalendarServiceTest {
     @Mock
     private AvailabilityRepository availabilityRepository;
     
+    @Mock
+    private AvailabilityOverrideRepository availabilityOverrideRepository;
+    
     @Mock
     private ScheduledSlotRepository scheduledSlotRepository;
     
     @Mock
-    private ModelMapper modelMapper;
+    private CalendarTombstoneRepository calendarTombstoneRepository;
+    
+    @Mock
+    private CalendarVersions calendarVersions;
+    
+    @Spy
+    private FreeBusyEngine freeBusyEngine = new FreeBusyEngine();
+    
+    @Spy
+    private CommonAvailabilityCalculator commonAvailabilityCalculator = new CommonAvailabilityCalculator(new FreeBusyEngine(), 2, 8);
+    
+    @Mock
+    private WeeklyAvailabilityRegistry weeklyAvailabilityRegistry;
+    
+    @Mock
+    private AvailabilityOverrideRegistry availabilityOverrideRegistry;
+    
+    @Mock
+    private CalendarIdentityCache calendarIdentityCache;
+    
+    @Spy
+    private AvailableSlotCache availableSlotCache = new AvailableSlotCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    
+    @Spy
+    private SlotGenerationMetrics slotGenerationMetrics = new SlotGenerationMetrics(new SimpleMeterRegistry());
+    
+    @Spy
+    private UserCalendarMapper userCalendarMapper = new UserCalendarMapper(new AvailabilityMapper());
+    
+    @Spy
+    private ScheduledSlotMapper scheduledSlotMapper = new ScheduledSlotMapper();
+    
+    @Spy
+    private AvailabilityMapper availabilityMapper = new AvailabilityMapper();
     
     @InjectMocks
     private UserCalendarServiceImpl userCalendarService;
@@ -91,14 +156,15 @@ class UserCalendarServiceTest {
         scheduledSlot.setEndTime(now.plusDays(1).withHour(13).withMinute(0));
         scheduledSlot.setTitle("Test Meeting");
         scheduledSlot.setConfirmed(true);
+        
+        lenient().when(availabilityOverrideRegistry.get(any(UUID.class))).thenReturn(AvailabilityOverrides.NONE);
     }
     
     @Test
     void createUserCalendar_ShouldCreateCalendarSuccessfully() {
         // Arrange
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.empty());
-        when(userCalendarRepository.save(any(UserCalendar.class))).thenReturn(userCalendar);
-        when(modelMapper.map(any(UserCalendar.class), eq(UserCalendarDto.class))).thenReturn(userCalendarDto);
+        when(userCalendarRepository.existsByUserId(userId)).thenReturn(false);
+        when(userCalendarRepository.saveAndFlush(any(UserCalendar.class))).thenReturn(userCalendar);
         
         // Act
         UserCalendarDto result = userCalendarService.createUserCalendar(userId);
@@ -106,25 +172,38 @@ class UserCalendarServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(userCalendarDto.getUserId(), result.getUserId());
-        verify(userCalendarRepository).save(any(UserCalendar.class));
+        verify(userCalendarRepository).saveAndFlush(any(UserCalendar.class));
+        verify(calendarIdentityCache, never()).calendarIdOf(any());
+        verify(calendarIdentityCache).registerAfterCommit(userId, userCalendar.getId());
     }
     
     @Test
     void createUserCalendar_WithExistingCalendar_ShouldThrowException() {
         // Arrange
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.of(userCalendar));
+        when(userCalendarRepository.existsByUserId(userId)).thenReturn(true);
+        
+        // Act & Assert
+        assertThrows(CalendarAlreadyExistsException.class, () -> userCalendarService.createUserCalendar(userId));
+        verify(userCalendarRepository, never()).saveAndFlush(any(UserCalendar.class));
+    }
+    
+    @Test
+    void createUserCalendar_LosingARaceOnTheUniqueUserId_ShouldThrowConflict() {
+        // Arrange
+        when(userCalendarRepository.existsByUserId(userId)).thenReturn(false);
+        when(userCalendarRepository.saveAndFlush(any(UserCalendar.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
         
         // Act & Assert
-        assertThrows(IllegalStateException.class, () -> userCalendarService.createUserCalendar(userId));
-        verify(userCalendarRepository, never()).save(any(UserCalendar.class));
+        assertThrows(CalendarAlreadyExistsException.class, () -> userCalendarService.createUserCalendar(userId));
+        verify(calendarIdentityCache, never()).registerAfterCommit(any(), any());
     }
     
     @Test
     void getUserCalendar_ShouldReturnCalendarSuccessfully() {
         // Arrange
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.of(userCalendar));
-        when(modelMapper.map(any(UserCalendar.class), eq(UserCalendarDto.class))).thenReturn(userCalendarDto);
-        when(availabilityRepository.findByUserCalendar(userCalendar)).thenReturn(Collections.emptyList());
+        userCalendar.addAvailability(availability);
+        when(userCalendarRepository.findWithAvailabilitiesByUserId(userId)).thenReturn(Optional.of(userCalendar));
         
         // Act
         UserCalendarDto result = userCalendarService.getUserCalendar(userId);
@@ -132,37 +211,112 @@ class UserCalendarServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(userCalendarDto.getUserId(), result.getUserId());
+        assertEquals(1, result.getAvailabilities().size());
+        assertEquals(availability.getId(), result.getAvailabilities().get(0).getId());
+        assertEquals(userCalendar.getId(), result.getAvailabilities().get(0).getUserCalendarId());
+        verifyNoInteractions(availabilityRepository);
     }
     
     @Test
     void getUserCalendar_WithNonexistentCalendar_ShouldThrowException() {
         // Arrange
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        when(userCalendarRepository.findWithAvailabilitiesByUserId(userId)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> userCalendarService.getUserCalendar(userId));
     }
     
+    @Test
+    void syncCalendar_WithoutSince_ShouldReturnTheWholeCalendar() {
+        // Arrange
+        when(userCalendarRepository.findVersionByUserId(userId))
+                .thenReturn(Optional.of(new CalendarVersion(userCalendar.getId(), 7, LocalDateTime.now())));
+        when(scheduledSlotRepository.findByUserId(userId)).thenReturn(List.of(scheduledSlot));
+        when(availabilityRepository.findByUserCalendarId(userCalendar.getId())).thenReturn(List.of(availability));
+        
+        // Act
+        CalendarSyncDto sync = userCalendarService.syncCalendar(userId, null);
+        
+        // Assert
+        assertTrue(sync.isFullSync());
+        assertEquals(scheduledSlot.getId(), sync.getScheduledSlots().get(0).getId());
+        assertEquals(availability.getId(), sync.getAvailabilities().get(0).getId());
+        assertTrue(sync.getDeleted().isEmpty());
+        assertEquals(7, SyncToken.decode(sync.getSyncToken()).changeSequence());
+        verifyNoInteractions(calendarTombstoneRepository);
+    }
+    
+    @Test
+    void syncCalendar_WithSince_ShouldOnlyReadChangesAfterTheToken() {
+        // Arrange
+        UUID deletedSlotId = UUID.randomUUID();
+        CalendarTombstone tombstone = new CalendarTombstone();
+        tombstone.setResourceType(CalendarTombstone.ResourceType.SCHEDULED_SLOT);
+        tombstone.setResourceId(deletedSlotId);
+        when(userCalendarRepository.findVersionByUserId(userId))
+                .thenReturn(Optional.of(new CalendarVersion(userCalendar.getId(), 9, LocalDateTime.now())));
+        when(calendarVersions.oldestSyncableTime()).thenReturn(LocalDateTime.now().minusDays(30));
+        when(scheduledSlotRepository.findByUserIdAndChangeSequenceGreaterThan(userId, 7)).thenReturn(List.of(scheduledSlot));
+        when(availabilityRepository.findByUserCalendarIdAndChangeSequenceGreaterThan(userCalendar.getId(), 7)).thenReturn(List.of());
+        when(calendarTombstoneRepository.findByUserIdAndChangeSequenceGreaterThan(userId, 7)).thenReturn(List.of(tombstone));
+        String since = new SyncToken(userCalendar.getId(), 7, LocalDateTime.now().minusHours(1)).encode();
+        
+        // Act
+        CalendarSyncDto sync = userCalendarService.syncCalendar(userId, since);
+        
+        // Assert
+        assertFalse(sync.isFullSync());
+        assertEquals(1, sync.getScheduledSlots().size());
+        assertTrue(sync.getAvailabilities().isEmpty());
+        assertEquals(deletedSlotId, sync.getDeleted().get(0).getResourceId());
+        assertEquals(9, SyncToken.decode(sync.getSyncToken()).changeSequence());
+        verify(scheduledSlotRepository, never()).findByUserId(any());
+    }
+    
+    @Test
+    void syncCalendar_WithTokenOfAnotherCalendarOrPastRetention_ShouldRequireAFullSync() {
+        // Arrange
+        when(userCalendarRepository.findVersionByUserId(userId))
+                .thenReturn(Optional.of(new CalendarVersion(userCalendar.getId(), 9, LocalDateTime.now())));
+        when(calendarVersions.oldestSyncableTime()).thenReturn(LocalDateTime.now().minusDays(30));
+        String recreated = new SyncToken(UUID.randomUUID(), 3, LocalDateTime.now()).encode();
+        String expired = new SyncToken(userCalendar.getId(), 3, LocalDateTime.now().minusDays(31)).encode();
+        
+        // Act & Assert
+        assertThrows(SyncTokenExpiredException.class, () -> userCalendarService.syncCalendar(userId, recreated));
+        assertThrows(SyncTokenExpiredException.class, () -> userCalendarService.syncCalendar(userId, expired));
+        assertThrows(InvalidPageTokenException.class, () -> userCalendarService.syncCalendar(userId, "not-a-token"));
+        verifyNoInteractions(calendarTombstoneRepository);
+    }
+    
     @Test
     void deleteUserCalendar_ShouldDeleteCalendarSuccessfully() {
         // Arrange
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.of(userCalendar));
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findIdsByUserCalendarId(userCalendar.getId())).thenReturn(List.of(availability.getId()));
         
         // Act
         userCalendarService.deleteUserCalendar(userId);
         
         // Assert
-        verify(userCalendarRepository).delete(userCalendar);
+        verify(calendarVersions).recordDeletions(userId, CalendarTombstone.ResourceType.AVAILABILITY, List.of(availability.getId()));
+        verify(availabilityRepository).deleteByUserCalendarId(userCalendar.getId());
+        verify(availabilityOverrideRepository).deleteByUserCalendarId(userCalendar.getId());
+        verify(userCalendarRepository).deleteById(userCalendar.getId());
+        verify(calendarIdentityCache).evictAfterCommit(userId, userCalendar.getId());
+        verify(weeklyAvailabilityRegistry).evictAfterCommit(userId);
+        verify(availabilityOverrideRegistry).evictAfterCommit(userId);
+        verify(availableSlotCache).evictUserAfterCommit(userId);
     }
     
     @Test
     void deleteUserCalendar_WithNonexistentCalendar_ShouldThrowException() {
         // Arrange
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenThrow(new ResourceNotFoundException("User calendar not found for user ID: " + userId));
         
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> userCalendarService.deleteUserCalendar(userId));
-        verify(userCalendarRepository, never()).delete(any(UserCalendar.class));
+        verify(userCalendarRepository, never()).deleteById(any(UUID.class));
     }
     
     @Test
@@ -174,9 +328,9 @@ class UserCalendarServiceTest {
         List<Availability> availabilities = new ArrayList<>();
         availabilities.add(availability);
         
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.of(userCalendar));
-        when(availabilityRepository.findByUserCalendarAndIsActiveTrue(userCalendar)).thenReturn(availabilities);
-        when(scheduledSlotRepository.findByUserIdAndStartTimeBetween(userId, start, end)).thenReturn(Collections.emptyList());
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(availabilities);
+        when(scheduledSlotRepository.findOverlapping(eq(userId), any(), any())).thenReturn(Collections.emptyList());
         
         // Act
         List<AvailabilitySlotDto> result = userCalendarService.getAvailableSlots(userId, start, end);
@@ -197,9 +351,11 @@ class UserCalendarServiceTest {
             assertEquals(availability.getEndTime().getMinute(), slot.getEndTime().getMinute());
         }
         
-        verify(userCalendarRepository).findByUserId(userId);
-        verify(availabilityRepository).findByUserCalendarAndIsActiveTrue(userCalendar);
-        verify(scheduledSlotRepository).findByUserIdAndStartTimeBetween(userId, start, end);
+        verify(calendarIdentityCache).requireCalendarIdOf(userId);
+        verify(availabilityRepository).findByUserCalendarIdAndIsActiveTrue(userCalendar.getId());
+        verify(scheduledSlotRepository, atLeastOnce()).findOverlapping(eq(userId), any(), any());
+        verify(slotGenerationMetrics).recordRequest(7, result.size());
+        verify(slotGenerationMetrics, atLeastOnce()).recordGeneration(1, 0);
     }
     
     @Test
@@ -214,9 +370,9 @@ class UserCalendarServiceTest {
         List<ScheduledSlot> scheduledSlots = new ArrayList<>();
         scheduledSlots.add(scheduledSlot);
         
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.of(userCalendar));
-        when(availabilityRepository.findByUserCalendarAndIsActiveTrue(userCalendar)).thenReturn(availabilities);
-        when(scheduledSlotRepository.findByUserIdAndStartTimeBetween(userId, start, end)).thenReturn(scheduledSlots);
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(availabilities);
+        when(scheduledSlotRepository.findOverlapping(eq(userId), any(), any())).thenReturn(scheduledSlots);
         
         // Act
         List<AvailabilitySlotDto> result = userCalendarService.getAvailableSlots(userId, start, end);
@@ -234,9 +390,9 @@ class UserCalendarServiceTest {
             }
         }
         
-        verify(userCalendarRepository).findByUserId(userId);
-        verify(availabilityRepository).findByUserCalendarAndIsActiveTrue(userCalendar);
-        verify(scheduledSlotRepository).findByUserIdAndStartTimeBetween(userId, start, end);
+        verify(calendarIdentityCache).requireCalendarIdOf(userId);
+        verify(availabilityRepository).findByUserCalendarIdAndIsActiveTrue(userCalendar.getId());
+        verify(scheduledSlotRepository, atLeastOnce()).findOverlapping(eq(userId), any(), any());
     }
     
     @Test
@@ -245,9 +401,8 @@ class UserCalendarServiceTest {
         LocalDateTime start = LocalDateTime.now();
         LocalDateTime end = start.plusDays(7);
         
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.of(userCalendar));
-        when(availabilityRepository.findByUserCalendarAndIsActiveTrue(userCalendar)).thenReturn(Collections.emptyList());
-        when(scheduledSlotRepository.findByUserIdAndStartTimeBetween(userId, start, end)).thenReturn(Collections.emptyList());
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(Collections.emptyList());
         
         // Act
         List<AvailabilitySlotDto> result = userCalendarService.getAvailableSlots(userId, start, end);
@@ -256,9 +411,9 @@ class UserCalendarServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
         
-        verify(userCalendarRepository).findByUserId(userId);
-        verify(availabilityRepository).findByUserCalendarAndIsActiveTrue(userCalendar);
-        verify(scheduledSlotRepository).findByUserIdAndStartTimeBetween(userId, start, end);
+        verify(calendarIdentityCache).requireCalendarIdOf(userId);
+        verify(availabilityRepository).findByUserCalendarIdAndIsActiveTrue(userCalendar.getId());
+        verify(scheduledSlotRepository, never()).findOverlapping(any(), any(), any());
     }
     
     @Test
@@ -267,13 +422,244 @@ class UserCalendarServiceTest {
         LocalDateTime start = LocalDateTime.now();
         LocalDateTime end = start.plusDays(7);
         
-        when(userCalendarRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenThrow(new ResourceNotFoundException("User calendar not found for user ID: " + userId));
         
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> userCalendarService.getAvailableSlots(userId, start, end));
         
-        verify(userCalendarRepository).findByUserId(userId);
-        verify(availabilityRepository, never()).findByUserCalendarAndIsActiveTrue(any());
-        verify(scheduledSlotRepository, never()).findByUserIdAndStartTimeBetween(any(), any(), any());
+        verify(availabilityRepository, never()).findByUserCalendarIdAndIsActiveTrue(any());
+        verify(scheduledSlotRepository, never()).findOverlapping(any(), any(), any());
+    }
+    
+    @Test
+    void getAvailableSlots_ShouldServeRepeatedWeeksFromCache() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(15);
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(List.of(availability));
+        
+        // Act
+        List<AvailabilitySlotDto> first = userCalendarService.getAvailableSlots(userId, start, end);
+        List<AvailabilitySlotDto> second = userCalendarService.getAvailableSlots(userId, start, end);
+        List<AvailabilitySlotDto> narrower = userCalendarService.getAvailableSlots(userId, start.plusDays(7), end);
+        
+        // Assert
+        assertEquals(3, first.size());
+        assertEquals(first.size(), second.size());
+        assertEquals(2, narrower.size());
+        verify(availabilityRepository, times(1)).findByUserCalendarIdAndIsActiveTrue(userCalendar.getId());
+        verify(scheduledSlotRepository, times(3)).findOverlapping(eq(userId), any(), any());
+    }
+    
+    @Test
+    void getAvailableSlots_AfterSlotWeekEviction_ShouldOnlyRecomputeThatWeek() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(15);
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(List.of(availability));
+        userCalendarService.getAvailableSlots(userId, start, end);
+        
+        ScheduledSlot booked = new ScheduledSlot();
+        booked.setUserId(userId);
+        booked.setStartTime(LocalDateTime.of(2024, 1, 8, 10, 0));
+        booked.setEndTime(LocalDateTime.of(2024, 1, 8, 11, 0));
+        when(scheduledSlotRepository.findOverlapping(
+                userId, LocalDate.of(2024, 1, 8).atStartOfDay(), LocalDate.of(2024, 1, 15).atStartOfDay()))
+                .thenReturn(List.of(booked));
+        
+        // Act
+        availableSlotCache.evictWeeksAfterCommit(userId, booked.getStartTime(), booked.getEndTime());
+        List<AvailabilitySlotDto> result = userCalendarService.getAvailableSlots(userId, start, end);
+        
+        // Assert
+        assertEquals(2, result.size());
+        assertTrue(result.stream().noneMatch(slot -> slot.getStartTime().toLocalDate().equals(LocalDate.of(2024, 1, 8))));
+        verify(scheduledSlotRepository, times(4)).findOverlapping(eq(userId), any(), any());
+    }
+    
+    @Test
+    void getAvailableSlots_WithAnEvictionWhileComputing_ShouldNotCacheLaterWeeksFromTheStaleAvailabilities() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(8);
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(List.of(availability));
+        // An availability write commits after the first request has read the availabilities
+        when(scheduledSlotRepository.findOverlapping(
+                userId, LocalDate.of(2024, 1, 1).atStartOfDay(), LocalDate.of(2024, 1, 8).atStartOfDay()))
+                .thenAnswer(invocation -> {
+                    availableSlotCache.evictUserAfterCommit(userId);
+                    return List.of();
+                })
+                .thenReturn(List.of());
+        userCalendarService.getAvailableSlots(userId, start, end);
+        
+        // Act
+        userCalendarService.getAvailableSlots(userId, start, end);
+        
+        // Assert
+        verify(availabilityRepository, times(2)).findByUserCalendarIdAndIsActiveTrue(userCalendar.getId());
+        verify(scheduledSlotRepository, times(4)).findOverlapping(eq(userId), any(), any());
+    }
+    
+    @Test
+    void isAvailableAt_ShouldAnswerFromWeeklyBitmap() {
+        // Arrange
+        when(weeklyAvailabilityRegistry.get(userId)).thenReturn(WeeklyAvailabilityBitmap.of(List.of(availability)));
+        LocalDateTime monday = LocalDateTime.of(2024, 1, 1, 0, 0);
+        
+        // Act & Assert
+        assertTrue(userCalendarService.isAvailableAt(userId, monday.withHour(9)));
+        assertTrue(userCalendarService.isAvailableAt(userId, monday.withHour(16).withMinute(59)));
+        assertFalse(userCalendarService.isAvailableAt(userId, monday.withHour(17)));
+        assertFalse(userCalendarService.isAvailableAt(userId, monday.plusDays(1).withHour(10)));
+        verifyNoInteractions(userCalendarRepository, availabilityRepository, scheduledSlotRepository);
+    }
+    
+    @Test
+    void partialBlackout_ShouldTrimTheWindowTheSameWayForSlotsAndAvailabilityLookups() {
+        // Arrange
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        AvailabilityOverride lunch = new AvailabilityOverride();
+        lunch.setDate(monday);
+        lunch.setType(AvailabilityOverride.Type.BLACKOUT);
+        lunch.setStartTime(LocalTime.of(12, 0));
+        lunch.setEndTime(LocalTime.of(13, 0));
+        when(availabilityOverrideRegistry.get(userId)).thenReturn(AvailabilityOverrides.of(List.of(lunch)));
+        when(weeklyAvailabilityRegistry.get(userId)).thenReturn(WeeklyAvailabilityBitmap.of(List.of(availability)));
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(List.of(availability));
+        
+        // Act
+        List<AvailabilitySlotDto> slots = userCalendarService.getAvailableSlots(
+                userId, monday.atStartOfDay(), monday.plusDays(1).atStartOfDay());
+        List<AvailabilitySlotDto> windows = userCalendarService.getAvailabilityWindows(userId, monday);
+        
+        // Assert
+        List<List<LocalDateTime>> expected = List.of(
+                List.of(monday.atTime(9, 0), monday.atTime(12, 0)),
+                List.of(monday.atTime(13, 0), monday.atTime(17, 0)));
+        assertEquals(expected, slots.stream().map(slot -> List.of(slot.getStartTime(), slot.getEndTime())).toList());
+        assertEquals(expected, windows.stream().map(window -> List.of(window.getStartTime(), window.getEndTime())).toList());
+        assertTrue(userCalendarService.isAvailableAt(userId, monday.atTime(10, 0)));
+        assertFalse(userCalendarService.isAvailableAt(userId, monday.atTime(12, 30)));
+        assertTrue(userCalendarService.isAvailableAt(userId, monday.atTime(13, 0)));
+    }
+    
+    @Test
+    void availabilityLookups_ShouldApplyTheOverrideIndex() {
+        // Arrange
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        AvailabilityOverride dayOff = new AvailabilityOverride();
+        dayOff.setDate(monday);
+        dayOff.setType(AvailabilityOverride.Type.BLACKOUT);
+        AvailabilityOverride evening = new AvailabilityOverride();
+        evening.setDate(monday.plusDays(7));
+        evening.setType(AvailabilityOverride.Type.EXTRA);
+        evening.setStartTime(LocalTime.of(18, 0));
+        evening.setEndTime(LocalTime.of(20, 0));
+        when(availabilityOverrideRegistry.get(userId)).thenReturn(AvailabilityOverrides.of(List.of(dayOff, evening)));
+        when(weeklyAvailabilityRegistry.get(userId)).thenReturn(WeeklyAvailabilityBitmap.of(List.of(availability)));
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(List.of(availability));
+        
+        // Act
+        List<AvailabilitySlotDto> slots = userCalendarService.getAvailableSlots(
+                userId, monday.atStartOfDay(), monday.plusDays(14).atStartOfDay());
+        
+        // Assert
+        assertEquals(List.of(monday.plusDays(7).atTime(9, 0), monday.plusDays(7).atTime(18, 0)),
+                slots.stream().map(AvailabilitySlotDto::getStartTime).toList());
+        assertFalse(userCalendarService.isAvailableAt(userId, monday.atTime(10, 0)));
+        assertTrue(userCalendarService.isAvailableAt(userId, monday.plusDays(7).atTime(19, 0)));
+        assertTrue(userCalendarService.getAvailabilityWindows(userId, monday).isEmpty());
+    }
+    
+    @Test
+    void getAvailabilityWindows_ShouldExpandBitmapForDate() {
+        // Arrange
+        when(weeklyAvailabilityRegistry.get(userId)).thenReturn(WeeklyAvailabilityBitmap.of(List.of(availability)));
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        
+        // Act
+        List<AvailabilitySlotDto> result = userCalendarService.getAvailabilityWindows(userId, monday);
+        
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(monday.atTime(9, 0), result.get(0).getStartTime());
+        assertEquals(monday.atTime(17, 0), result.get(0).getEndTime());
+        assertEquals(userId, result.get(0).getUserId());
+        assertTrue(userCalendarService.getAvailabilityWindows(userId, monday.plusDays(1)).isEmpty());
+    }
+    
+    @Test
+    void getCommonAvailableSlots_ShouldIntersectParticipantsWithBatchedQueries() {
+        // Arrange
+        UUID otherUserId = UUID.randomUUID();
+        UserCalendar otherCalendar = new UserCalendar();
+        otherCalendar.setId(UUID.randomUUID());
+        otherCalendar.setUserId(otherUserId);
+        
+        Availability otherAvailability = new Availability();
+        otherAvailability.setUserCalendar(otherCalendar);
+        otherAvailability.setDayOfWeek(DayOfWeek.MONDAY);
+        otherAvailability.setStartTime(LocalTime.of(13, 0));
+        otherAvailability.setEndTime(LocalTime.of(20, 0));
+        
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(7);
+        Set<UUID> participants = Set.of(userId, otherUserId);
+        
+        when(userCalendarRepository.findByUserIdIn(any())).thenReturn(List.of(userCalendar, otherCalendar));
+        when(availabilityRepository.findByUserCalendarInAndIsActiveTrue(any())).thenReturn(List.of(availability, otherAvailability));
+        when(scheduledSlotRepository.findOverlappingForUsers(any(), eq(start), eq(end))).thenReturn(Collections.emptyList());
+        
+        // Act
+        List<CommonAvailableSlotDto> result = userCalendarService.getCommonAvailableSlots(List.of(userId, otherUserId, userId), start, end);
+        
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(start.withHour(13), result.get(0).getStartTime());
+        assertEquals(start.withHour(17), result.get(0).getEndTime());
+        assertEquals(List.of(userId, otherUserId), result.get(0).getUserIds());
+        verify(userCalendarRepository).findByUserIdIn(participants);
+        verify(userCalendarRepository, never()).findByUserId(any());
+    }
+    
+    @Test
+    void getCommonAvailableSlots_WithMissingCalendar_ShouldThrowException() {
+        // Arrange
+        UUID unknownUserId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.now();
+        when(userCalendarRepository.findByUserIdIn(any())).thenReturn(List.of(userCalendar));
+        
+        // Act & Assert
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
+                () -> userCalendarService.getCommonAvailableSlots(List.of(userId, unknownUserId), start, start.plusDays(1)));
+        assertTrue(ex.getMessage().contains(unknownUserId.toString()));
+        verify(availabilityRepository, never()).findByUserCalendarInAndIsActiveTrue(any());
+    }
+    
+    @Test
+    void streamAvailableSlots_ShouldProduceSameSlotsAsList() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(60);
+        when(calendarIdentityCache.requireCalendarIdOf(userId)).thenReturn(userCalendar.getId());
+        when(availabilityRepository.findByUserCalendarIdAndIsActiveTrue(userCalendar.getId())).thenReturn(List.of(availability));
+        when(scheduledSlotRepository.findOverlapping(eq(userId), any(), any())).thenReturn(Collections.emptyList());
+        
+        // Act
+        List<AvailabilitySlotDto> expected = userCalendarService.getAvailableSlots(userId, start, end);
+        List<AvailabilitySlotDto> streamed = userCalendarService.streamAvailableSlots(userId, start, end).toList();
+        
+        // Assert
+        assertEquals(9, streamed.size());
+        assertEquals(expected.size(), streamed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getStartTime(), streamed.get(i).getStartTime());
+        }
     }
 }
\ No newline at end of file
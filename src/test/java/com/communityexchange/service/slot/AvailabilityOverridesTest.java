@@ -0,0 +1,71 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.entity.AvailabilityOverride;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityOverridesTest {
+
+    private final LocalDate monday = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void on_ShouldGroupOverridesPerDateAndFindThemInAnyInputOrder() {
+        List<AvailabilityOverride> overrides = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            overrides.add(override(monday.plusDays(2L * i), AvailabilityOverride.Type.EXTRA, LocalTime.of(18, 0), LocalTime.of(19, 0)));
+        }
+        overrides.add(override(monday.plusDays(10), AvailabilityOverride.Type.EXTRA, LocalTime.of(7, 0), LocalTime.of(8, 0)));
+        Collections.shuffle(overrides, random);
+
+        AvailabilityOverrides index = AvailabilityOverrides.of(overrides);
+
+        assertFalse(index.isEmpty());
+        assertEquals(1, index.on(monday.plusDays(998)).extras().size());
+        assertNull(index.on(monday.plusDays(999)));
+        assertNull(index.on(monday.minusDays(1)));
+        // Extra windows of a date are ordered by start
+        assertEquals(List.of(LocalTime.of(7, 0), LocalTime.of(18, 0)),
+                index.on(monday.plusDays(10)).extras().stream().map(AvailabilityOverrides.Window::start).toList());
+    }
+
+    @Test
+    void trim_ShouldKeepThePartsOutsideTheBlackoutsOrNothingOnABlackedOutDate() {
+        AvailabilityOverrides index = AvailabilityOverrides.of(List.of(
+                override(monday, AvailabilityOverride.Type.BLACKOUT, LocalTime.of(15, 0), LocalTime.of(15, 30)),
+                override(monday, AvailabilityOverride.Type.BLACKOUT, LocalTime.of(12, 0), LocalTime.of(13, 0)),
+                override(monday, AvailabilityOverride.Type.BLACKOUT, LocalTime.of(12, 30), LocalTime.of(13, 30)),
+                override(monday.plusDays(1), AvailabilityOverride.Type.BLACKOUT, null, null)));
+
+        AvailabilityOverrides.DayOverride partial = index.on(monday);
+        assertEquals(List.of(window(9, 0, 12, 0), window(13, 30, 15, 0), window(15, 30, 17, 0)),
+                partial.trim(LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        assertEquals(List.of(window(11, 0, 12, 0)), partial.trim(LocalTime.of(11, 0), LocalTime.of(12, 30)));
+        assertEquals(List.of(), partial.trim(LocalTime.of(12, 15), LocalTime.of(13, 15)));
+        assertEquals(List.of(window(13, 30, 14, 0)), partial.trim(LocalTime.of(13, 0), LocalTime.of(14, 0)));
+        assertTrue(index.on(monday.plusDays(1)).blackedOut());
+        assertEquals(List.of(), index.on(monday.plusDays(1)).trim(LocalTime.of(0, 0), LocalTime.of(0, 1)));
+        assertTrue(AvailabilityOverrides.of(List.of()).isEmpty());
+    }
+
+    private static AvailabilityOverrides.Window window(int startHour, int startMinute, int endHour, int endMinute) {
+        return new AvailabilityOverrides.Window(LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute));
+    }
+
+    static AvailabilityOverride override(LocalDate date, AvailabilityOverride.Type type, LocalTime start, LocalTime end) {
+        AvailabilityOverride override = new AvailabilityOverride();
+        override.setDate(date);
+        override.setType(type);
+        override.setStartTime(start);
+        override.setEndTime(end);
+        return override;
+    }
+}
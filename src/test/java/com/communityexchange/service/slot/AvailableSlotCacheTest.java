@@ -0,0 +1,130 @@
+package com.communityexchange.service.slot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailableSlotCacheTest {
+
+    // 2024-01-01 is a Monday
+    private final LocalDate monday = LocalDate.of(2024, 1, 1);
+    private final UUID userId = UUID.randomUUID();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AvailableSlotCache cache = new AvailableSlotCache(meterRegistry, 100, Duration.ofMinutes(10));
+
+    @Test
+    void weekStart_ShouldReturnMondayOfIsoWeek() {
+        assertEquals(monday, AvailableSlotCache.weekStart(monday));
+        assertEquals(monday, AvailableSlotCache.weekStart(monday.plusDays(6)));
+        assertEquals(monday.plusWeeks(1), AvailableSlotCache.weekStart(monday.plusDays(7)));
+    }
+
+    @Test
+    void evictWeeksAfterCommit_ShouldOnlyDropTouchedWeeks() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int week = 0; week < 3; week++) {
+            cache.getWeek(userId, monday.plusWeeks(week), () -> counted(loads));
+        }
+
+        cache.evictWeeksAfterCommit(userId, monday.plusDays(6).atTime(23, 0), monday.plusDays(7).atTime(1, 0));
+        for (int week = 0; week < 3; week++) {
+            cache.getWeek(userId, monday.plusWeeks(week), () -> counted(loads));
+        }
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void evictUserAfterCommit_ShouldLeaveOtherUsersCached() {
+        UUID otherUserId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        cache.getWeek(userId, monday, () -> counted(loads));
+        cache.getWeek(otherUserId, monday, () -> counted(loads));
+
+        cache.evictUserAfterCommit(userId);
+        cache.getWeek(userId, monday, () -> counted(loads));
+        cache.getWeek(otherUserId, monday, () -> counted(loads));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictUserAfterCommit_ShouldDropEveryWeekOfTheUserAndCacheLaterLoadsAgain() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int week = 0; week < 3; week++) {
+            cache.getWeek(userId, monday.plusWeeks(week), () -> counted(loads));
+        }
+
+        cache.evictUserAfterCommit(userId);
+        for (int round = 0; round < 2; round++) {
+            for (int week = 0; week < 3; week++) {
+                cache.getWeek(userId, monday.plusWeeks(week), () -> counted(loads));
+            }
+        }
+
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void getWeek_ShouldNotInstallResultLoadedBeforeAnEviction() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getWeek(userId, monday, () -> {
+            cache.evictUserAfterCommit(userId);
+            return counted(loads);
+        });
+        cache.getWeek(userId, monday, () -> counted(loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getWeek_ShouldNotInstallAnyWeekLoadedWithAStampTakenBeforeAnEviction() {
+        AtomicInteger loads = new AtomicInteger();
+        long stamp = cache.stamp();
+        cache.getWeek(userId, monday, stamp, () -> counted(loads));
+
+        cache.evictUserAfterCommit(userId);
+        cache.getWeek(userId, monday.plusWeeks(1), stamp, () -> counted(loads));
+        cache.getWeek(userId, monday, () -> counted(loads));
+        cache.getWeek(userId, monday.plusWeeks(1), () -> counted(loads));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void getWeek_ShouldRecomputeOnceTheWeekIsOlderThanTheExpiryEvenIfReadMeanwhile() throws InterruptedException {
+        AvailableSlotCache shortLived = new AvailableSlotCache(new SimpleMeterRegistry(), 100, Duration.ofMillis(100));
+        AtomicInteger loads = new AtomicInteger();
+        shortLived.getWeek(userId, monday, () -> counted(loads));
+
+        Thread.sleep(60);
+        shortLived.getWeek(userId, monday, () -> counted(loads));
+        Thread.sleep(60);
+        shortLived.getWeek(userId, monday, () -> counted(loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getWeek_ShouldRecordHitAndMissMetrics() {
+        cache.getWeek(userId, monday, List::of);
+        cache.getWeek(userId, monday, List::of);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", AvailableSlotCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", AvailableSlotCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    private List<TimeWindow> counted(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return List.of(new TimeWindow(monday.atTime(9, 0), monday.atTime(17, 0)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.ScheduledSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommonAvailabilityCalculatorTest {
+
+    // 2024-01-01 is a Monday
+    private final LocalDate monday = LocalDate.of(2024, 1, 1);
+    private final CommonAvailabilityCalculator calculator = new CommonAvailabilityCalculator(new FreeBusyEngine(), 2, 4);
+
+    @AfterEach
+    void tearDown() {
+        calculator.shutdown();
+    }
+
+    @Test
+    void intersect_ShouldReturnWindowsCoveredByEveryList() {
+        List<TimeWindow> first = List.of(window(8, 12), window(13, 18));
+        List<TimeWindow> second = List.of(window(9, 10), window(11, 14), window(17, 20));
+        List<TimeWindow> third = List.of(window(0, 24));
+
+        List<TimeWindow> common = CommonAvailabilityCalculator.intersect(List.of(first, second, third));
+
+        assertEquals(List.of(window(9, 10), window(11, 12), window(13, 14), window(17, 18)), common);
+    }
+
+    @Test
+    void intersect_WithAnEmptyList_ShouldReturnNothing() {
+        assertTrue(CommonAvailabilityCalculator.intersect(List.of(List.of(window(9, 17)), List.of())).isEmpty());
+    }
+
+    @Test
+    void normalise_ShouldSortAndMergeOverlappingSlots() {
+        UUID userId = UUID.randomUUID();
+        List<AvailabilitySlotDto> slots = List.of(
+                new AvailabilitySlotDto(monday.atTime(13, 0), monday.atTime(15, 0), userId),
+                new AvailabilitySlotDto(monday.atTime(9, 0), monday.atTime(11, 0), userId),
+                new AvailabilitySlotDto(monday.atTime(10, 0), monday.atTime(13, 0), userId),
+                new AvailabilitySlotDto(monday.atTime(16, 0), monday.atTime(16, 0), userId));
+
+        assertEquals(List.of(window(9, 15)), CommonAvailabilityCalculator.normalise(slots));
+    }
+
+    @Test
+    void commonWindows_ShouldIntersectFreeTimeOfAllUsers() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        ScheduledSlot bobBusy = new ScheduledSlot();
+        bobBusy.setUserId(bob);
+        bobBusy.setStartTime(monday.atTime(10, 0));
+        bobBusy.setEndTime(monday.atTime(11, 0));
+
+        List<TimeWindow> common = calculator.commonWindows(
+                List.of(alice, bob),
+                Map.of(
+                        alice, List.of(availability(9, 12)),
+                        bob, List.of(availability(8, 10), availability(10, 11), availability(11, 13))),
+                Map.of(),
+                Map.of(bob, List.of(bobBusy)),
+                monday.atStartOfDay(),
+                monday.plusDays(1).atStartOfDay());
+
+        assertEquals(List.of(window(9, 10), window(11, 12)), common);
+    }
+
+    @Test
+    void commonWindows_ShouldApplyEachUsersOverrides() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        AvailabilityOverride blackout = new AvailabilityOverride();
+        blackout.setDate(monday);
+        blackout.setType(AvailabilityOverride.Type.BLACKOUT);
+        blackout.setStartTime(LocalTime.of(12, 0));
+        blackout.setEndTime(LocalTime.of(12, 30));
+
+        List<TimeWindow> common = calculator.commonWindows(
+                List.of(alice, bob),
+                Map.of(
+                        alice, List.of(availability(9, 12)),
+                        bob, List.of(availability(8, 10), availability(11, 13))),
+                Map.of(bob, AvailabilityOverrides.of(List.of(blackout))),
+                Map.of(),
+                monday.atStartOfDay(),
+                monday.plusDays(1).atStartOfDay());
+
+        // Bob's blackout trims his 11-13 window to 11-12 and 12:30-13, of which only 11-12 is common
+        assertEquals(List.of(window(9, 10), window(11, 12)), common);
+    }
+
+    private TimeWindow window(int startHour, int endHour) {
+        LocalDateTime start = monday.atStartOfDay().plusHours(startHour);
+        return new TimeWindow(start, monday.atStartOfDay().plusHours(endHour));
+    }
+
+    private static Availability availability(int startHour, int endHour) {
+        Availability availability = new Availability();
+        availability.setDayOfWeek(DayOfWeek.MONDAY);
+        availability.setStartTime(LocalTime.of(startHour, 0));
+        availability.setEndTime(LocalTime.of(endHour, 0));
+        return availability;
+    }
+}
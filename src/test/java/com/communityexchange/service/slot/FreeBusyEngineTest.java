@@ -0,0 +1,250 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.model.entity.ScheduledSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreeBusyEngineTest {
+
+    private final FreeBusyEngine engine = new FreeBusyEngine();
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void generateAvailableSlots_ShouldExcludeWindowsTouchingRangeBoundaries() {
+        // 2024-01-01 is a Monday
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 8, 17, 0);
+        List<Availability> availabilities = List.of(availability(DayOfWeek.MONDAY, 9, 0, 17, 0));
+
+        List<AvailabilitySlotDto> result = engine.generateAvailableSlots(availabilities, List.of(), start, end, userId);
+
+        // Neither Monday qualifies: the first starts exactly at start, the second ends exactly at end
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void generateAvailableSlots_ShouldDropWindowsOverlappingScheduledSlots() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 3, 0, 0);
+        List<Availability> availabilities = List.of(
+                availability(DayOfWeek.MONDAY, 9, 0, 10, 0),
+                availability(DayOfWeek.MONDAY, 10, 0, 11, 0),
+                availability(DayOfWeek.TUESDAY, 9, 0, 10, 0));
+        List<ScheduledSlot> busy = List.of(
+                scheduledSlot(LocalDateTime.of(2024, 1, 1, 9, 30), LocalDateTime.of(2024, 1, 1, 10, 0)));
+
+        List<AvailabilitySlotDto> result = engine.generateAvailableSlots(availabilities, busy, start, end, userId);
+
+        assertEquals(2, result.size());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), result.get(0).getStartTime());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 9, 0), result.get(1).getStartTime());
+    }
+
+    @Test
+    void generateAvailableSlots_ShouldMatchLegacyLoopOnRandomCalendars() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0)
+                    .plusDays(random.nextInt(30))
+                    .plusMinutes(random.nextInt(24 * 60));
+            LocalDateTime end = start.plusMinutes(random.nextInt(21 * 24 * 60));
+
+            List<Availability> availabilities = new ArrayList<>();
+            int availabilityCount = random.nextInt(12);
+            for (int i = 0; i < availabilityCount; i++) {
+                // Includes inverted and empty windows, which the legacy loop also accepts
+                availabilities.add(availability(
+                        DayOfWeek.of(1 + random.nextInt(7)),
+                        random.nextInt(24), 15 * random.nextInt(4),
+                        random.nextInt(24), 15 * random.nextInt(4)));
+            }
+
+            List<ScheduledSlot> busy = new ArrayList<>();
+            int busyCount = random.nextInt(20);
+            for (int i = 0; i < busyCount; i++) {
+                LocalDateTime slotStart = start.minusDays(1).plusMinutes(15L * random.nextInt(4 * 24 * 25));
+                busy.add(scheduledSlot(slotStart, slotStart.plusMinutes(15L * (1 + random.nextInt(16)))));
+            }
+
+            List<AvailabilitySlotDto> expected = LegacySlotGenerator.generateAvailableSlots(availabilities, busy, start, end, userId);
+            List<AvailabilitySlotDto> actual = engine.generateAvailableSlots(availabilities, busy, start, end, userId);
+
+            assertEquals(expected.size(), actual.size(), "run " + run);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getStartTime(), actual.get(i).getStartTime(), "run " + run);
+                assertEquals(expected.get(i).getEndTime(), actual.get(i).getEndTime(), "run " + run);
+                assertEquals(userId, actual.get(i).getUserId());
+            }
+        }
+    }
+
+    @Test
+    void streamAvailableSlots_ShouldMatchEagerResultWhileLoadingBusySlotsInChunks() {
+        Random random = new Random(7);
+        for (int run = 0; run < 200; run++) {
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(7 * 24 * 60));
+            LocalDateTime end = start.plusMinutes(random.nextInt(60 * 24 * 60));
+
+            List<Availability> availabilities = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(10); i++) {
+                availabilities.add(availability(DayOfWeek.of(1 + random.nextInt(7)),
+                        random.nextInt(24), 15 * random.nextInt(4), random.nextInt(24), 15 * random.nextInt(4)));
+            }
+            List<ScheduledSlot> busy = new ArrayList<>();
+            for (int i = 0; i < random.nextInt(60); i++) {
+                LocalDateTime slotStart = start.plusMinutes(15L * random.nextInt(4 * 24 * 60));
+                busy.add(scheduledSlot(slotStart, slotStart.plusMinutes(15L * (1 + random.nextInt(96)))));
+            }
+            // Mirrors the repository's inclusive startTime BETWEEN query over the requested range
+            List<ScheduledSlot> inRange = busy.stream()
+                    .filter(slot -> !slot.getStartTime().isBefore(start) && !slot.getStartTime().isAfter(end))
+                    .toList();
+
+            List<AvailabilitySlotDto> expected = engine.generateAvailableSlots(availabilities, inRange, start, end, userId);
+            List<AvailabilitySlotDto> actual = engine.streamAvailableSlots(availabilities,
+                    (from, to) -> inRange.stream()
+                            .filter(slot -> !slot.getStartTime().isBefore(from) && !slot.getStartTime().isAfter(to))
+                            .toList(),
+                    3, start, end, userId).toList();
+
+            assertEquals(expected.size(), actual.size(), "run " + run);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getStartTime(), actual.get(i).getStartTime(), "run " + run);
+                assertEquals(expected.get(i).getEndTime(), actual.get(i).getEndTime(), "run " + run);
+            }
+        }
+    }
+
+    @Test
+    void streamAvailableSlots_ShouldOnlyLoadChunksItHasReached() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusYears(1);
+        List<Availability> availabilities = List.of(availability(DayOfWeek.MONDAY, 9, 0, 17, 0));
+        List<LocalDateTime> requestedChunks = new ArrayList<>();
+
+        AvailabilitySlotDto first = engine.streamAvailableSlots(availabilities,
+                (from, to) -> {
+                    requestedChunks.add(from);
+                    return List.of();
+                },
+                28, start, end, userId).findFirst().orElseThrow();
+
+        assertEquals(LocalDateTime.of(2024, 1, 1, 9, 0), first.getStartTime());
+        assertEquals(List.of(start), requestedChunks);
+    }
+
+    @Test
+    void generateAvailableSlots_ShouldExpandRecurrenceRulesAndOneOffDatesInListOrder() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 1, 0, 0);
+        Availability firstMonday = availability(DayOfWeek.MONDAY, 9, 0, 10, 0);
+        firstMonday.setRecurrenceRule("FREQ=MONTHLY;BYDAY=1MO");
+        firstMonday.setStartDate(LocalDate.of(2024, 1, 1));
+        Availability weekly = availability(DayOfWeek.MONDAY, 8, 0, 9, 0);
+        Availability oneOff = availability(DayOfWeek.MONDAY, 12, 0, 13, 0);
+        oneOff.setRecurring(false);
+        oneOff.setStartDate(LocalDate.of(2024, 2, 5));
+        Availability fromFebruary = availability(DayOfWeek.MONDAY, 14, 0, 15, 0);
+        fromFebruary.setStartDate(LocalDate.of(2024, 2, 20));
+
+        List<AvailabilitySlotDto> result = engine.generateAvailableSlots(
+                List.of(firstMonday, weekly, oneOff, fromFebruary), List.of(), start, end, userId);
+
+        List<LocalDateTime> starts = result.stream().map(AvailabilitySlotDto::getStartTime).toList();
+        // Nine plain Mondays, two first Mondays, the one-off and the single Monday after 20 February
+        assertEquals(13, starts.size());
+        assertEquals(List.of(
+                LocalDateTime.of(2024, 2, 5, 9, 0),
+                LocalDateTime.of(2024, 2, 5, 8, 0),
+                LocalDateTime.of(2024, 2, 5, 12, 0)),
+                starts.subList(6, 9));
+        assertEquals(List.of(LocalDateTime.of(2024, 2, 26, 8, 0), LocalDateTime.of(2024, 2, 26, 14, 0)),
+                starts.subList(11, 13));
+    }
+
+    @Test
+    void streamAvailableSlots_ShouldMatchEagerResultForRecurrenceRules() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 3, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 6, 1, 0, 0);
+        Availability biweekly = availability(DayOfWeek.WEDNESDAY, 9, 0, 17, 0);
+        biweekly.setRecurrenceRule("FREQ=WEEKLY;INTERVAL=2;BYDAY=WE,FR");
+        biweekly.setStartDate(LocalDate.of(2023, 12, 1));
+        Availability lastDay = availability(DayOfWeek.MONDAY, 18, 0, 20, 0);
+        lastDay.setRecurrenceRule("FREQ=MONTHLY;BYMONTHDAY=-1;COUNT=4");
+        lastDay.setStartDate(LocalDate.of(2024, 1, 1));
+        List<Availability> availabilities = List.of(biweekly, lastDay, availability(DayOfWeek.FRIDAY, 9, 0, 10, 0));
+        List<ScheduledSlot> busy = List.of(
+                scheduledSlot(LocalDateTime.of(2024, 1, 31, 19, 0), LocalDateTime.of(2024, 1, 31, 19, 30)));
+
+        List<AvailabilitySlotDto> eager = engine.generateAvailableSlots(availabilities, busy, start, end, userId);
+        List<AvailabilitySlotDto> streamed = engine.streamAvailableSlots(availabilities,
+                (chunkStart, chunkEnd) -> busy, 7, start, end, userId).toList();
+
+        assertEquals(eager.stream().map(AvailabilitySlotDto::getStartTime).toList(),
+                streamed.stream().map(AvailabilitySlotDto::getStartTime).toList());
+        assertTrue(eager.stream().noneMatch(slot -> slot.getStartTime().equals(LocalDateTime.of(2024, 1, 31, 18, 0))));
+        assertTrue(eager.stream().anyMatch(slot -> slot.getStartTime().equals(LocalDateTime.of(2024, 4, 30, 18, 0))));
+    }
+
+    @Test
+    void generateAvailableSlots_ShouldApplyBlackoutsAndExtraWindowsOfOverriddenDates() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 4, 0, 0);
+        List<Availability> availabilities = List.of(
+                availability(DayOfWeek.MONDAY, 9, 0, 10, 0),
+                availability(DayOfWeek.MONDAY, 10, 0, 11, 0),
+                availability(DayOfWeek.TUESDAY, 9, 0, 10, 0));
+        AvailabilityOverrides overrides = AvailabilityOverrides.of(List.of(
+                AvailabilityOverridesTest.override(LocalDate.of(2024, 1, 1), AvailabilityOverride.Type.BLACKOUT,
+                        LocalTime.of(9, 30), LocalTime.of(10, 0)),
+                AvailabilityOverridesTest.override(LocalDate.of(2024, 1, 2), AvailabilityOverride.Type.BLACKOUT, null, null),
+                AvailabilityOverridesTest.override(LocalDate.of(2024, 1, 2), AvailabilityOverride.Type.EXTRA,
+                        LocalTime.of(14, 0), LocalTime.of(15, 0)),
+                AvailabilityOverridesTest.override(LocalDate.of(2024, 1, 3), AvailabilityOverride.Type.EXTRA,
+                        LocalTime.of(8, 0), LocalTime.of(9, 0))));
+        List<ScheduledSlot> busy = List.of(
+                scheduledSlot(LocalDateTime.of(2024, 1, 3, 8, 30), LocalDateTime.of(2024, 1, 3, 9, 0)));
+
+        List<AvailabilitySlotDto> result = engine.generateAvailableSlots(availabilities, overrides, busy, start, end, userId);
+
+        assertEquals(LocalDateTime.of(2024, 1, 1, 9, 30), result.get(0).getEndTime());
+        // Monday's first window is trimmed to before the blackout; the Wednesday extra window is busy like any other
+        assertEquals(List.of(LocalDateTime.of(2024, 1, 1, 9, 0), LocalDateTime.of(2024, 1, 1, 10, 0),
+                        LocalDateTime.of(2024, 1, 2, 14, 0)),
+                result.stream().map(AvailabilitySlotDto::getStartTime).toList());
+        assertEquals(
+                engine.streamAvailableSlots(availabilities, overrides, (from, to) -> busy, 1, start, end, userId)
+                        .map(AvailabilitySlotDto::getStartTime).toList(),
+                result.stream().map(AvailabilitySlotDto::getStartTime).toList());
+        assertEquals(2, engine.generateAvailableSlots(List.of(), overrides, List.of(), start, end, userId).size());
+    }
+
+    private static Availability availability(DayOfWeek dayOfWeek, int startHour, int startMinute, int endHour, int endMinute) {
+        Availability availability = new Availability();
+        availability.setDayOfWeek(dayOfWeek);
+        availability.setStartTime(LocalTime.of(startHour, startMinute));
+        availability.setEndTime(LocalTime.of(endHour, endMinute));
+        return availability;
+    }
+
+    private ScheduledSlot scheduledSlot(LocalDateTime start, LocalDateTime end) {
+        ScheduledSlot slot = new ScheduledSlot();
+        slot.setUserId(userId);
+        slot.setStartTime(start);
+        slot.setEndTime(end);
+        return slot;
+    }
+}
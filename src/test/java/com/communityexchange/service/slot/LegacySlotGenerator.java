@@ -0,0 +1,62 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.ScheduledSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The original nested-loop slot generation from UserCalendarServiceImpl, kept as the reference
+ * the engine is checked and benchmarked against.
+ */
+public final class LegacySlotGenerator {
+
+    private LegacySlotGenerator() {
+    }
+
+    public static List<AvailabilitySlotDto> generateAvailableSlots(
+            List<Availability> availabilities,
+            List<ScheduledSlot> scheduledSlots,
+            LocalDateTime start,
+            LocalDateTime end,
+            UUID userId) {
+
+        List<AvailabilitySlotDto> availableSlots = new ArrayList<>();
+        LocalDateTime current = start;
+
+        while (current.isBefore(end)) {
+            DayOfWeek dayOfWeek = current.getDayOfWeek();
+
+            for (Availability availability : availabilities) {
+                if (availability.getDayOfWeek() == dayOfWeek) {
+                    LocalDateTime slotStart = current.with(availability.getStartTime());
+                    LocalDateTime slotEnd = current.with(availability.getEndTime());
+
+                    if (slotStart.isAfter(start) && slotEnd.isBefore(end)) {
+                        boolean isAvailable = scheduledSlots.stream()
+                                .noneMatch(slot ->
+                                        (slotStart.isBefore(slot.getEndTime()) && slotEnd.isAfter(slot.getStartTime())));
+
+                        if (isAvailable) {
+                            AvailabilitySlotDto slot = new AvailabilitySlotDto();
+                            slot.setStartTime(slotStart);
+                            slot.setEndTime(slotEnd);
+                            slot.setUserId(userId);
+                            availableSlots.add(slot);
+                        }
+                    }
+                }
+            }
+
+            current = current.plusDays(1).with(LocalTime.MIN);
+        }
+
+        return availableSlots;
+    }
+}
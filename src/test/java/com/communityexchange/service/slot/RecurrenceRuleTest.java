@@ -0,0 +1,116 @@
+package com.communityexchange.service.slot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    // 2024-01-01 is a Monday
+    private final LocalDate start = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void weeklyWithInterval_ShouldSkipEveryOtherWeekCountedFromTheStart() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH");
+
+        assertEquals(List.of(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 4),
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 18)),
+                expand(rule, start, start.plusWeeks(4)));
+        // A window that begins in an off week still lines up with the start
+        assertEquals(List.of(LocalDate.of(2024, 1, 15)), expand(rule, start.plusDays(7), start.plusDays(17)));
+    }
+
+    @Test
+    void weeklyWithoutByDay_ShouldUseTheDefaultWeekday() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=WEEKLY");
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 10)),
+                toList(rule.occurrences(start, DayOfWeek.WEDNESDAY, start, start.plusWeeks(2))));
+    }
+
+    @Test
+    void monthlyByDayOrdinal_ShouldPickFirstMondayAndLastFriday() {
+        RecurrenceRule firstMonday = RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=1MO");
+        RecurrenceRule lastFriday = RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=-1FR");
+        LocalDate end = LocalDate.of(2024, 4, 1);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 5), LocalDate.of(2024, 3, 4)),
+                expand(firstMonday, start, end));
+        assertEquals(List.of(LocalDate.of(2024, 1, 26), LocalDate.of(2024, 2, 23), LocalDate.of(2024, 3, 29)),
+                expand(lastFriday, start, end));
+    }
+
+    @Test
+    void monthlyByMonthDay_ShouldSkipMonthsWithoutThatDayAndCountNegativeDaysFromTheEnd() {
+        LocalDate end = LocalDate.of(2024, 5, 1);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 3, 31)),
+                expand(RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=31"), start, end));
+        assertEquals(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29),
+                        LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30)),
+                expand(RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=-1"), start, end));
+    }
+
+    @Test
+    void countAndUntil_ShouldEndTheSeries() {
+        LocalDate end = LocalDate.of(2025, 1, 1);
+
+        assertEquals(3, expand(RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3;COUNT=3"), start, end).size());
+        assertEquals(List.of(LocalDate.of(2024, 1, 7)),
+                expand(RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3;COUNT=3"), start.plusDays(5), end));
+        assertEquals(LocalDate.of(2024, 1, 29),
+                expand(RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO;UNTIL=20240129T235959Z"), start, end).getLast());
+    }
+
+    @Test
+    void dailyFilters_ShouldKeepOnlyMatchingDates() {
+        RecurrenceRule weekdaysInMarch = RecurrenceRule.parse("FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR;BYMONTH=3");
+
+        List<LocalDate> dates = expand(weekdaysInMarch, start, LocalDate.of(2024, 5, 1));
+
+        assertEquals(21, dates.size());
+        assertTrue(dates.stream().allMatch(date -> date.getMonthValue() == 3 && date.getDayOfWeek().getValue() <= 5));
+    }
+
+    @Test
+    void occurrences_BeforeTheSeriesStart_ShouldNotBeProduced() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,FR");
+
+        assertEquals(LocalDate.of(2024, 1, 5), expand(rule, LocalDate.of(2024, 1, 3), start.plusWeeks(1)).get(0));
+        assertFalse(rule.occursOn(start, DayOfWeek.MONDAY, start.minusWeeks(1)));
+    }
+
+    @Test
+    void openEndedRule_ShouldJumpStraightToAFarWindow() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY");
+        LocalDate far = start.plusYears(1_000_000);
+
+        assertEquals(List.of(far, far.plusDays(1)), expand(rule, far, far.plusDays(2)));
+    }
+
+    @Test
+    void parse_ShouldRejectUnsupportedOrMalformedRules() {
+        for (String rule : List.of("", "INTERVAL=2", "FREQ=YEARLY", "FREQ=WEEKLY;BYDAY=1MO", "FREQ=WEEKLY;BYMONTHDAY=1",
+                "FREQ=DAILY;COUNT=2;UNTIL=20300101", "FREQ=DAILY;INTERVAL=0", "FREQ=MONTHLY;BYDAY=XX",
+                "FREQ=MONTHLY;BYMONTHDAY=0", "FREQ=DAILY;BYSETPOS=1", "FREQ=DAILY;FREQ=WEEKLY", "FREQ=DAILY;UNTIL=tomorrow")) {
+            assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(rule), rule);
+        }
+    }
+
+    private static List<LocalDate> expand(RecurrenceRule rule, LocalDate from, LocalDate toExclusive) {
+        return toList(rule.occurrences(LocalDate.of(2024, 1, 1), DayOfWeek.MONDAY, from, toExclusive));
+    }
+
+    private static List<LocalDate> toList(Iterator<LocalDate> dates) {
+        List<LocalDate> list = new ArrayList<>();
+        dates.forEachRemaining(list::add);
+        return list;
+    }
+}
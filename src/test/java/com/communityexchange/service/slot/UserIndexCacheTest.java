@@ -0,0 +1,79 @@
+package com.communityexchange.service.slot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIndexCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void invalidate_ShouldOnlyDropTheValueAndLeaveTheReloadToTheNextReader() {
+        UserIndexCache<Integer> cache = cache(10);
+        cache.get(userId, this::load);
+
+        cache.invalidate(userId);
+
+        assertEquals(1, loads.get());
+        assertNull(cache.getIfPresent(userId));
+        assertEquals(2, cache.get(userId, this::load));
+        assertEquals(2, cache.get(userId, this::load));
+    }
+
+    @Test
+    void get_ShouldNotInstallAValueLoadedBeforeAnInvalidation() {
+        UserIndexCache<Integer> cache = cache(10);
+
+        Integer stale = cache.get(userId, id -> {
+            cache.invalidate(id);
+            return load(id);
+        });
+
+        assertEquals(1, stale);
+        assertNull(cache.getIfPresent(userId));
+        assertEquals(2, cache.get(userId, this::load));
+    }
+
+    @Test
+    void install_ShouldNotBeFooledByTheInvalidationHavingBeenEvictedSince() {
+        UserIndexCache<Integer> cache = cache(1);
+        long stamp = cache.stamp();
+
+        cache.invalidate(userId);
+        for (int i = 0; i < 100; i++) {
+            UUID otherUserId = UUID.randomUUID();
+            cache.install(otherUserId, cache.stamp(), i);
+            cache.get(otherUserId, this::load);
+        }
+        cache.install(userId, stamp, -1);
+
+        assertNotEquals(-1, cache.getIfPresent(userId));
+    }
+
+    @Test
+    void get_ShouldReloadOnceTheEntryIsOlderThanTheExpiryEvenIfReadMeanwhile() throws InterruptedException {
+        UserIndexCache<Integer> cache = new UserIndexCache<>(new SimpleMeterRegistry(), "test", 10, Duration.ofMillis(100));
+        cache.get(userId, this::load);
+
+        Thread.sleep(60);
+        assertEquals(1, cache.get(userId, this::load));
+        Thread.sleep(60);
+
+        assertEquals(2, cache.get(userId, this::load));
+    }
+
+    private UserIndexCache<Integer> cache(long maximumSize) {
+        return new UserIndexCache<>(new SimpleMeterRegistry(), "test", maximumSize, Duration.ofMinutes(10));
+    }
+
+    private Integer load(UUID userId) {
+        return loads.incrementAndGet();
+    }
+}
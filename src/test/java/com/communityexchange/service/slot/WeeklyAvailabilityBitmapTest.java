@@ -0,0 +1,113 @@
+package com.communityexchange.service.slot;
+
+import com.communityexchange.model.entity.Availability;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeeklyAvailabilityBitmapTest {
+
+    // 2024-01-01 is a Monday
+    private final LocalDate monday = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void windowsOn_ShouldMergeOverlappingAndAdjacentAvailabilities() {
+        WeeklyAvailabilityBitmap bitmap = WeeklyAvailabilityBitmap.of(List.of(
+                availability(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), true),
+                availability(DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(12, 0), true),
+                availability(DayOfWeek.MONDAY, LocalTime.of(12, 0), LocalTime.of(13, 0), true),
+                availability(DayOfWeek.MONDAY, LocalTime.of(15, 0), LocalTime.of(16, 0), true)));
+
+        List<TimeWindow> windows = bitmap.windowsOn(monday);
+
+        assertEquals(List.of(
+                new TimeWindow(monday.atTime(9, 0), monday.atTime(13, 0)),
+                new TimeWindow(monday.atTime(15, 0), monday.atTime(16, 0))), windows);
+        assertEquals(windows.size(), bitmap.windowsOn(monday.plusWeeks(3)).size());
+    }
+
+    @Test
+    void of_ShouldIgnoreInactiveAndInvertedAvailabilities() {
+        WeeklyAvailabilityBitmap bitmap = WeeklyAvailabilityBitmap.of(List.of(
+                availability(DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(17, 0), false),
+                availability(DayOfWeek.TUESDAY, LocalTime.of(22, 0), LocalTime.of(2, 0), true)));
+
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.isAvailableAt(monday.plusDays(1).atTime(10, 0)));
+    }
+
+    @Test
+    void isAvailableAt_ShouldTreatWindowEndAsExclusive() {
+        WeeklyAvailabilityBitmap bitmap = WeeklyAvailabilityBitmap.of(List.of(
+                availability(DayOfWeek.SUNDAY, LocalTime.of(23, 0), LocalTime.MAX, true)));
+        LocalDate sunday = monday.plusDays(6);
+
+        assertFalse(bitmap.isAvailableAt(sunday.atTime(22, 59, 59)));
+        assertTrue(bitmap.isAvailableAt(sunday.atTime(23, 0)));
+        assertTrue(bitmap.isAvailableAt(sunday.atTime(23, 58, 30)));
+        assertFalse(bitmap.isAvailableAt(monday.plusDays(7).atStartOfDay()));
+        assertEquals(List.of(new TimeWindow(sunday.atTime(23, 0), sunday.atTime(23, 59))), bitmap.windowsOn(sunday));
+    }
+
+    @Test
+    void datedAvailabilities_ShouldOnlyApplyOnTheirOccurrences() {
+        Availability biweekly = availability(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0), true);
+        biweekly.setRecurrenceRule("FREQ=WEEKLY;INTERVAL=2");
+        biweekly.setStartDate(monday);
+        Availability oneOff = availability(DayOfWeek.MONDAY, LocalTime.of(11, 0), LocalTime.of(14, 0), true);
+        oneOff.setRecurring(false);
+        oneOff.setStartDate(monday.plusWeeks(1));
+        WeeklyAvailabilityBitmap bitmap = WeeklyAvailabilityBitmap.of(List.of(biweekly, oneOff,
+                availability(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), true)));
+
+        assertFalse(bitmap.isEmpty());
+        assertEquals(List.of(new TimeWindow(monday.atTime(8, 0), monday.atTime(12, 0))), bitmap.windowsOn(monday));
+        assertEquals(List.of(
+                new TimeWindow(monday.plusWeeks(1).atTime(8, 0), monday.plusWeeks(1).atTime(9, 0)),
+                new TimeWindow(monday.plusWeeks(1).atTime(11, 0), monday.plusWeeks(1).atTime(14, 0))),
+                bitmap.windowsOn(monday.plusWeeks(1)));
+        assertTrue(bitmap.isAvailableAt(monday.plusWeeks(2).atTime(10, 0)));
+        assertFalse(bitmap.isAvailableAt(monday.plusWeeks(3).atTime(10, 0)));
+        assertFalse(bitmap.isAvailableAt(monday.minusWeeks(2).atTime(10, 0)));
+        // The plain weekly template is untouched by the dated windows
+        assertEquals(List.of(new TimeWindow(monday.plusWeeks(3).atTime(8, 0), monday.plusWeeks(3).atTime(9, 0))),
+                bitmap.windowsOn(monday.plusWeeks(3)));
+    }
+
+    @Test
+    void overrides_ShouldClearBlackedOutMinutesAndAddExtraWindows() {
+        WeeklyAvailabilityBitmap bitmap = WeeklyAvailabilityBitmap.of(List.of(
+                availability(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(17, 0), true)));
+        AvailabilityOverrides overrides = AvailabilityOverrides.of(List.of(
+                AvailabilityOverridesTest.override(monday, AvailabilityOverride.Type.BLACKOUT, LocalTime.of(12, 0), LocalTime.of(13, 0)),
+                AvailabilityOverridesTest.override(monday, AvailabilityOverride.Type.EXTRA, LocalTime.of(12, 30), LocalTime.of(12, 45)),
+                AvailabilityOverridesTest.override(monday.plusWeeks(1), AvailabilityOverride.Type.BLACKOUT, null, null)));
+
+        assertEquals(List.of(
+                new TimeWindow(monday.atTime(9, 0), monday.atTime(12, 0)),
+                new TimeWindow(monday.atTime(12, 30), monday.atTime(12, 45)),
+                new TimeWindow(monday.atTime(13, 0), monday.atTime(17, 0))), bitmap.windowsOn(monday, overrides));
+        assertFalse(bitmap.isAvailableAt(monday.atTime(12, 15), overrides));
+        assertTrue(bitmap.isAvailableAt(monday.atTime(12, 40), overrides));
+        assertTrue(bitmap.isAvailableAt(monday.atTime(13, 0), overrides));
+        assertTrue(bitmap.windowsOn(monday.plusWeeks(1), overrides).isEmpty());
+        assertFalse(bitmap.isAvailableAt(monday.plusWeeks(1).atTime(10, 0), overrides));
+        // The shared template itself is left alone
+        assertEquals(1, bitmap.windowsOn(monday).size());
+    }
+
+    private static Availability availability(DayOfWeek dayOfWeek, LocalTime start, LocalTime end, boolean active) {
+        Availability availability = new Availability();
+        availability.setDayOfWeek(dayOfWeek);
+        availability.setStartTime(start);
+        availability.setEndTime(end);
+        availability.setActive(active);
+        return availability;
+    }
+}
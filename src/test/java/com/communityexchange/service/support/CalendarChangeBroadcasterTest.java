@@ -0,0 +1,129 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.exception.SubscriberLimitExceededException;
+import com.communityexchange.model.dto.CalendarChangeDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarChangeBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void publish_ShouldDeliverOnlyTheSubscribedUsersChangesInSequenceOrder() {
+        CalendarChangeBroadcaster broadcaster = new CalendarChangeBroadcaster(meterRegistry, 10, 10);
+        Flux<CalendarChangeDto> aliceOnly = broadcaster.subscribe(Set.of(alice));
+        Flux<CalendarChangeDto> everyone = broadcaster.subscribe(Set.of());
+
+        broadcaster.publish(change(alice));
+        broadcaster.publish(change(bob));
+        broadcaster.publish(change(alice));
+
+        StepVerifier.create(aliceOnly)
+                .assertNext(change -> assertEquals(1, change.getSequence()))
+                .assertNext(change -> assertEquals(3, change.getSequence()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(everyone)
+                .expectNextMatches(change -> change.getSequence() == 1 && change.getUserId().equals(alice))
+                .expectNextMatches(change -> change.getSequence() == 2 && change.getUserId().equals(bob))
+                .expectNextMatches(change -> change.getSequence() == 3)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void slowSubscriber_ShouldBeCompletedAfterItsBufferWithoutHoldingBackOthers() {
+        CalendarChangeBroadcaster broadcaster = new CalendarChangeBroadcaster(meterRegistry, 10, 2);
+        Flux<CalendarChangeDto> slow = broadcaster.subscribe(Set.of());
+        Flux<CalendarChangeDto> other = broadcaster.subscribe(Set.of(bob));
+
+        broadcaster.publish(change(alice));
+        broadcaster.publish(change(alice));
+        broadcaster.publish(change(alice));
+        broadcaster.publish(change(bob));
+
+        StepVerifier.create(slow)
+                .expectNextCount(2)
+                .verifyComplete();
+        StepVerifier.create(other)
+                .expectNextMatches(change -> change.getSequence() == 4)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1.0, meterRegistry.counter("calendar.changes.evicted.subscribers").count());
+    }
+
+    @Test
+    void subscribe_BeyondTheLimit_ShouldBeRefusedUntilAStreamCloses() {
+        CalendarChangeBroadcaster broadcaster = new CalendarChangeBroadcaster(meterRegistry, 1, 10);
+        Disposable first = broadcaster.subscribe(Set.of()).subscribe();
+
+        assertThrows(SubscriberLimitExceededException.class, () -> broadcaster.subscribe(Set.of()));
+        assertEquals(1.0, meterRegistry.get("calendar.changes.subscribers").gauge().value());
+
+        first.dispose();
+        assertEquals(0.0, meterRegistry.get("calendar.changes.subscribers").gauge().value());
+        assertNotNull(broadcaster.subscribe(Set.of()));
+    }
+
+    @Test
+    void subscribe_Concurrently_ShouldNeverAdmitMoreThanTheLimit() throws Exception {
+        CalendarChangeBroadcaster broadcaster = new CalendarChangeBroadcaster(meterRegistry, 4, 10);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    broadcaster.subscribe(Set.of()).subscribe();
+                    admitted.incrementAndGet();
+                } catch (SubscriberLimitExceededException | InterruptedException ignored) {
+                    // refused
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4, admitted.get());
+        assertEquals(4.0, meterRegistry.get("calendar.changes.subscribers").gauge().value());
+    }
+
+    @Test
+    void publishAfterCommit_OutsideATransaction_ShouldPublishImmediately() {
+        CalendarChangeBroadcaster broadcaster = new CalendarChangeBroadcaster(meterRegistry, 10, 10);
+        Flux<CalendarChangeDto> changes = broadcaster.subscribe(Set.of());
+        UUID slotId = UUID.randomUUID();
+
+        broadcaster.publishAfterCommit(CalendarChangeDto.Type.SLOT_DELETED, alice, slotId, null);
+
+        StepVerifier.create(changes)
+                .expectNextMatches(change -> change.getType() == CalendarChangeDto.Type.SLOT_DELETED
+                        && change.getResourceId().equals(slotId) && change.getVersion() == null)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static CalendarChangeDto change(UUID userId) {
+        return new CalendarChangeDto(0, CalendarChangeDto.Type.SLOT_UPDATED, userId, UUID.randomUUID(), 1L);
+    }
+}
@@ -0,0 +1,92 @@
+package com.communityexchange.service.support;
+
+import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.repository.UserCalendarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarIdentityCacheTest {
+
+    @Mock
+    private UserCalendarRepository userCalendarRepository;
+
+    private CalendarIdentityCache cache;
+    private final UUID userId = UUID.randomUUID();
+    private final UUID calendarId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        cache = new CalendarIdentityCache(userCalendarRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void requireCalendarIdOf_ShouldQueryRepositoryOnce() {
+        when(userCalendarRepository.findIdByUserId(userId)).thenReturn(Optional.of(calendarId));
+
+        assertEquals(calendarId, cache.requireCalendarIdOf(userId));
+        assertEquals(calendarId, cache.requireCalendarIdOf(userId));
+
+        verify(userCalendarRepository, times(1)).findIdByUserId(userId);
+    }
+
+    @Test
+    void requireCalendarIdOf_ShouldCacheMissingCalendars() {
+        when(userCalendarRepository.findIdByUserId(userId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.requireCalendarIdOf(userId));
+        assertThrows(ResourceNotFoundException.class, () -> cache.requireCalendarIdOf(userId));
+
+        verify(userCalendarRepository, times(1)).findIdByUserId(userId);
+    }
+
+    @Test
+    void registerAfterCommit_ShouldReplaceCachedMiss() {
+        when(userCalendarRepository.findIdByUserId(userId)).thenReturn(Optional.empty());
+        assertTrue(cache.calendarIdOf(userId).isEmpty());
+
+        cache.registerAfterCommit(userId, calendarId);
+
+        assertEquals(Optional.of(calendarId), cache.calendarIdOf(userId));
+        assertEquals(userId, cache.requireUserIdOf(calendarId));
+        verify(userCalendarRepository, never()).findUserIdById(calendarId);
+    }
+
+    @Test
+    void evictAfterCommit_ShouldForgetBothDirections() {
+        when(userCalendarRepository.findIdByUserId(userId)).thenReturn(Optional.of(calendarId)).thenReturn(Optional.empty());
+        when(userCalendarRepository.findUserIdById(calendarId)).thenReturn(Optional.of(userId)).thenReturn(Optional.empty());
+        cache.requireCalendarIdOf(userId);
+        cache.requireUserIdOf(calendarId);
+
+        cache.evictAfterCommit(userId, calendarId);
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.requireCalendarIdOf(userId));
+        assertThrows(ResourceNotFoundException.class, () -> cache.requireUserIdOf(calendarId));
+    }
+
+    @Test
+    void requireCalendarIdOf_ShouldReloadPairingsOnceThePositiveTtlHasPassed() throws InterruptedException {
+        CalendarIdentityCache shortLived = new CalendarIdentityCache(userCalendarRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofMillis(50), Duration.ofMinutes(1));
+        when(userCalendarRepository.findIdByUserId(userId)).thenReturn(Optional.of(calendarId)).thenReturn(Optional.empty());
+        shortLived.requireCalendarIdOf(userId);
+
+        Thread.sleep(100);
+
+        assertThrows(ResourceNotFoundException.class, () -> shortLived.requireCalendarIdOf(userId));
+        verify(userCalendarRepository, times(2)).findIdByUserId(userId);
+    }
+}
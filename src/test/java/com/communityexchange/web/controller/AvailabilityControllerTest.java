@@ -1,7 +1,10 @@
 package com.communityexchange.web.controller;
 
+import com.communityexchange.exception.PreconditionFailedException;
 import com.communityexchange.exception.ResourceNotFoundException;
 import com.communityexchange.model.dto.AvailabilityDto;
+import com.communityexchange.model.dto.BulkItemResultDto;
+import com.communityexchange.model.dto.BulkResultDto;
 import com.communityexchange.service.AvailabilityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +23,7 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -72,6 +76,36 @@ public class AvailabilityControllerTest {
         verify(availabilityService).createAvailability(any(AvailabilityDto.class));
     }
 
+    @Test
+    void createAvailabilities_ShouldReturnPerItemResults() throws Exception {
+        BulkResultDto<AvailabilityDto> result = new BulkResultDto<>(1, 1, List.of(
+                new BulkItemResultDto<>(0, availabilityDto, null),
+                new BulkItemResultDto<>(1, null, "User calendar not found with id: " + userCalendarId)));
+        when(availabilityService.createAvailabilities(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/availabilities/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(availabilityDto, availabilityDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].item.id").value(availabilityId.toString()))
+                .andExpect(jsonPath("$.results[1].error").value("User calendar not found with id: " + userCalendarId));
+    }
+
+    @Test
+    void createAvailability_WithUnsupportedRecurrenceRule_ShouldReturnBadRequest() throws Exception {
+        availabilityDto.setRecurrenceRule("FREQ=YEARLY;BYMONTH=6");
+
+        mockMvc.perform(post("/availabilities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availabilityDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.recurrenceRule").exists());
+
+        verifyNoInteractions(availabilityService);
+    }
+
     @Test
     void getAvailabilityById_WithValidId_ShouldReturnAvailability() throws Exception {
         when(availabilityService.getAvailabilityById(availabilityId)).thenReturn(availabilityDto);
@@ -85,6 +119,16 @@ public class AvailabilityControllerTest {
         verify(availabilityService).getAvailabilityById(availabilityId);
     }
 
+    @Test
+    void getAvailabilityById_ShouldReturnVersionAsETag() throws Exception {
+        availabilityDto.setVersion(2L);
+        when(availabilityService.getAvailabilityById(availabilityId)).thenReturn(availabilityDto);
+
+        mockMvc.perform(get("/availabilities/{id}", availabilityId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+    }
+
     @Test
     void getAvailabilityById_WithInvalidId_ShouldReturnNotFound() throws Exception {
         when(availabilityService.getAvailabilityById(any(UUID.class)))
@@ -137,7 +181,7 @@ public class AvailabilityControllerTest {
         updatedDto.setRecurring(false);
         updatedDto.setActive(false);
 
-        when(availabilityService.updateAvailability(eq(availabilityId), any(AvailabilityDto.class)))
+        when(availabilityService.updateAvailability(eq(availabilityId), any(AvailabilityDto.class), isNull()))
                 .thenReturn(updatedDto);
 
         mockMvc.perform(put("/availabilities/{id}", availabilityId)
@@ -151,12 +195,24 @@ public class AvailabilityControllerTest {
                 .andExpect(jsonPath("$.recurring").value(false))
                 .andExpect(jsonPath("$.active").value(false));
 
-        verify(availabilityService).updateAvailability(eq(availabilityId), any(AvailabilityDto.class));
+        verify(availabilityService).updateAvailability(eq(availabilityId), any(AvailabilityDto.class), isNull());
+    }
+
+    @Test
+    void updateAvailability_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        when(availabilityService.updateAvailability(eq(availabilityId), any(AvailabilityDto.class), eq(1L)))
+                .thenThrow(new PreconditionFailedException("Resource is no longer at version 1"));
+
+        mockMvc.perform(put("/availabilities/{id}", availabilityId)
+                .header("If-Match", "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availabilityDto)))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
     void updateAvailability_WithInvalidId_ShouldReturnNotFound() throws Exception {
-        when(availabilityService.updateAvailability(any(UUID.class), any(AvailabilityDto.class)))
+        when(availabilityService.updateAvailability(any(UUID.class), any(AvailabilityDto.class), isNull()))
                 .thenThrow(new ResourceNotFoundException("Availability not found"));
 
         mockMvc.perform(put("/availabilities/{id}", UUID.randomUUID())
@@ -164,7 +220,7 @@ public class AvailabilityControllerTest {
                 .content(objectMapper.writeValueAsString(availabilityDto)))
                 .andExpect(status().isNotFound());
 
-        verify(availabilityService).updateAvailability(any(UUID.class), any(AvailabilityDto.class));
+        verify(availabilityService).updateAvailability(any(UUID.class), any(AvailabilityDto.class), isNull());
     }
 
     @Test
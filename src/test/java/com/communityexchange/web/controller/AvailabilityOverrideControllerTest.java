@@ -0,0 +1,112 @@
+package com.communityexchange.web.controller;
+
+import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.model.dto.AvailabilityOverrideDto;
+import com.communityexchange.model.entity.AvailabilityOverride;
+import com.communityexchange.service.AvailabilityOverrideService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AvailabilityOverrideController.class)
+public class AvailabilityOverrideControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private AvailabilityOverrideService availabilityOverrideService;
+
+    private AvailabilityOverrideDto availabilityOverrideDto;
+    private final UUID overrideId = UUID.randomUUID();
+    private final UUID userCalendarId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        availabilityOverrideDto = new AvailabilityOverrideDto();
+        availabilityOverrideDto.setId(overrideId);
+        availabilityOverrideDto.setUserCalendarId(userCalendarId);
+        availabilityOverrideDto.setDate(LocalDate.of(2030, 1, 7));
+        availabilityOverrideDto.setType(AvailabilityOverride.Type.BLACKOUT);
+        availabilityOverrideDto.setReason("Holiday");
+    }
+
+    @Test
+    void createAvailabilityOverride_ShouldReturnCreatedOverride() throws Exception {
+        when(availabilityOverrideService.createAvailabilityOverride(any(AvailabilityOverrideDto.class)))
+                .thenReturn(availabilityOverrideDto);
+
+        mockMvc.perform(post("/availability-overrides")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availabilityOverrideDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(overrideId.toString()))
+                .andExpect(jsonPath("$.date").value("2030-01-07"))
+                .andExpect(jsonPath("$.type").value("BLACKOUT"))
+                .andExpect(jsonPath("$.reason").value("Holiday"));
+    }
+
+    @Test
+    void createAvailabilityOverride_WithInvalidWindow_ShouldReturnBadRequest() throws Exception {
+        availabilityOverrideDto.setType(AvailabilityOverride.Type.EXTRA);
+
+        mockMvc.perform(post("/availability-overrides")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availabilityOverrideDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.startTime").value("Start time is required for an extra window"));
+
+        availabilityOverrideDto.setStartTime(LocalTime.of(14, 0));
+        availabilityOverrideDto.setEndTime(LocalTime.of(13, 0));
+        mockMvc.perform(post("/availability-overrides")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(availabilityOverrideDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.endTime").value("End time must be after start time"));
+
+        verifyNoInteractions(availabilityOverrideService);
+    }
+
+    @Test
+    void getAvailabilityOverridesByUserCalendar_ShouldPassTheDateRange() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 31);
+        when(availabilityOverrideService.getAvailabilityOverridesByUserCalendar(userCalendarId, from, to))
+                .thenReturn(List.of(availabilityOverrideDto));
+
+        mockMvc.perform(get("/availability-overrides/user-calendar/{userCalendarId}", userCalendarId)
+                .param("from", "2030-01-01")
+                .param("to", "2030-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(overrideId.toString()));
+    }
+
+    @Test
+    void deleteAvailabilityOverride_WithInvalidId_ShouldReturnNotFound() throws Exception {
+        doThrow(new ResourceNotFoundException("Availability override not found"))
+                .when(availabilityOverrideService).deleteAvailabilityOverride(any(UUID.class));
+
+        mockMvc.perform(delete("/availability-overrides/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+}
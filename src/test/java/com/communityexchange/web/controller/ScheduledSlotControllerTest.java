@@ -1,8 +1,15 @@
 package com.communityexchange.web.controller;
 
+import com.communityexchange.exception.InvalidPageTokenException;
+import com.communityexchange.exception.PreconditionFailedException;
 import com.communityexchange.exception.ResourceNotFoundException;
+import com.communityexchange.exception.SchedulingConflictException;
+import com.communityexchange.model.dto.BulkItemResultDto;
+import com.communityexchange.model.dto.BulkResultDto;
+import com.communityexchange.model.dto.CursorPageDto;
 import com.communityexchange.model.dto.ScheduledSlotDto;
 import com.communityexchange.service.ScheduledSlotService;
+import com.communityexchange.service.SlotQueryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,15 +17,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,6 +49,9 @@ public class ScheduledSlotControllerTest {
     @MockBean
     private ScheduledSlotService scheduledSlotService;
 
+    @MockBean
+    private SlotQueryService slotQueryService;
+
     private ScheduledSlotDto scheduledSlotDto;
     private final UUID scheduledSlotId = UUID.randomUUID();
     private final UUID userId = UUID.randomUUID();
@@ -76,6 +92,46 @@ public class ScheduledSlotControllerTest {
         verify(scheduledSlotService).createScheduledSlot(any(ScheduledSlotDto.class));
     }
 
+    @Test
+    void createScheduledSlot_WithOverlappingSlot_ShouldReturnConflict() throws Exception {
+        when(scheduledSlotService.createScheduledSlot(any(ScheduledSlotDto.class)))
+                .thenThrow(new SchedulingConflictException("The user already has a scheduled slot overlapping this time"));
+
+        mockMvc.perform(post("/scheduled-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(scheduledSlotDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
+    @Test
+    void createScheduledSlots_ShouldReturnPerItemResults() throws Exception {
+        BulkResultDto<ScheduledSlotDto> result = new BulkResultDto<>(1, 1, List.of(
+                new BulkItemResultDto<>(0, scheduledSlotDto, null),
+                new BulkItemResultDto<>(1, null, "The user already has a scheduled slot overlapping this time")));
+        when(scheduledSlotService.createScheduledSlots(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/scheduled-slots/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(scheduledSlotDto, scheduledSlotDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].item.id").value(scheduledSlotId.toString()))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].error").value("The user already has a scheduled slot overlapping this time"));
+    }
+
+    @Test
+    void createScheduledSlots_WithEmptyList_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/scheduled-slots/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(scheduledSlotService, never()).createScheduledSlots(anyList());
+    }
+
     @Test
     void getScheduledSlotById_WithValidId_ShouldReturnScheduledSlot() throws Exception {
         when(scheduledSlotService.getScheduledSlotById(scheduledSlotId)).thenReturn(scheduledSlotDto);
@@ -115,16 +171,50 @@ public class ScheduledSlotControllerTest {
 
     @Test
     void getScheduledSlotsByUserId_ShouldReturnListOfScheduledSlots() throws Exception {
-        List<ScheduledSlotDto> scheduledSlots = Arrays.asList(scheduledSlotDto);
-        when(scheduledSlotService.getScheduledSlotsByUserId(userId)).thenReturn(scheduledSlots);
+        when(scheduledSlotService.getScheduledSlotsByUserId(userId, null, 100))
+                .thenReturn(new CursorPageDto<>(List.of(scheduledSlotDto), null));
 
         mockMvc.perform(get("/scheduled-slots/user/{userId}", userId))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Page-Token"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(scheduledSlotId.toString()))
                 .andExpect(jsonPath("$[0].userId").value(userId.toString()));
 
-        verify(scheduledSlotService).getScheduledSlotsByUserId(userId);
+        verify(scheduledSlotService).getScheduledSlotsByUserId(userId, null, 100);
+    }
+
+    @Test
+    void getScheduledSlotsByUserId_WithMorePages_ShouldReturnNextPageTokenHeader() throws Exception {
+        when(scheduledSlotService.getScheduledSlotsByUserId(userId, "previous", 1))
+                .thenReturn(new CursorPageDto<>(List.of(scheduledSlotDto), "next"));
+
+        mockMvc.perform(get("/scheduled-slots/user/{userId}", userId)
+                .param("pageToken", "previous")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Page-Token", "next"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getScheduledSlotsByUserId_WithLimitAboveMaximum_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/scheduled-slots/user/{userId}", userId)
+                .param("limit", "501"))
+                .andExpect(status().isBadRequest());
+
+        verify(scheduledSlotService, never()).getScheduledSlotsByUserId(any(), any(), anyInt());
+    }
+
+    @Test
+    void getScheduledSlotsByUserId_WithInvalidPageToken_ShouldReturnBadRequest() throws Exception {
+        when(scheduledSlotService.getScheduledSlotsByUserId(userId, "garbage", 100))
+                .thenThrow(new InvalidPageTokenException("Invalid page token: garbage"));
+
+        mockMvc.perform(get("/scheduled-slots/user/{userId}", userId)
+                .param("pageToken", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid page token: garbage"));
     }
 
     @Test
@@ -132,19 +222,69 @@ public class ScheduledSlotControllerTest {
         LocalDateTime start = LocalDateTime.now();
         LocalDateTime end = start.plusDays(7);
         
-        List<ScheduledSlotDto> scheduledSlots = Arrays.asList(scheduledSlotDto);
-        when(scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(scheduledSlots);
+        when(scheduledSlotService.getScheduledSlotsByUserIdAndDateRange(
+                eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq("previous"), eq(100)))
+                .thenReturn(new CursorPageDto<>(List.of(scheduledSlotDto), "next"));
 
         mockMvc.perform(get("/scheduled-slots/user/{userId}/date-range", userId)
                 .param("start", start.toString())
-                .param("end", end.toString()))
+                .param("end", end.toString())
+                .param("pageToken", "previous"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Page-Token", "next"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(scheduledSlotId.toString()))
                 .andExpect(jsonPath("$[0].userId").value(userId.toString()));
 
-        verify(scheduledSlotService).getScheduledSlotsByUserIdAndDateRange(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(scheduledSlotService).getScheduledSlotsByUserIdAndDateRange(
+                eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq("previous"), eq(100));
+    }
+
+    @Test
+    void getScheduledSlotsByUserIdAndDateRange_WithNdjsonAccept_ShouldStreamOneSlotPerLine() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(7);
+        when(slotQueryService.streamScheduledSlots(userId, start, end)).thenReturn(Flux.just(scheduledSlotDto, scheduledSlotDto));
+
+        MvcResult result = mockMvc.perform(get("/scheduled-slots/user/{userId}/date-range", userId)
+                .param("start", start.toString())
+                .param("end", end.toString())
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(scheduledSlotId, objectMapper.readValue(lines[0], ScheduledSlotDto.class).getId());
+        verify(scheduledSlotService, never()).getScheduledSlotsByUserIdAndDateRange(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void exportScheduledSlots_ShouldWriteOneSlotPerLine() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusMonths(1);
+        doAnswer(invocation -> {
+            Consumer<ScheduledSlotDto> sink = invocation.getArgument(2);
+            sink.accept(scheduledSlotDto);
+            sink.accept(scheduledSlotDto);
+            return 2L;
+        }).when(scheduledSlotService).exportScheduledSlots(eq(start), eq(end), any());
+
+        String body = mockMvc.perform(get("/scheduled-slots/export")
+                .param("start", start.toString())
+                .param("end", end.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(scheduledSlotId, objectMapper.readValue(lines[1], ScheduledSlotDto.class).getId());
     }
 
     @Test
@@ -158,7 +298,7 @@ public class ScheduledSlotControllerTest {
         updatedDto.setStartTime(LocalDateTime.now().plusHours(3));
         updatedDto.setEndTime(LocalDateTime.now().plusHours(4));
 
-        when(scheduledSlotService.updateScheduledSlot(eq(scheduledSlotId), any(ScheduledSlotDto.class)))
+        when(scheduledSlotService.updateScheduledSlot(eq(scheduledSlotId), any(ScheduledSlotDto.class), isNull()))
                 .thenReturn(updatedDto);
 
         mockMvc.perform(put("/scheduled-slots/{id}", scheduledSlotId)
@@ -169,7 +309,53 @@ public class ScheduledSlotControllerTest {
                 .andExpect(jsonPath("$.title").value("Updated Title"))
                 .andExpect(jsonPath("$.description").value("Updated Description"));
 
-        verify(scheduledSlotService).updateScheduledSlot(eq(scheduledSlotId), any(ScheduledSlotDto.class));
+        verify(scheduledSlotService).updateScheduledSlot(eq(scheduledSlotId), any(ScheduledSlotDto.class), isNull());
+    }
+
+    @Test
+    void updateScheduledSlot_WithIfMatch_ShouldPassExpectedVersionAndReturnNewETag() throws Exception {
+        ScheduledSlotDto updatedDto = new ScheduledSlotDto();
+        updatedDto.setId(scheduledSlotId);
+        updatedDto.setVersion(5L);
+        when(scheduledSlotService.updateScheduledSlot(eq(scheduledSlotId), any(ScheduledSlotDto.class), eq(4L)))
+                .thenReturn(updatedDto);
+
+        mockMvc.perform(put("/scheduled-slots/{id}", scheduledSlotId)
+                .header("If-Match", "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(scheduledSlotDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.version").value(5));
+    }
+
+    @Test
+    void updateScheduledSlot_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        when(scheduledSlotService.updateScheduledSlot(eq(scheduledSlotId), any(ScheduledSlotDto.class), eq(4L)))
+                .thenThrow(new PreconditionFailedException("Resource is no longer at version 4"));
+
+        mockMvc.perform(put("/scheduled-slots/{id}", scheduledSlotId)
+                .header("If-Match", "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(scheduledSlotDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void confirmScheduledSlot_WithForeignIfMatch_ShouldReturnPreconditionFailedWithoutCallingService() throws Exception {
+        mockMvc.perform(put("/scheduled-slots/{id}/confirm", scheduledSlotId).header("If-Match", "W/\"abc\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(scheduledSlotService);
+    }
+
+    @Test
+    void confirmScheduledSlot_WhenModifiedConcurrentlyWithoutIfMatch_ShouldReturnConflict() throws Exception {
+        when(scheduledSlotService.confirmScheduledSlot(eq(scheduledSlotId), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ScheduledSlotDto.class, scheduledSlotId));
+
+        mockMvc.perform(put("/scheduled-slots/{id}/confirm", scheduledSlotId))
+                .andExpect(status().isConflict());
     }
 
     @Test
@@ -183,14 +369,14 @@ public class ScheduledSlotControllerTest {
         confirmedDto.setStartTime(LocalDateTime.now().plusHours(1));
         confirmedDto.setEndTime(LocalDateTime.now().plusHours(2));
 
-        when(scheduledSlotService.confirmScheduledSlot(scheduledSlotId)).thenReturn(confirmedDto);
+        when(scheduledSlotService.confirmScheduledSlot(eq(scheduledSlotId), isNull())).thenReturn(confirmedDto);
 
         mockMvc.perform(put("/scheduled-slots/{id}/confirm", scheduledSlotId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(scheduledSlotId.toString()))
                 .andExpect(jsonPath("$.confirmed").value(true));
 
-        verify(scheduledSlotService).confirmScheduledSlot(scheduledSlotId);
+        verify(scheduledSlotService).confirmScheduledSlot(eq(scheduledSlotId), isNull());
     }
 
     @Test
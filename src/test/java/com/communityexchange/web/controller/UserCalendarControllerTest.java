@@ -2,7 +2,11 @@ package com.communityexchange.web.controller;
 
 import com.communityexchange.exception.ResourceNotFoundException;
 import com.communityexchange.model.dto.AvailabilitySlotDto;
+import com.communityexchange.model.dto.CommonAvailabilityRequestDto;
+import com.communityexchange.model.dto.CommonAvailableSlotDto;
 import com.communityexchange.model.dto.UserCalendarDto;
+import com.communityexchange.model.projection.CalendarVersion;
+import com.communityexchange.service.SlotQueryService;
 import com.communityexchange.service.UserCalendarService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +16,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -20,6 +26,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -38,9 +45,14 @@ public class UserCalendarControllerTest {
     @MockBean
     private UserCalendarService userCalendarService;
 
+    @MockBean
+    private SlotQueryService slotQueryService;
+
     private UserCalendarDto userCalendarDto;
     private final UUID userId = UUID.randomUUID();
     private final UUID calendarId = UUID.randomUUID();
+    private final CalendarVersion version = new CalendarVersion(calendarId, 7, LocalDateTime.of(2024, 1, 1, 12, 0));
+    private final String eTag = "\"" + calendarId + "-7\"";
 
     @BeforeEach
     void setUp() {
@@ -48,6 +60,7 @@ public class UserCalendarControllerTest {
         userCalendarDto.setId(calendarId);
         userCalendarDto.setUserId(userId);
         userCalendarDto.setAvailabilities(Collections.emptyList());
+        when(userCalendarService.getCalendarVersion(userId)).thenReturn(version);
     }
 
     @Test
@@ -76,15 +89,47 @@ public class UserCalendarControllerTest {
         verify(userCalendarService).getUserCalendar(userId);
     }
 
+    @Test
+    void getUserCalendar_WithValidId_ShouldReturnVersionHeaders() throws Exception {
+        when(userCalendarService.getUserCalendar(userId)).thenReturn(userCalendarDto);
+
+        mockMvc.perform(get("/calendars/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    void getUserCalendar_WithMatchingETag_ShouldReturnNotModifiedWithoutLoadingTheCalendar() throws Exception {
+        mockMvc.perform(get("/calendars/{userId}", userId)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        verify(userCalendarService, never()).getUserCalendar(any());
+    }
+
+    @Test
+    void getUserCalendar_WithStaleETag_ShouldReturnCalendar() throws Exception {
+        when(userCalendarService.getUserCalendar(userId)).thenReturn(userCalendarDto);
+
+        mockMvc.perform(get("/calendars/{userId}", userId)
+                .header("If-None-Match", "\"" + calendarId + "-6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.id").value(calendarId.toString()));
+    }
+
     @Test
     void getUserCalendar_WithInvalidId_ShouldReturnNotFound() throws Exception {
-        when(userCalendarService.getUserCalendar(any(UUID.class)))
+        when(userCalendarService.getCalendarVersion(any(UUID.class)))
                 .thenThrow(new ResourceNotFoundException("User calendar not found"));
 
         mockMvc.perform(get("/calendars/{userId}", UUID.randomUUID()))
                 .andExpect(status().isNotFound());
 
-        verify(userCalendarService).getUserCalendar(any(UUID.class));
+        verify(userCalendarService, never()).getUserCalendar(any(UUID.class));
     }
 
     @Test
@@ -109,7 +154,8 @@ public class UserCalendarControllerTest {
 
         mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
                 .param("start", start.toString())
-                .param("end", end.toString()))
+                .param("end", end.toString())
+                .accept(MediaType.ALL))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].startTime").exists())
@@ -120,6 +166,104 @@ public class UserCalendarControllerTest {
         verify(userCalendarService).getAvailableSlots(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
+    @Test
+    void getAvailableSlots_WithMatchingETag_ShouldReturnNotModifiedWithoutComputingSlots() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
+                .param("start", start.toString())
+                .param("end", start.plusDays(7).toString())
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        verify(userCalendarService, never()).getAvailableSlots(any(), any(), any());
+    }
+
+    @Test
+    void getAvailableSlots_WithNdjsonAccept_ShouldStreamOneSlotPerLine() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(7);
+        
+        AvailabilitySlotDto slot1 = new AvailabilitySlotDto(start.withHour(10), start.withHour(11), userId);
+        AvailabilitySlotDto slot2 = new AvailabilitySlotDto(start.plusDays(1).withHour(10), start.plusDays(1).withHour(11), userId);
+        when(slotQueryService.streamAvailableSlots(userId, start, end)).thenReturn(Flux.just(slot1, slot2));
+
+        MvcResult result = mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
+                .param("start", start.toString())
+                .param("end", end.toString())
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(start.withHour(10), objectMapper.readValue(lines[0], AvailabilitySlotDto.class).getStartTime());
+        verify(userCalendarService, never()).getAvailableSlots(any(), any(), any());
+    }
+
+    @Test
+    void getAvailableSlots_WithNdjsonAcceptAndUnknownUser_ShouldReturnNotFound() throws Exception {
+        when(slotQueryService.streamAvailableSlots(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Flux.error(new ResourceNotFoundException("User calendar not found")));
+
+        MvcResult result = mockMvc.perform(get("/calendars/{userId}/available-slots", userId)
+                .param("start", LocalDateTime.now().toString())
+                .param("end", LocalDateTime.now().plusDays(1).toString())
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getCommonAvailableSlots_ShouldReturnIntersection() throws Exception {
+        UUID otherUserId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(7);
+        
+        CommonAvailabilityRequestDto request = new CommonAvailabilityRequestDto();
+        request.setUserIds(List.of(userId, otherUserId));
+        request.setStart(start);
+        request.setEnd(end);
+        
+        CommonAvailableSlotDto commonSlot = new CommonAvailableSlotDto(
+                start.withHour(13), start.withHour(17), List.of(userId, otherUserId));
+        when(userCalendarService.getCommonAvailableSlots(List.of(userId, otherUserId), start, end))
+                .thenReturn(List.of(commonSlot));
+
+        mockMvc.perform(post("/calendars/common-available-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].userIds", hasSize(2)))
+                .andExpect(jsonPath("$[0].startTime").exists());
+
+        verify(userCalendarService).getCommonAvailableSlots(List.of(userId, otherUserId), start, end);
+    }
+
+    @Test
+    void getCommonAvailableSlots_WithoutUserIds_ShouldReturnBadRequest() throws Exception {
+        CommonAvailabilityRequestDto request = new CommonAvailabilityRequestDto();
+        request.setUserIds(Collections.emptyList());
+        request.setStart(LocalDateTime.now());
+        request.setEnd(LocalDateTime.now().plusDays(1));
+
+        mockMvc.perform(post("/calendars/common-available-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(userCalendarService, never()).getCommonAvailableSlots(any(), any(), any());
+    }
+
     @Test
     void deleteUserCalendar_WithValidId_ShouldReturnNoContent() throws Exception {
         doNothing().when(userCalendarService).deleteUserCalendar(userId);
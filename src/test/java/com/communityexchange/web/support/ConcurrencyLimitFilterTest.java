@@ -0,0 +1,84 @@
+package com.communityexchange.web.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, 1, Duration.ofMillis(50));
+
+    @Test
+    void requestBeyondLimit_ShouldBeRejectedWith503UntilAPermitIsReleased() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> {
+                filter.doFilter(request("/api/scheduled-slots"), new MockHttpServletResponse(), (req, res) -> {
+                    inside.countDown();
+                    try {
+                        leave.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(request("/api/scheduled-slots"), rejected, new MockFilterChain());
+            assertEquals(503, rejected.getStatus());
+            assertEquals("1", rejected.getHeader("Retry-After"));
+            assertTrue(rejected.getContentAsString().contains("Too many concurrent requests"));
+            assertEquals(1.0, meterRegistry.counter("calendar.web.rejected.requests").count());
+
+            MockHttpServletResponse health = new MockHttpServletResponse();
+            filter.doFilter(request("/api/actuator/health"), health, new MockFilterChain());
+            assertEquals(200, health.getStatus());
+
+            leave.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request("/api/scheduled-slots"), admitted, new MockFilterChain());
+        assertEquals(200, admitted.getStatus());
+    }
+
+    @Test
+    void changeFeedStream_ShouldNotHoldAPermitWhileConnected() throws Exception {
+        MockHttpServletRequest stream = request("/api/calendars/changes/stream");
+        stream.setAsyncSupported(true);
+        filter.doFilter(stream, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertTrue(stream.isAsyncStarted());
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request("/api/scheduled-slots"), admitted, new MockFilterChain());
+        assertEquals(200, admitted.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath("/api");
+        return request;
+    }
+}
@@ -0,0 +1,185 @@
+package com.communityexchange.web.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void retryWithSameKey_ShouldReplayTheFirstResponseWithoutReachingTheController() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(5));
+        FilterChain created = respondWith(201, "{\"id\":1}");
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", "{\"title\":\"a\"}"), first, created);
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", "{\"title\":\"a\"}"), retry, created);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("{\"id\":1}", retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1.0, meterRegistry.counter("calendar.web.idempotent.replays").count());
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_ShouldBeRejectedWith422() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(5));
+        filter.doFilter(post("key-1", "{\"title\":\"a\"}"), new MockHttpServletResponse(), respondWith(201, "{}"));
+
+        MockHttpServletResponse reused = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", "{\"title\":\"b\"}"), reused, respondWith(201, "{}"));
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void serverError_ShouldNotBeKeptSoTheRetryRunsAgain() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(5));
+        filter.doFilter(post("key-1", "{}"), new MockHttpServletResponse(), respondWith(500, "{}"));
+
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", "{}"), retry, respondWith(201, "{\"id\":1}"));
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void duplicateInFlight_ShouldWaitForTheFirstAndReplayIt() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(5));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> original = executor.submit(() -> {
+                filter.doFilter(post("key-1", "{}"), new MockHttpServletResponse(), (req, res) -> {
+                    inside.countDown();
+                    try {
+                        leave.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respondWith(201, "{\"id\":1}").doFilter(req, res);
+                });
+                return null;
+            });
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse duplicate = new MockHttpServletResponse();
+            Future<?> waiting = executor.submit(() -> {
+                filter.doFilter(post("key-1", "{}"), duplicate, respondWith(201, "{\"id\":2}"));
+                return null;
+            });
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());
+
+            leave.countDown();
+            original.get(5, TimeUnit.SECONDS);
+            waiting.get(5, TimeUnit.SECONDS);
+            assertEquals(1, executions.get());
+            assertEquals("{\"id\":1}", duplicate.getContentAsString());
+            assertEquals("true", duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicateInFlight_ShouldGiveUpWith409AfterTheWait() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofMillis(50));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> original = executor.submit(() -> {
+                filter.doFilter(post("key-1", "{}"), new MockHttpServletResponse(), (req, res) -> {
+                    inside.countDown();
+                    try {
+                        leave.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse duplicate = new MockHttpServletResponse();
+            filter.doFilter(post("key-1", "{}"), duplicate, respondWith(201, "{}"));
+            assertEquals(409, duplicate.getStatus());
+            assertEquals("1", duplicate.getHeader("Retry-After"));
+
+            leave.countDown();
+            original.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void requestsWithoutKeyOrOutsideThePaths_ShouldPassThroughEveryTime() throws Exception {
+        IdempotencyFilter filter = filter(Duration.ofSeconds(5));
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest bulk = post("key-1", "[]");
+            bulk.setRequestURI("/api/scheduled-slots/bulk");
+            filter.doFilter(post(null, "{}"), new MockHttpServletResponse(), respondWith(201, "{}"));
+            filter.doFilter(bulk, new MockHttpServletResponse(), respondWith(200, "{}"));
+        }
+
+        assertEquals(4, executions.get());
+    }
+
+    private IdempotencyFilter filter(Duration inFlightWait) {
+        return new IdempotencyFilter(new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                Set.of("/scheduled-slots"), 100, Duration.ofMinutes(1), inFlightWait);
+    }
+
+    // Also checks that the controller still gets the body the filter already read
+    private FilterChain respondWith(int status, String body) {
+        return (req, res) -> {
+            executions.incrementAndGet();
+            assertTrue(req.getInputStream().readAllBytes().length > 0);
+            HttpServletResponse response = (HttpServletResponse) res;
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest post(String idempotencyKey, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/scheduled-slots");
+        request.setContextPath("/api");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        return request;
+    }
+}